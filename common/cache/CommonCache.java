@@ -21,6 +21,7 @@ package grakn.core.common.cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 
 import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 import static java.util.concurrent.TimeUnit.MINUTES;
 
@@ -38,6 +39,16 @@ public class CommonCache<KEY, VALUE> {
         cache = Caffeine.newBuilder().maximumSize(size).expireAfterAccess(timeoutMinutes, MINUTES).build();
     }
 
+    /**
+     * Creates a cache bounded by the total weight of its values, rather than
+     * by their number, such as the estimated bytes that they occupy.
+     */
+    public CommonCache(long maximumWeight, ToIntFunction<VALUE> weigher) {
+        cache = Caffeine.newBuilder().maximumWeight(maximumWeight)
+                .weigher((KEY key, VALUE value) -> weigher.applyAsInt(value))
+                .expireAfterAccess(CACHE_TIMEOUT_MINUTES, MINUTES).build();
+    }
+
     public VALUE get(KEY key, Function<KEY, VALUE> function) {
         return cache.get(key, function);
     }
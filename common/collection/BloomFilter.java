@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.common.collection;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe Bloom filter over byte arrays that scales as elements are added.
+ *
+ * The filter is made of a list of segments, where each segment is sized for a
+ * fixed number of elements at a false positive rate of roughly 0.1%. Once the
+ * last segment is full, a new segment four times as large is appended, and
+ * lookups check every segment, so the overall false positive rate only grows
+ * with the logarithm of the number of elements. Elements can never be removed, so a filter may only ever answer
+ * "definitely absent" or "possibly present".
+ */
+public class BloomFilter {
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 1 << 12;
+    private static final int BITS_PER_ELEMENT = 14;
+    private static final int HASH_FUNCTIONS = 10;
+    private static final int GROWTH_FACTOR = 4;
+
+    private final List<Segment> segments;
+
+    public BloomFilter() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public BloomFilter(int initialCapacity) {
+        assert initialCapacity > 0;
+        segments = new CopyOnWriteArrayList<>();
+        segments.add(new Segment(initialCapacity));
+    }
+
+    public void add(byte[] bytes) {
+        long hash = hash(bytes);
+        long hash1 = mix(hash);
+        long hash2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        Segment segment = segments.get(segments.size() - 1);
+        if (segment.isFull()) segment = grow(segment);
+        segment.add(hash1, hash2);
+    }
+
+    public boolean mayContain(byte[] bytes) {
+        long hash = hash(bytes);
+        long hash1 = mix(hash);
+        long hash2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (Segment segment : segments) {
+            if (segment.mayContain(hash1, hash2)) return true;
+        }
+        return false;
+    }
+
+    private synchronized Segment grow(Segment full) {
+        Segment last = segments.get(segments.size() - 1);
+        if (last != full) return last;
+        Segment segment = new Segment((int) Math.min((long) full.capacity * GROWTH_FACTOR, Integer.MAX_VALUE));
+        segments.add(segment);
+        return segment;
+    }
+
+    private static long hash(byte[] bytes) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : bytes) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static class Segment {
+
+        private final int capacity;
+        private final long bitSize;
+        private final AtomicLongArray bits;
+        private final AtomicInteger count;
+
+        private Segment(int capacity) {
+            this.capacity = capacity;
+            int words = (int) Math.min(Integer.MAX_VALUE, ((long) capacity * BITS_PER_ELEMENT + 63) / 64);
+            this.bitSize = (long) words * 64;
+            this.bits = new AtomicLongArray(words);
+            this.count = new AtomicInteger(0);
+        }
+
+        private boolean isFull() {
+            return count.get() >= capacity;
+        }
+
+        private void add(long hash1, long hash2) {
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                long index = Math.floorMod(hash1 + i * hash2, bitSize);
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long current;
+                while (((current = bits.get(word)) & mask) == 0) {
+                    if (bits.compareAndSet(word, current, current | mask)) break;
+                }
+            }
+            count.incrementAndGet();
+        }
+
+        private boolean mayContain(long hash1, long hash2) {
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                long index = Math.floorMod(hash1 + i * hash2, bitSize);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.common.collection;
+
+import org.junit.Test;
+
+import static junit.framework.TestCase.assertTrue;
+
+public class BloomFilterTest {
+
+    @Test
+    public void test_added_elements_are_always_contained() {
+        BloomFilter filter = new BloomFilter(16);
+        for (int i = 0; i < 100_000; i++) filter.add(("element-" + i).getBytes());
+        for (int i = 0; i < 100_000; i++) assertTrue(filter.mayContain(("element-" + i).getBytes()));
+    }
+
+    @Test
+    public void test_false_positive_rate_stays_low_as_filter_grows() {
+        BloomFilter filter = new BloomFilter();
+        for (int i = 0; i < 100_000; i++) filter.add(("element-" + i).getBytes());
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mayContain(("absent-" + i).getBytes())) falsePositives++;
+        }
+        assertTrue(falsePositives < 1_000);
+    }
+}
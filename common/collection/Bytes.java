@@ -60,6 +60,32 @@ public class Bytes {
         return copyOfRange(bytes, prefixLength, bytes.length);
     }
 
+    /**
+     * Compares two byte arrays lexicographically, treating bytes as unsigned,
+     * which is the order that the storage sorts its keys in.
+     */
+    public static int compareBytes(byte[] first, byte[] second) {
+        int length = Math.min(first.length, second.length);
+        for (int i = 0; i < length; i++) {
+            int comparison = Integer.compare(first[i] & 0xff, second[i] & 0xff);
+            if (comparison != 0) return comparison;
+        }
+        return Integer.compare(first.length, second.length);
+    }
+
+    /**
+     * Compares the bytes of the first array from the given index onwards with
+     * the second array, in the same order, without copying that range.
+     */
+    public static int compareBytes(byte[] first, int from, byte[] second) {
+        int length = Math.min(first.length - from, second.length);
+        for (int i = 0; i < length; i++) {
+            int comparison = Integer.compare(first[from + i] & 0xff, second[i] & 0xff);
+            if (comparison != 0) return comparison;
+        }
+        return Integer.compare(first.length - from, second.length);
+    }
+
     public static boolean bytesHavePrefix(byte[] bytes, byte[] prefix) {
         if (bytes.length < prefix.length) return false;
         for (int i = 0; i < prefix.length; i++) {
@@ -127,6 +153,13 @@ public class Bytes {
         return ByteBuffer.wrap(bytes).getLong();
     }
 
+    public static long sortedBytesToLong(byte[] bytes, int from) {
+        assert bytes.length >= from + LONG_SIZE;
+        long num = (bytes[from] ^ 0x80) & 0xff;
+        for (int i = 1; i < LONG_SIZE; i++) num = (num << 8) | (bytes[from + i] & 0xff);
+        return num;
+    }
+
     public static byte[] longToBytes(long num) {
         ByteBuffer buf = ByteBuffer.allocate(LONG_SIZE).order(ByteOrder.nativeOrder());
         buf.putLong(num);
@@ -193,6 +226,15 @@ public class Bytes {
         return ByteBuffer.wrap(bytes).getDouble();
     }
 
+    public static double sortedBytesToDouble(byte[] bytes, int from) {
+        assert bytes.length >= from + DOUBLE_SIZE;
+        long bits = 0;
+        for (int i = 0; i < DOUBLE_SIZE; i++) bits = (bits << 8) | (bytes[from + i] & 0xff);
+        if (bits < 0) bits ^= Long.MIN_VALUE;
+        else bits = ~bits;
+        return Double.longBitsToDouble(bits);
+    }
+
     public static byte[] stringToBytes(String value, Charset encoding) throws GraknCheckedException {
         byte[] bytes = value.getBytes(encoding);
         if (bytes.length > SHORT_UNSIGNED_MAX_VALUE) {
@@ -207,6 +249,11 @@ public class Bytes {
         return new String(x, encoding);
     }
 
+    public static String bytesToString(byte[] bytes, int from, Charset encoding) {
+        int stringLength = ((bytes[from] & 0xff) << 8) | (bytes[from + 1] & 0xff);
+        return new String(bytes, from + SHORT_SIZE, stringLength, encoding);
+    }
+
     public static byte booleanToByte(boolean value) {
         return (byte) (value ? 1 : 0);
     }
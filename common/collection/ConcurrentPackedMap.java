@@ -0,0 +1,325 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.common.collection;
+
+import grakn.core.common.iterator.ResourceIterator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import static grakn.core.common.iterator.Iterators.iterate;
+
+/**
+ * A thread-safe map from keys that can be packed into an {@code int} and a
+ * {@code long}, such as the IIDs of vertices, onto non-null values.
+ *
+ * Keys are never stored as objects: every entry lives in the primitive arrays
+ * of an open-addressing table with linear probing, so a lookup only reads the
+ * two packed parts of the key, and never hashes or compares byte arrays. The
+ * map is split into segments, each guarded by a {@code StampedLock}: lookups
+ * are optimistic and take no lock unless they race with a write to the same
+ * segment, and writes lock a single segment. Removals shift the following
+ * entries back into place, rather than leaving tombstones behind.
+ *
+ * The map does not keep the original key objects, so iterating it only gives
+ * back its values, which is all that vertex caches need.
+ *
+ * @param <KEY>   the type of the keys, which are only ever read to be packed
+ * @param <VALUE> the type of the values
+ */
+public class ConcurrentPackedMap<KEY, VALUE> {
+
+    private static final int SEGMENT_BITS = 6;
+    private static final int SEGMENT_COUNT = 1 << SEGMENT_BITS;
+    private static final int INITIAL_SEGMENT_CAPACITY = 8;
+
+    private final ToIntFunction<KEY> high;
+    private final ToLongFunction<KEY> low;
+    private final List<Segment> segments;
+
+    public ConcurrentPackedMap(ToIntFunction<KEY> high, ToLongFunction<KEY> low) {
+        this.high = high;
+        this.low = low;
+        this.segments = new ArrayList<>(SEGMENT_COUNT);
+        for (int i = 0; i < SEGMENT_COUNT; i++) segments.add(new Segment());
+    }
+
+    private static int hash(int high, long low) {
+        long hash = low * 0x9E3779B97F4A7C15L + high * 0xC2B2AE3D27D4EB4FL;
+        hash ^= hash >>> 29;
+        hash *= 0xBF58476D1CE4E5B9L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private Segment segment(int hash) {
+        return segments.get(hash >>> (Integer.SIZE - SEGMENT_BITS));
+    }
+
+    public VALUE get(KEY key) {
+        int high = this.high.applyAsInt(key);
+        long low = this.low.applyAsLong(key);
+        int hash = hash(high, low);
+        return segment(hash).get(hash, high, low);
+    }
+
+    public boolean containsKey(KEY key) {
+        return get(key) != null;
+    }
+
+    public VALUE put(KEY key, VALUE value) {
+        assert value != null;
+        int high = this.high.applyAsInt(key);
+        long low = this.low.applyAsLong(key);
+        int hash = hash(high, low);
+        return segment(hash).put(hash, high, low, value);
+    }
+
+    /**
+     * Returns the value mapped to the given key, or computes one with the given
+     * function and maps it to the key, unless the function returns null.
+     *
+     * As with {@code ConcurrentHashMap}, the function is applied at most once,
+     * while the key's segment is locked, so it must be short and must not
+     * modify this map.
+     *
+     * @param key      the key to look up
+     * @param function the function to compute the value with, if it is absent
+     * @return the current or computed value, or null if there is none
+     */
+    public VALUE computeIfAbsent(KEY key, Function<KEY, VALUE> function) {
+        int high = this.high.applyAsInt(key);
+        long low = this.low.applyAsLong(key);
+        int hash = hash(high, low);
+        Segment segment = segment(hash);
+        VALUE value = segment.get(hash, high, low);
+        if (value != null) return value;
+        else return segment.computeIfAbsent(hash, high, low, key, function);
+    }
+
+    public VALUE remove(KEY key) {
+        int high = this.high.applyAsInt(key);
+        long low = this.low.applyAsLong(key);
+        int hash = hash(high, low);
+        return segment(hash).remove(hash, high, low);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) size += segment.size;
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        for (Segment segment : segments) segment.clear();
+    }
+
+    /**
+     * Returns an iterator over the values of this map. Each segment is copied
+     * when the iterator reaches it, so the iterator is never invalidated by
+     * concurrent writes, but it may or may not reflect them.
+     *
+     * @return an iterator over the values of this map
+     */
+    public ResourceIterator<VALUE> values() {
+        return iterate(segments).flatMap(segment -> iterate(segment.values()));
+    }
+
+    private static class Table {
+
+        private final int[] highs;
+        private final long[] lows;
+        private final Object[] values;
+        private final int mask;
+
+        private Table(int capacity) {
+            assert Integer.bitCount(capacity) == 1;
+            highs = new int[capacity];
+            lows = new long[capacity];
+            values = new Object[capacity];
+            mask = capacity - 1;
+        }
+    }
+
+    private class Segment {
+
+        private final StampedLock lock;
+        private volatile Table table;
+        private volatile int size;
+
+        private Segment() {
+            lock = new StampedLock();
+            table = null;
+            size = 0;
+        }
+
+        private VALUE get(int hash, int high, long low) {
+            long stamp = lock.tryOptimisticRead();
+            VALUE value = find(table, hash, high, low);
+            if (lock.validate(stamp)) return value;
+            stamp = lock.readLock();
+            try {
+                return find(table, hash, high, low);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private VALUE find(Table table, int hash, int high, long low) {
+            if (table == null) return null;
+            // probes are bounded by the capacity, as an optimistic read may see the table mid-write
+            for (int i = hash & table.mask, probes = 0; probes <= table.mask; i = (i + 1) & table.mask, probes++) {
+                Object value = table.values[i];
+                if (value == null) return null;
+                else if (table.highs[i] == high && table.lows[i] == low) return (VALUE) value;
+            }
+            return null;
+        }
+
+        private VALUE put(int hash, int high, long low, VALUE value) {
+            long stamp = lock.writeLock();
+            try {
+                return insert(hash, high, low, value);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private VALUE computeIfAbsent(int hash, int high, long low, KEY key, Function<KEY, VALUE> function) {
+            long stamp = lock.writeLock();
+            try {
+                VALUE value = find(table, hash, high, low);
+                if (value != null) return value;
+                value = function.apply(key);
+                if (value != null) insert(hash, high, low, value);
+                return value;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private VALUE insert(int hash, int high, long low, VALUE value) {
+            if (table == null) table = new Table(INITIAL_SEGMENT_CAPACITY);
+            else if ((size + 1) * 2 > table.values.length) resize();
+            Table table = this.table;
+            int i = hash & table.mask;
+            while (table.values[i] != null) {
+                if (table.highs[i] == high && table.lows[i] == low) {
+                    VALUE previous = (VALUE) table.values[i];
+                    table.values[i] = value;
+                    return previous;
+                }
+                i = (i + 1) & table.mask;
+            }
+            table.highs[i] = high;
+            table.lows[i] = low;
+            table.values[i] = value;
+            size++;
+            return null;
+        }
+
+        private void resize() {
+            Table old = table;
+            Table resized = new Table(old.values.length * 2);
+            for (int j = 0; j < old.values.length; j++) {
+                if (old.values[j] == null) continue;
+                int i = hash(old.highs[j], old.lows[j]) & resized.mask;
+                while (resized.values[i] != null) i = (i + 1) & resized.mask;
+                resized.highs[i] = old.highs[j];
+                resized.lows[i] = old.lows[j];
+                resized.values[i] = old.values[j];
+            }
+            table = resized;
+        }
+
+        @SuppressWarnings("unchecked")
+        private VALUE remove(int hash, int high, long low) {
+            long stamp = lock.writeLock();
+            try {
+                Table table = this.table;
+                if (table == null) return null;
+                int i = hash & table.mask;
+                while (table.values[i] != null) {
+                    if (table.highs[i] == high && table.lows[i] == low) {
+                        VALUE removed = (VALUE) table.values[i];
+                        shiftBack(table, i);
+                        size--;
+                        return removed;
+                    }
+                    i = (i + 1) & table.mask;
+                }
+                return null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Empties the slot at the given index, and moves back every following
+         * entry of the probe sequence that would otherwise become unreachable.
+         */
+        private void shiftBack(Table table, int empty) {
+            table.values[empty] = null;
+            for (int i = (empty + 1) & table.mask; table.values[i] != null; i = (i + 1) & table.mask) {
+                int home = hash(table.highs[i], table.lows[i]) & table.mask;
+                boolean reachable = empty <= i ? (empty < home && home <= i) : (empty < home || home <= i);
+                if (reachable) continue;
+                table.highs[empty] = table.highs[i];
+                table.lows[empty] = table.lows[i];
+                table.values[empty] = table.values[i];
+                table.values[i] = null;
+                empty = i;
+            }
+        }
+
+        private void clear() {
+            long stamp = lock.writeLock();
+            try {
+                table = null;
+                size = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<VALUE> values() {
+            long stamp = lock.readLock();
+            try {
+                List<VALUE> values = new ArrayList<>(size);
+                if (table == null) return values;
+                for (Object value : table.values) {
+                    if (value != null) values.add((VALUE) value);
+                }
+                return values;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package grakn.core.common.collection;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+
+/**
+ * Compares {@link ConcurrentPackedMap} with the {@link ConcurrentHashMap} that
+ * vertex caches used before, on keys shaped like the IIDs of things: a prefix,
+ * a type and an 8-byte key, with a cached hash, and packed parts that are read
+ * back from the bytes on every lookup.
+ *
+ * Every round populates each map through {@code computeIfAbsent}, as vertex
+ * caches do, and then looks up every key, through copies of the keys rather
+ * than the keys themselves, as the graph looks vertices up by IIDs read back
+ * from storage. The copies are looked up in random order, as traversals do:
+ * looking them up in the order they were inserted in would walk the nodes of
+ * a {@code ConcurrentHashMap} in the order they were allocated in memory. The first rounds
+ * only warm up the JIT. Run it with:
+ * {@code bazel run //common:benchmark-concurrent-packed-map -- <keys> <threads>}
+ */
+public class ConcurrentPackedMapBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final int LOOKUPS_PER_KEY = 4;
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int keyCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        List<Key> keys = keys(keyCount);
+        List<Key> lookups = keys(keyCount);
+        Collections.shuffle(lookups, new Random(0));
+        ExecutorService executor = newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+                boolean isMeasured = round >= WARMUP_ROUNDS;
+                Result packed = run(keys, lookups, threads, executor, packedMap());
+                Result hashed = run(keys, lookups, threads, executor, hashMap());
+                if (isMeasured) {
+                    System.out.printf("round %d: packed { populate: %d ms, lookup: %.1f ns/op }, " +
+                                              "hashed { populate: %d ms, lookup: %.1f ns/op }%n",
+                                      round - WARMUP_ROUNDS, packed.populateMillis, packed.lookupNanosPerOp,
+                                      hashed.populateMillis, hashed.lookupNanosPerOp);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static List<Key> keys(int count) {
+        List<Key> keys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) keys.add(new Key((short) (i % 16), i * 31L));
+        return keys;
+    }
+
+    private static Map packedMap() {
+        ConcurrentPackedMap<Key, Object> map = new ConcurrentPackedMap<>(Key::packedType, Key::packedKey);
+        return new Map(key -> map.computeIfAbsent(key, k -> k), key -> {
+            if (map.get(key) == null) throw new IllegalStateException();
+        });
+    }
+
+    private static Map hashMap() {
+        ConcurrentHashMap<Key, Object> map = new ConcurrentHashMap<>();
+        return new Map(key -> map.computeIfAbsent(key, k -> k), key -> {
+            if (map.get(key) == null) throw new IllegalStateException();
+        });
+    }
+
+    private static Result run(List<Key> keys, List<Key> lookups, int threads, ExecutorService executor, Map map)
+            throws InterruptedException, ExecutionException {
+        long start = System.nanoTime();
+        inParallel(keys, threads, executor, map.populate, 1);
+        long populated = System.nanoTime();
+        inParallel(lookups, threads, executor, map.lookup, LOOKUPS_PER_KEY);
+        long end = System.nanoTime();
+        long operations = (long) lookups.size() * LOOKUPS_PER_KEY;
+        return new Result((populated - start) / 1_000_000, (double) (end - populated) * threads / operations);
+    }
+
+    private static void inParallel(List<Key> keys, int threads, ExecutorService executor, Consumer<Key> operation,
+                                   int repeats) throws InterruptedException, ExecutionException {
+        List<Future<?>> futures = new ArrayList<>(threads);
+        int slice = (keys.size() + threads - 1) / threads;
+        for (int t = 0; t < threads; t++) {
+            int from = Math.min(keys.size(), t * slice);
+            int to = Math.min(keys.size(), from + slice);
+            futures.add(executor.submit(() -> {
+                for (int r = 0; r < repeats; r++) {
+                    for (int i = from; i < to; i++) operation.accept(keys.get(i));
+                }
+            }));
+        }
+        for (Future<?> future : futures) future.get();
+    }
+
+    private static class Map {
+
+        private final Consumer<Key> populate;
+        private final Consumer<Key> lookup;
+
+        private Map(Consumer<Key> populate, Consumer<Key> lookup) {
+            this.populate = populate;
+            this.lookup = lookup;
+        }
+    }
+
+    private static class Result {
+
+        private final long populateMillis;
+        private final double lookupNanosPerOp;
+
+        private Result(long populateMillis, double lookupNanosPerOp) {
+            this.populateMillis = populateMillis;
+            this.lookupNanosPerOp = lookupNanosPerOp;
+        }
+    }
+
+    private static class Key {
+
+        private static final int PREFIX_W_TYPE_LENGTH = 3;
+
+        private final byte[] bytes;
+        private final int hash;
+
+        private Key(short type, long key) {
+            bytes = ByteBuffer.allocate(PREFIX_W_TYPE_LENGTH + Long.BYTES)
+                    .put((byte) 60).putShort(type).putLong(key).array();
+            hash = Arrays.hashCode(bytes);
+        }
+
+        private int packedType() {
+            return (bytes[0] & 0xFF) << 16 | (bytes[1] & 0xFF) << 8 | (bytes[2] & 0xFF);
+        }
+
+        private long packedKey() {
+            long packed = 0;
+            for (int i = PREFIX_W_TYPE_LENGTH; i < bytes.length; i++) packed = (packed << 8) | (bytes[i] & 0xFF);
+            return packed;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            return Arrays.equals(bytes, ((Key) o).bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package grakn.core.common.collection;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNull;
+import static junit.framework.TestCase.assertSame;
+
+public class ConcurrentPackedMapTest {
+
+    private static ConcurrentPackedMap<long[], Integer> map() {
+        return new ConcurrentPackedMap<>(key -> (int) key[0], key -> key[1]);
+    }
+
+    @Test
+    public void test_map_behaves_as_hash_map_under_random_operations() {
+        ConcurrentPackedMap<long[], Integer> map = map();
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(0);
+        for (int i = 0; i < 500_000; i++) {
+            long[] key = new long[]{random.nextInt(4), random.nextInt(10_000)};
+            long packed = key[0] << 32 | key[1];
+            int value = i;
+            switch (random.nextInt(4)) {
+                case 0:
+                    assertEquals(expected.put(packed, value), map.put(key, value));
+                    break;
+                case 1:
+                    assertEquals(expected.remove(packed), map.remove(key));
+                    break;
+                case 2:
+                    assertEquals(expected.get(packed), map.get(key));
+                    break;
+                default:
+                    assertEquals(expected.computeIfAbsent(packed, k -> value), map.computeIfAbsent(key, k -> value));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected.size(), map.values().toList().size());
+    }
+
+    @Test
+    public void test_reads_are_consistent_while_segments_resize_and_shift() throws InterruptedException, ExecutionException {
+        ConcurrentPackedMap<long[], Integer> map = map();
+        int stable = 10_000;
+        for (int i = 0; i < stable; i++) map.put(new long[]{0, i}, i);
+        int writers = 4;
+        int readers = 4;
+        ExecutorService executor = newFixedThreadPool(writers + readers);
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        try {
+            // readers look up keys that are never written to, in the segments that writers grow and shift entries in
+            List<Future<?>> reads = new ArrayList<>();
+            for (int r = 0; r < readers; r++) {
+                reads.add(executor.submit(() -> {
+                    do {
+                        for (int i = 0; i < stable; i++) assertEquals((Integer) i, map.get(new long[]{0, i}));
+                    } while (isWriting.get());
+                }));
+            }
+            // writers each own the keys of a type, which hash into every segment
+            List<Future<Map<Long, Integer>>> writes = new ArrayList<>();
+            for (int w = 1; w <= writers; w++) {
+                int type = w;
+                writes.add(executor.submit(() -> {
+                    Map<Long, Integer> expected = new HashMap<>();
+                    Random random = new Random(type);
+                    for (int i = 0; i < 200_000; i++) {
+                        long key = random.nextInt(5_000);
+                        if (random.nextBoolean()) assertEquals(expected.put(key, i), map.put(new long[]{type, key}, i));
+                        else assertEquals(expected.remove(key), map.remove(new long[]{type, key}));
+                    }
+                    return expected;
+                }));
+            }
+            int size = stable;
+            for (int w = 1; w <= writers; w++) {
+                Map<Long, Integer> expected = writes.get(w - 1).get();
+                for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+                    assertEquals(entry.getValue(), map.get(new long[]{w, entry.getKey()}));
+                }
+                size += expected.size();
+            }
+            isWriting.set(false);
+            for (Future<?> read : reads) read.get();
+            assertEquals(size, map.size());
+        } finally {
+            isWriting.set(false);
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void test_compute_if_absent_applies_function_once_per_key_across_threads() throws InterruptedException, ExecutionException {
+        ConcurrentPackedMap<long[], Object> map = new ConcurrentPackedMap<>(key -> (int) key[0], key -> key[1]);
+        int keys = 20_000;
+        int threads = 8;
+        AtomicInteger applied = new AtomicInteger();
+        ExecutorService executor = newFixedThreadPool(threads);
+        try {
+            List<Future<Object[]>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    Object[] values = new Object[keys];
+                    for (int i = 0; i < keys; i++) {
+                        values[i] = map.computeIfAbsent(new long[]{i % 3, i}, k -> {
+                            applied.incrementAndGet();
+                            return new Object();
+                        });
+                    }
+                    return values;
+                }));
+            }
+            Object[] first = results.get(0).get();
+            for (Future<Object[]> result : results) {
+                Object[] values = result.get();
+                for (int i = 0; i < keys; i++) assertSame(first[i], values[i]);
+            }
+            assertEquals(keys, applied.get());
+            assertEquals(keys, map.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void test_compute_if_absent_does_not_map_null_values() {
+        ConcurrentPackedMap<long[], Integer> map = map();
+        assertNull(map.computeIfAbsent(new long[]{1, 1}, k -> null));
+        assertEquals(0, map.size());
+    }
+}
@@ -171,6 +171,14 @@ public abstract class ErrorMessage extends grakn.common.exception.ErrorMessage {
                 new Transaction(12, "The transaction type '%s' was not recognised.");
         public static final Transaction DATA_ACQUIRE_LOCK_TIMEOUT =
                 new Transaction(13, "Could not acquire lock for data transaction. A schema session may have been left open.");
+        public static final Transaction QUERY_TIMED_OUT =
+                new Transaction(14, "The query did not complete within its timeout of '%s' milliseconds, and was stopped.");
+        public static final Transaction QUERY_CANCELLED =
+                new Transaction(15, "The query was cancelled.");
+        public static final Transaction QUERY_MEMORY_EXCEEDED =
+                new Transaction(16, "The query exceeded its memory limit of '%s' bytes, and was stopped.");
+        public static final Transaction SERVER_MEMORY_EXCEEDED =
+                new Transaction(17, "The query was stopped, as the queries running on the server exceeded their memory limit of '%s' bytes.");
 
         private static final String codePrefix = "TXN";
         private static final String messagePrefix = "Invalid Transaction Operation";
@@ -316,6 +324,8 @@ public abstract class ErrorMessage extends grakn.common.exception.ErrorMessage {
                 new ThingWrite(30, "Could not perform delete of role players due to multiple relation constraints being present for relation '%s'.");
         public static final ThingWrite DELETE_ROLEPLAYER_NOT_PRESENT =
                 new ThingWrite(31, "Could not delete roleplayer '%s' as relation '%s' does not relate it.");
+        public static final ThingWrite THING_HAS_BEEN_SPILLED =
+                new ThingWrite(32, "The thing with iid '%s' was spilled out of memory onto storage, and has to be retrieved again to be modified.");
 
         private static final String codePrefix = "THW";
         private static final String messagePrefix = "Invalid Thing Write";
@@ -19,6 +19,7 @@
 package grakn.core.common.iterator;
 
 import grakn.core.common.exception.GraknException;
+import grakn.core.common.parameters.MemoryBudget;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -30,6 +31,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -51,6 +53,16 @@ public abstract class AbstractResourceIterator<T> implements ResourceIterator<T>
         return new DistinctIterator<>(this, duplicates);
     }
 
+    @Override
+    public ResourceIterator<T> distinct(MemoryBudget budget, ToLongFunction<T> bytesFn) {
+        return new DistinctIterator<>(this, budget, bytesFn);
+    }
+
+    @Override
+    public ResourceIterator<T> distinct(Set<T> duplicates, MemoryBudget budget, ToLongFunction<T> bytesFn) {
+        return new DistinctIterator<>(this, duplicates, budget, bytesFn);
+    }
+
     @Override
     public <U> ResourceIterator<U> map(Function<T, U> mappingFn) {
         return new MappedIterator<>(this, mappingFn);
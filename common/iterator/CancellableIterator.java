@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.common.iterator;
+
+import grakn.core.common.parameters.Cancellation;
+
+class CancellableIterator<T> extends AbstractResourceIterator<T> {
+
+    private final ResourceIterator<T> iterator;
+    private final Cancellation cancellation;
+
+    CancellableIterator(ResourceIterator<T> iterator, Cancellation cancellation) {
+        this.iterator = iterator;
+        this.cancellation = cancellation;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (cancellation.isCancelled()) {
+            recycle();
+            cancellation.check();
+        }
+        return iterator.hasNext();
+    }
+
+    @Override
+    public T next() {
+        return iterator.next();
+    }
+
+    @Override
+    public void recycle() {
+        iterator.recycle();
+    }
+}
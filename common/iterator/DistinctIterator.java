@@ -18,37 +18,89 @@
 
 package grakn.core.common.iterator;
 
+import grakn.core.common.parameters.MemoryBudget;
+
 import java.util.HashSet;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.function.ToLongFunction;
 
 // TODO: verify (and potentially fix) this class is able to handle null objects
 class DistinctIterator<T> extends AbstractResourceIterator<T> {
 
     private final ResourceIterator<T> iterator;
     private final Set<T> consumed;
+    private final MemoryBudget budget;
+    private final ToLongFunction<T> bytesFn;
+    private final boolean isShared;
+    private long reservedBytes;
     private T next;
 
     public DistinctIterator(ResourceIterator<T> iterator) {
-        this(iterator, new HashSet<>());
+        this(iterator, MemoryBudget.UNLIMITED, t -> 0);
     }
 
     public DistinctIterator(ResourceIterator<T> iterator, Set<T> duplicates) {
+        this(iterator, duplicates, MemoryBudget.UNLIMITED, t -> 0);
+    }
+
+    public DistinctIterator(ResourceIterator<T> iterator, MemoryBudget budget, ToLongFunction<T> bytesFn) {
+        this(iterator, new HashSet<>(), budget, bytesFn, false);
+    }
+
+    /**
+     * Filters out the elements in the given set of duplicates, which may be
+     * shared with other iterators. The elements this iterator adds to the set
+     * are reserved against the given budget, but they are only released with
+     * the budget itself, as the set outlives this iterator.
+     */
+    public DistinctIterator(ResourceIterator<T> iterator, Set<T> duplicates, MemoryBudget budget,
+                            ToLongFunction<T> bytesFn) {
+        this(iterator, duplicates, budget, bytesFn, true);
+    }
+
+    private DistinctIterator(ResourceIterator<T> iterator, Set<T> duplicates, MemoryBudget budget,
+                             ToLongFunction<T> bytesFn, boolean isShared) {
         this.iterator = iterator;
         this.consumed = duplicates;
+        this.budget = budget;
+        this.bytesFn = bytesFn;
+        this.isShared = isShared;
+        this.reservedBytes = 0;
         this.next = null;
     }
 
     @Override
     public boolean hasNext() {
-        return (next != null) || fetchAndCheck();
+        if (next != null) return true;
+        if (fetchAndCheck()) return true;
+        release();
+        return false;
     }
 
     private boolean fetchAndCheck() {
         while (iterator.hasNext() && !consumed.add(next = iterator.next())) next = null;
+        if (next != null && budget != MemoryBudget.UNLIMITED) reserve(bytesFn.applyAsLong(next));
         return next != null;
     }
 
+    private void reserve(long bytes) {
+        try {
+            budget.reserve(bytes);
+        } catch (Throwable e) {
+            recycle();
+            throw e;
+        }
+        reservedBytes += bytes;
+    }
+
+    private void release() {
+        if (!isShared && reservedBytes > 0) {
+            budget.release(reservedBytes);
+            reservedBytes = 0;
+        }
+    }
+
     @Override
     public T next() {
         if (!hasNext()) throw new NoSuchElementException();
@@ -59,6 +111,7 @@ class DistinctIterator<T> extends AbstractResourceIterator<T> {
 
     @Override
     public void recycle() {
+        release();
         iterator.recycle();
     }
 }
@@ -19,9 +19,11 @@
 package grakn.core.common.iterator;
 
 import grakn.common.collection.Either;
+import grakn.core.common.parameters.Cancellation;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.function.Function;
@@ -76,6 +78,15 @@ public class Iterators {
         return new LinkedIterators<>(converted);
     }
 
+    /**
+     * Returns the elements of two iterators that are each sorted by the given
+     * comparator, sorted by it.
+     */
+    public static <T> ResourceIterator<T> merge(ResourceIterator<T> iter1, ResourceIterator<T> iter2,
+                                                Comparator<? super T> comparator) {
+        return new MergedIterator<>(iter1, iter2, comparator);
+    }
+
     public static <T> ResourceIterator<T> loop(T seed, Predicate<T> predicate, UnaryOperator<T> function) {
         return new LoopIterator<>(seed, predicate, function);
     }
@@ -88,6 +99,11 @@ public class Iterators {
         return new SynchronisedIterator<>(iterator);
     }
 
+    public static <T> ResourceIterator<T> cancellable(ResourceIterator<T> iterator, Cancellation cancellation) {
+        if (cancellation == Cancellation.NONE) return iterator;
+        else return new CancellableIterator<>(iterator, cancellation);
+    }
+
     public static <T> ResourceIterator<List<T>> cartesian(List<ResourceIterator<T>> iteratorProducers) {
         return new CartesianIterator<>(iteratorProducers);
     }
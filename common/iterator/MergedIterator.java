@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package grakn.core.common.iterator;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * Merges two iterators that are each sorted by the given comparator into a
+ * single iterator sorted by it, returning the elements of the first iterator
+ * before the equal elements of the second.
+ */
+class MergedIterator<T> extends AbstractResourceIterator<T> {
+
+    private final ResourceIterator<T> first;
+    private final ResourceIterator<T> second;
+    private final Comparator<? super T> comparator;
+    private T nextFirst;
+    private T nextSecond;
+
+    MergedIterator(ResourceIterator<T> first, ResourceIterator<T> second, Comparator<? super T> comparator) {
+        this.first = first;
+        this.second = second;
+        this.comparator = comparator;
+        this.nextFirst = null;
+        this.nextSecond = null;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextFirst == null && first.hasNext()) nextFirst = first.next();
+        if (nextSecond == null && second.hasNext()) nextSecond = second.next();
+        return nextFirst != null || nextSecond != null;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        T next;
+        if (nextSecond == null || (nextFirst != null && comparator.compare(nextFirst, nextSecond) <= 0)) {
+            next = nextFirst;
+            nextFirst = null;
+        } else {
+            next = nextSecond;
+            nextSecond = null;
+        }
+        return next;
+    }
+
+    @Override
+    public void recycle() {
+        first.recycle();
+        second.recycle();
+    }
+}
@@ -19,6 +19,7 @@
 package grakn.core.common.iterator;
 
 import grakn.core.common.exception.GraknException;
+import grakn.core.common.parameters.MemoryBudget;
 
 import java.util.Iterator;
 import java.util.LinkedHashSet;
@@ -27,6 +28,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
 import java.util.stream.Stream;
 
 public interface ResourceIterator<T> extends Iterator<T> {
@@ -35,6 +37,10 @@ public interface ResourceIterator<T> extends Iterator<T> {
 
     ResourceIterator<T> distinct(Set<T> duplicates);
 
+    ResourceIterator<T> distinct(MemoryBudget budget, ToLongFunction<T> bytesFn);
+
+    ResourceIterator<T> distinct(Set<T> duplicates, MemoryBudget budget, ToLongFunction<T> bytesFn);
+
     <U> ResourceIterator<U> map(Function<T, U> mappingFn);
 
     <U> ResourceIterator<U> flatMap(Function<T, ResourceIterator<U>> flatMappingFn);
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.common.parameters;
+
+import grakn.core.common.exception.GraknException;
+
+import static grakn.core.common.exception.ErrorMessage.Transaction.QUERY_CANCELLED;
+import static grakn.core.common.exception.ErrorMessage.Transaction.QUERY_TIMED_OUT;
+
+/**
+ * The deadline of a query, and a flag to cancel it before then, shared by all
+ * the threads executing the query. Nothing is interrupted: iterators, producers
+ * and resolvers check it as they go, and stop by throwing the exception that
+ * says why, which releases the resources they hold as it unwinds.
+ */
+public class Cancellation {
+
+    public static final Cancellation NONE = new Cancellation(0);
+
+    private final long timeoutMillis;
+    private final long deadlineNanos;
+    private volatile boolean isCancelled;
+
+    /**
+     * @param timeoutMillis the time the query may run for from now, or zero
+     *                      if it may run for as long as it needs to
+     */
+    public Cancellation(long timeoutMillis) {
+        assert timeoutMillis >= 0;
+        this.timeoutMillis = timeoutMillis;
+        this.deadlineNanos = timeoutMillis > 0 ? System.nanoTime() + timeoutMillis * 1_000_000 : 0;
+        this.isCancelled = false;
+    }
+
+    public void cancel() {
+        assert this != NONE;
+        isCancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return isCancelled || isTimedOut();
+    }
+
+    private boolean isTimedOut() {
+        return timeoutMillis > 0 && System.nanoTime() - deadlineNanos > 0;
+    }
+
+    /**
+     * Throws if the query was cancelled or ran past its deadline, and does
+     * nothing otherwise. This is cheap enough to be called for every step of
+     * an iterator.
+     */
+    public void check() {
+        if (isCancelled()) throw exception();
+    }
+
+    /**
+     * Returns the exception that says why the query was stopped, for the
+     * parts of its execution that report errors rather than throw them.
+     */
+    public GraknException exception() {
+        assert isCancelled();
+        if (isCancelled) return GraknException.of(QUERY_CANCELLED);
+        else return GraknException.of(QUERY_TIMED_OUT, timeoutMillis);
+    }
+}
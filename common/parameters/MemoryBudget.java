@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.common.parameters;
+
+import grakn.core.common.exception.ErrorMessage;
+import grakn.core.common.exception.GraknException;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static grakn.core.common.exception.ErrorMessage.Transaction.QUERY_MEMORY_EXCEEDED;
+import static grakn.core.common.exception.ErrorMessage.Transaction.SERVER_MEMORY_EXCEEDED;
+
+/**
+ * Accounts for the memory held by the operators of queries that materialise
+ * answers, such as distinct sets, sorts and groups. Budgets form a tree: the
+ * server's budget, the budgets of its transactions, and the budgets of their
+ * queries. Operators reserve estimated bytes as they grow, against the budget
+ * of their query and every budget above it, and release them once they are
+ * done, so that a query that grows past its own limit, or past what is left
+ * of the server's, stops with an exception instead of exhausting the heap.
+ *
+ * Estimates are deliberately rough: they only have to be proportional to the
+ * memory actually held, to tell apart a query that is about to take the
+ * server down from one that is not.
+ */
+public class MemoryBudget {
+
+    public static final MemoryBudget UNLIMITED = new MemoryBudget(null, 0, null);
+
+    private static final long ANSWER_BYTES = 96;
+    private static final long CONCEPT_BYTES = 80;
+
+    private final MemoryBudget parent;
+    private final long limitBytes;
+    private final ErrorMessage exceeded;
+    private final AtomicLong reservedBytes;
+    private volatile boolean isClosed;
+
+    private MemoryBudget(MemoryBudget parent, long limitBytes, ErrorMessage exceeded) {
+        assert limitBytes >= 0;
+        this.parent = parent;
+        this.limitBytes = limitBytes;
+        this.exceeded = exceeded;
+        this.reservedBytes = new AtomicLong(0);
+        this.isClosed = false;
+    }
+
+    /**
+     * @param limitBytes the bytes that all queries on the server may hold at
+     *                   once, or zero if they are not limited
+     */
+    public static MemoryBudget server(long limitBytes) {
+        return new MemoryBudget(null, limitBytes, SERVER_MEMORY_EXCEEDED);
+    }
+
+    public MemoryBudget transaction() {
+        return new MemoryBudget(this, 0, null);
+    }
+
+    /**
+     * @param limitBytes the bytes that the query may hold at once, or zero if
+     *                   it is only limited by the budgets above it
+     */
+    public MemoryBudget query(long limitBytes) {
+        return new MemoryBudget(this, limitBytes, QUERY_MEMORY_EXCEEDED);
+    }
+
+    /**
+     * Returns a budget with no limit of its own, for an operator that only
+     * releases what it reserved all at once, by closing the budget.
+     */
+    public MemoryBudget operator() {
+        if (this == UNLIMITED) return UNLIMITED;
+        else return new MemoryBudget(this, 0, null);
+    }
+
+    /**
+     * Returns a rough estimate of the bytes held by an answer of the given
+     * number of concepts, together with its entry in a collection.
+     */
+    public static long answerBytes(int concepts) {
+        return ANSWER_BYTES + concepts * CONCEPT_BYTES;
+    }
+
+    public long reservedBytes() {
+        return reservedBytes.get();
+    }
+
+    /**
+     * Reserves the given bytes against this budget and every budget above it,
+     * or throws without reserving anything if any of them would be exceeded.
+     * It is synchronised with {@link #close()}, so that nothing is reserved
+     * against the budgets above this one once it has been closed.
+     */
+    public void reserve(long bytes) {
+        if (this == UNLIMITED) return;
+        synchronized (this) {
+            if (isClosed) return;
+            long reserved = reservedBytes.addAndGet(bytes);
+            if (limitBytes > 0 && reserved > limitBytes) {
+                reservedBytes.addAndGet(-bytes);
+                throw GraknException.of(exceeded, limitBytes);
+            }
+            if (parent != null) {
+                try {
+                    parent.reserve(bytes);
+                } catch (GraknException e) {
+                    reservedBytes.addAndGet(-bytes);
+                    throw e;
+                }
+            }
+        }
+    }
+
+    public void release(long bytes) {
+        if (this == UNLIMITED) return;
+        synchronized (this) {
+            if (isClosed) return;
+            reservedBytes.addAndGet(-bytes);
+            if (parent != null) parent.release(bytes);
+        }
+    }
+
+    /**
+     * Releases whatever is still reserved against this budget, by operators
+     * that were abandoned before they were done, and ignores any reservation
+     * or release made against it from then on.
+     */
+    public synchronized void close() {
+        if (this == UNLIMITED || isClosed) return;
+        isClosed = true;
+        long reserved = reservedBytes.getAndSet(0);
+        if (parent != null && reserved != 0) parent.release(reserved);
+    }
+}
@@ -20,6 +20,7 @@ package grakn.core.common.parameters;
 import grakn.core.common.exception.GraknException;
 import graql.lang.query.GraqlQuery;
 
+import javax.annotation.Nullable;
 import java.nio.file.Path;
 
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_OPERATION;
@@ -35,19 +36,29 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
     public static final boolean DEFAULT_INFER = false;
     public static final boolean DEFAULT_TRACE_INFERENCE = false;
     public static final boolean DEFAULT_EXPLAIN = false;
+    public static final boolean DEFAULT_PROFILE = false;
     public static final boolean DEFAULT_PARALLEL = true;
     public static final boolean DEFAULT_QUERY_READ_PREFETCH = true;
     public static final boolean DEFAULT_QUERY_WRITE_PREFETCH = false;
     public static final boolean DEFAULT_READ_ANY_REPLICA = false;
+    public static final long DEFAULT_TRANSACTION_MEMORY_BUDGET_BYTES = 0;
+    public static final long DEFAULT_QUERY_TIMEOUT_MILLIS = 0;
+    public static final long DEFAULT_QUERY_MEMORY_LIMIT_BYTES = 0;
+    public static final double DEFAULT_SERVER_MEMORY_LIMIT_FRACTION = 0.5;
+    public static final long DEFAULT_RESULT_CACHE_BYTES = 0;
 
     private PARENT parent;
     private Boolean infer = null;
     private Boolean traceInference = null;
     private Boolean explain = null;
+    private Boolean profile = null;
     private Integer batchSize = null;
     private Integer sessionIdlTimeoutMillis = null;
     private Integer schemaLockAcquireTimeoutMillis = null;
     private Boolean readAnyReplica = null;
+    private Long transactionMemoryBudgetBytes = null;
+    private Long queryTimeoutMillis = null;
+    private Long queryMemoryLimitBytes = null;
 
     protected Path graknDir = null;
     protected Path dataDir = null;
@@ -94,6 +105,21 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
         return getThis();
     }
 
+    /**
+     * Whether queries should collect a profile of their execution: the plans
+     * of their traversals, and what executing each step of them took.
+     */
+    public boolean profile() {
+        if (profile != null) return profile;
+        else if (parent != null) return parent.profile();
+        else return DEFAULT_PROFILE;
+    }
+
+    public SELF profile(boolean profile) {
+        this.profile = profile;
+        return getThis();
+    }
+
     public int responseBatchSize() {
         if (batchSize != null) return batchSize;
         else if (parent != null) return parent.responseBatchSize();
@@ -138,6 +164,60 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
         return getThis();
     }
 
+    /**
+     * The number of bytes that the things buffered by a write transaction may
+     * occupy in memory, before they are spilled onto the storage transaction
+     * between queries, or zero if they are never spilled, which is the default.
+     * Things held by the caller of the embedded API across a spill no longer
+     * belong to the transaction, and should be looked up again.
+     */
+    public long transactionMemoryBudgetBytes() {
+        if (transactionMemoryBudgetBytes != null) return transactionMemoryBudgetBytes;
+        else if (parent != null) return parent.transactionMemoryBudgetBytes();
+        else return DEFAULT_TRANSACTION_MEMORY_BUDGET_BYTES;
+    }
+
+    public SELF transactionMemoryBudgetBytes(long transactionMemoryBudgetBytes) {
+        this.transactionMemoryBudgetBytes = transactionMemoryBudgetBytes;
+        return getThis();
+    }
+
+    /**
+     * The time that a query may run for before it is stopped, or zero if
+     * queries may run for as long as they need to.
+     */
+    public long queryTimeoutMillis() {
+        if (queryTimeoutMillis != null) return queryTimeoutMillis;
+        else if (parent != null) return parent.queryTimeoutMillis();
+        else return DEFAULT_QUERY_TIMEOUT_MILLIS;
+    }
+
+    public SELF queryTimeoutMillis(long queryTimeoutMillis) {
+        this.queryTimeoutMillis = queryTimeoutMillis;
+        return getThis();
+    }
+
+    /**
+     * The bytes that the operators of a query which materialise answers may
+     * hold at once, or zero if queries are only limited by the memory limit
+     * of the server.
+     */
+    public long queryMemoryLimitBytes() {
+        if (queryMemoryLimitBytes != null) return queryMemoryLimitBytes;
+        else if (parent != null) return parent.queryMemoryLimitBytes();
+        else return DEFAULT_QUERY_MEMORY_LIMIT_BYTES;
+    }
+
+    public SELF queryMemoryLimitBytes(long queryMemoryLimitBytes) {
+        this.queryMemoryLimitBytes = queryMemoryLimitBytes;
+        return getThis();
+    }
+
+    public MemoryBudget memoryBudget() {
+        if (parent != null) return parent.memoryBudget();
+        else return MemoryBudget.UNLIMITED;
+    }
+
     public Path graknDir() {
         if (graknDir != null) return graknDir;
         else if (parent != null) return parent.graknDir();
@@ -158,6 +238,10 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
 
     public static class Database extends Options<Options<?, ?>, Database> {
 
+        private Long serverMemoryLimitBytes = null;
+        private Long resultCacheBytes = null;
+        private MemoryBudget memoryBudget = null;
+
         @Override
         Database getThis() {
             return this;
@@ -181,6 +265,44 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
             this.logsDir = logsDir;
             return this;
         }
+
+        /**
+         * The bytes that the operators of all queries on the server may hold
+         * at once, which is a fraction of the maximum heap size unless given.
+         */
+        public long serverMemoryLimitBytes() {
+            if (serverMemoryLimitBytes != null) return serverMemoryLimitBytes;
+            else return (long) (Runtime.getRuntime().maxMemory() * DEFAULT_SERVER_MEMORY_LIMIT_FRACTION);
+        }
+
+        public Database serverMemoryLimitBytes(long serverMemoryLimitBytes) {
+            this.serverMemoryLimitBytes = serverMemoryLimitBytes;
+            return this;
+        }
+
+        /**
+         * The bytes that the cached answers of read queries may occupy in each
+         * database, or zero if the answers of read queries are not cached.
+         */
+        public long resultCacheBytes() {
+            if (resultCacheBytes != null) return resultCacheBytes;
+            else return DEFAULT_RESULT_CACHE_BYTES;
+        }
+
+        public Database resultCacheBytes(long resultCacheBytes) {
+            this.resultCacheBytes = resultCacheBytes;
+            return this;
+        }
+
+        /**
+         * Returns the memory budget of the server, which the budgets of all of
+         * its transactions and queries draw from.
+         */
+        @Override
+        public synchronized MemoryBudget memoryBudget() {
+            if (memoryBudget == null) memoryBudget = MemoryBudget.server(serverMemoryLimitBytes());
+            return memoryBudget;
+        }
     }
 
     public static class Session extends Options<Database, Session> {
@@ -193,16 +315,31 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
 
     public static class Transaction extends Options<Session, Transaction> {
 
+        private MemoryBudget memoryBudget = null;
+
         @Override
         Transaction getThis() {
             return this;
         }
+
+        /**
+         * Returns the memory budget of the transaction, which is closed with
+         * the transaction to release whatever its queries still hold.
+         */
+        @Override
+        public synchronized MemoryBudget memoryBudget() {
+            if (memoryBudget == null) memoryBudget = super.memoryBudget().transaction();
+            return memoryBudget;
+        }
     }
 
     public static class Query extends Options<Transaction, Query> {
 
         private Boolean parallel = null;
         private GraqlQuery query = null;
+        private Cancellation cancellation = null;
+        private MemoryBudget memoryBudget = null;
+        private QueryProfile queryProfile = null;
 
         @Override
         Query getThis() {
@@ -248,5 +385,40 @@ public abstract class Options<PARENT extends Options<?, ?>, SELF extends Options
             this.parallel = parallel;
             return this;
         }
+
+        /**
+         * Returns the cancellation of the query these options belong to. Its
+         * deadline is counted from the first time it is asked for, which the
+         * query does as it starts executing, unless one was given beforehand.
+         */
+        public synchronized Cancellation cancellation() {
+            if (cancellation == null) cancellation = new Cancellation(queryTimeoutMillis());
+            return cancellation;
+        }
+
+        public synchronized Query cancellation(Cancellation cancellation) {
+            this.cancellation = cancellation;
+            return this;
+        }
+
+        /**
+         * Returns the memory budget of the query these options belong to,
+         * which draws from the budget of its transaction.
+         */
+        @Override
+        public synchronized MemoryBudget memoryBudget() {
+            if (memoryBudget == null) memoryBudget = super.memoryBudget().query(queryMemoryLimitBytes());
+            return memoryBudget;
+        }
+
+        /**
+         * Returns the profile of the query these options belong to, or null
+         * if profiling is not enabled for it.
+         */
+        @Nullable
+        public synchronized QueryProfile queryProfile() {
+            if (queryProfile == null && profile()) queryProfile = new QueryProfile();
+            return queryProfile;
+        }
     }
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.common.parameters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The profile of a query, which is only collected if profiling is enabled in
+ * the options of the query. Every part of the execution that has something to
+ * report, such as each traversal the query executes, adds an entry to it as it
+ * starts, and keeps recording into that entry while it runs, so the profile is
+ * only complete once the answers of the query have all been consumed.
+ */
+public class QueryProfile {
+
+    private final ConcurrentLinkedQueue<Entry> entries;
+
+    public QueryProfile() {
+        entries = new ConcurrentLinkedQueue<>();
+    }
+
+    public void add(Entry entry) {
+        entries.add(entry);
+    }
+
+    public List<Entry> entries() {
+        return new ArrayList<>(entries);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder("Query Profile: {");
+        for (Entry entry : entries) str.append("\n").append(entry.summary());
+        return str.append("\n}").toString();
+    }
+
+    public interface Entry {
+
+        String summary();
+    }
+}
@@ -18,9 +18,11 @@
 
 package grakn.core.concept;
 
+import grakn.common.collection.Either;
 import grakn.core.common.exception.ErrorMessage;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.common.parameters.Label;
 import grakn.core.concept.answer.ConceptMap;
 import grakn.core.concept.thing.Thing;
 import grakn.core.concept.thing.impl.ThingImpl;
@@ -42,10 +44,15 @@ import grakn.core.graph.vertex.Vertex;
 import grakn.core.traversal.common.Identifier.Variable.Retrievable;
 import grakn.core.traversal.common.VertexMap;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
 import static grakn.core.common.exception.ErrorMessage.Transaction.UNSUPPORTED_OPERATION;
@@ -63,6 +70,7 @@ public final class ConceptManager {
     private static final int PARALLELISATION_SPLIT_MINIMUM = 128;
 
     private final GraphManager graphMgr;
+    private long deferredSpillBytes;
 
     public ConceptManager(GraphManager graphMgr) {
         this.graphMgr = graphMgr;
@@ -73,11 +81,32 @@ public final class ConceptManager {
     }
 
     public ConceptMap conceptMap(VertexMap vertexMap) {
+        return new ConceptMap(new VertexConcepts(vertexMap));
+    }
+
+    private Concept concept(Vertex<?, ?> vertex) {
+        if (vertex.isThing()) return ThingImpl.of(vertex.asThing());
+        else if (vertex.isType()) return TypeImpl.of(graphMgr, vertex.asType());
+        else throw exception(GraknException.of(ILLEGAL_STATE));
+    }
+
+    /**
+     * Returns the answer with the given labels of types and IIDs of things,
+     * looked up in the graph of this transaction, such as an answer that was
+     * computed by another transaction against the same snapshot of the data.
+     */
+    public ConceptMap conceptMap(Map<Retrievable, Either<Label, byte[]>> answer) {
         Map<Retrievable, Concept> map = new HashMap<>();
-        vertexMap.forEach((id, vertex) -> {
-            if (vertex.isThing()) map.put(id, ThingImpl.of(vertex.asThing()));
-            else if (vertex.isType()) map.put(id, TypeImpl.of(graphMgr, vertex.asType()));
-            else throw exception(GraknException.of(ILLEGAL_STATE));
+        answer.forEach((id, concept) -> {
+            if (concept.isFirst()) {
+                TypeVertex vertex = graphMgr.schema().getType(concept.first());
+                if (vertex == null) throw exception(GraknException.of(ILLEGAL_STATE));
+                map.put(id, TypeImpl.of(graphMgr, vertex));
+            } else {
+                ThingVertex vertex = graphMgr.data().get(VertexIID.Thing.of(concept.second()));
+                if (vertex == null) throw exception(GraknException.of(ILLEGAL_STATE));
+                map.put(id, ThingImpl.of(vertex));
+            }
         });
         return new ConceptMap(map);
     }
@@ -200,6 +229,34 @@ public final class ConceptManager {
         }
     }
 
+    /**
+     * Spills the things buffered in this transaction onto storage, if they
+     * occupy more memory than the given budget.
+     *
+     * Things that are spilled are no longer validated at commit, unless they
+     * are modified again, so we validate them before spilling them. If any of
+     * them is not valid yet, such as a relation still waiting for its role
+     * players, or if the transaction holds inferred things, which are never
+     * spilled, we keep them all in memory, and only try again once the
+     * transaction has buffered twice as much.
+     *
+     * @param memoryBudget the number of bytes the buffered things may occupy,
+     *                     or zero if they are never spilled
+     */
+    public void spillThings(long memoryBudget) {
+        if (memoryBudget == 0) return;
+        long bufferedBytes = graphMgr.data().bufferedBytes();
+        if (bufferedBytes <= Math.max(memoryBudget, deferredSpillBytes)) return;
+        try {
+            validateThings();
+        } catch (GraknException e) {
+            deferredSpillBytes = bufferedBytes * 2;
+            return;
+        }
+        if (graphMgr.data().spill()) deferredSpillBytes = 0;
+        else deferredSpillBytes = bufferedBytes * 2;
+    }
+
     public GraknException exception(ErrorMessage error) {
         return graphMgr.exception(error);
     }
@@ -207,4 +264,89 @@ public final class ConceptManager {
     public GraknException exception(Exception exception) {
         return graphMgr.exception(exception);
     }
+
+    /**
+     * The concepts of an answer of a traversal, which are only created from
+     * its vertices as they are retrieved, and are then kept for reuse. As a
+     * concept has the hash of its vertex, the hash of the concepts is that of
+     * the answer, and answers are compared by their vertices alone.
+     */
+    private class VertexConcepts extends AbstractMap<Retrievable, Concept> {
+
+        private final VertexMap vertexMap;
+        private final Concept[] concepts;
+        private Set<Entry<Retrievable, Concept>> entrySet;
+
+        private VertexConcepts(VertexMap vertexMap) {
+            this.vertexMap = vertexMap;
+            this.concepts = new Concept[vertexMap.size()];
+        }
+
+        private Concept concept(int index) {
+            if (concepts[index] == null) concepts[index] = ConceptManager.this.concept(vertexMap.vertex(index));
+            return concepts[index];
+        }
+
+        @Override
+        public int size() {
+            return vertexMap.size();
+        }
+
+        @Override
+        public boolean containsKey(Object id) {
+            return id instanceof Retrievable && vertexMap.containsKey((Retrievable) id);
+        }
+
+        @Override
+        public Concept get(Object id) {
+            if (!(id instanceof Retrievable)) return null;
+            int index = vertexMap.indexOf((Retrievable) id);
+            return index < 0 ? null : concept(index);
+        }
+
+        @Override
+        public Set<Entry<Retrievable, Concept>> entrySet() {
+            if (entrySet == null) {
+                entrySet = new AbstractSet<Entry<Retrievable, Concept>>() {
+
+                    @Override
+                    public Iterator<Entry<Retrievable, Concept>> iterator() {
+                        return new Iterator<Entry<Retrievable, Concept>>() {
+
+                            private int index = 0;
+
+                            @Override
+                            public boolean hasNext() {
+                                return index < vertexMap.size();
+                            }
+
+                            @Override
+                            public Entry<Retrievable, Concept> next() {
+                                if (!hasNext()) throw new NoSuchElementException();
+                                Concept concept = concept(index);
+                                return new SimpleImmutableEntry<>(vertexMap.id(index++), concept);
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return vertexMap.size();
+                    }
+                };
+            }
+            return entrySet;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o instanceof VertexConcepts) return vertexMap.equals(((VertexConcepts) o).vertexMap);
+            else return super.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return vertexMap.hashCode();
+        }
+    }
 }
@@ -45,6 +45,7 @@ import static grakn.core.common.exception.ErrorMessage.ThingRead.INVALID_ROLE_TY
 import static grakn.core.common.exception.ErrorMessage.ThingWrite.INVALID_DELETE_HAS;
 import static grakn.core.common.exception.ErrorMessage.ThingWrite.THING_CANNOT_OWN_ATTRIBUTE;
 import static grakn.core.common.exception.ErrorMessage.ThingWrite.THING_HAS_BEEN_DELETED;
+import static grakn.core.common.exception.ErrorMessage.ThingWrite.THING_HAS_BEEN_SPILLED;
 import static grakn.core.common.exception.ErrorMessage.ThingWrite.THING_KEY_MISSING;
 import static grakn.core.common.exception.ErrorMessage.ThingWrite.THING_KEY_OVER;
 import static grakn.core.common.exception.ErrorMessage.ThingWrite.THING_KEY_TAKEN;
@@ -223,6 +224,7 @@ public abstract class ThingImpl extends ConceptImpl implements Thing {
 
     void validateIsNotDeleted() {
         if (vertex.isDeleted()) throw exception(GraknException.of(THING_HAS_BEEN_DELETED, getIIDForPrinting()));
+        if (vertex.isSpilled()) throw exception(GraknException.of(THING_HAS_BEEN_SPILLED, getIIDForPrinting()));
     }
 
     @Override
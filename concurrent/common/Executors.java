@@ -39,16 +39,21 @@ public class Executors {
     private static final String GRAKN_CORE_MAIN_POOL_NAME = "grakn-core-main";
     private static final String GRAKN_CORE_ASYNC_POOL_1_NAME = "grakn-core-async-1";
     private static final String GRAKN_CORE_ASYNC_POOL_2_NAME = "grakn-core-async-2";
+    private static final String GRAKN_CORE_PLANNER_POOL_NAME = "grakn-core-planner";
+    private static final String GRAKN_CORE_COMMIT_POOL_NAME = "grakn-core-commit";
     private static final String GRAKN_CORE_NETWORK_POOL_NAME = "grakn-core-network";
     private static final String GRAKN_CORE_EVENTLOOP_POOL_NAME = "grakn-core-eventloop";
     private static final String GRAKN_CORE_SCHEDULED_POOL_NAME = "grakn-core-scheduled";
     private static final int GRAKN_CORE_SCHEDULED_POOL_SIZE = 1;
+    private static final int GRAKN_CORE_PLANNER_POOL_DIVISOR = 4;
 
     private static Executors singleton = null;
 
     private final ExecutorService mainPool;
     private final ExecutorService asyncPool1;
     private final ExecutorService asyncPool2;
+    private final ExecutorService plannerPool;
+    private final ExecutorService commitPool;
     private final NioEventLoopGroup networkPool;
     private final EventLoopGroup eventLoopPool;
     private final ScheduledThreadPoolExecutor scheduledThreadPool;
@@ -57,6 +62,9 @@ public class Executors {
         mainPool = newFixedThreadPool(parallelisation, NamedThreadFactory.create(GRAKN_CORE_MAIN_POOL_NAME));
         asyncPool1 = newFixedThreadPool(parallelisation, NamedThreadFactory.create(GRAKN_CORE_ASYNC_POOL_1_NAME));
         asyncPool2 = newFixedThreadPool(parallelisation, NamedThreadFactory.create(GRAKN_CORE_ASYNC_POOL_2_NAME));
+        plannerPool = newFixedThreadPool(Math.max(1, parallelisation / GRAKN_CORE_PLANNER_POOL_DIVISOR),
+                                         NamedThreadFactory.create(GRAKN_CORE_PLANNER_POOL_NAME));
+        commitPool = newFixedThreadPool(parallelisation, NamedThreadFactory.create(GRAKN_CORE_COMMIT_POOL_NAME));
         eventLoopPool = new EventLoopGroup(parallelisation, NamedThreadFactory.create(GRAKN_CORE_EVENTLOOP_POOL_NAME));
         networkPool = new NioEventLoopGroup(parallelisation, NamedThreadFactory.create(GRAKN_CORE_NETWORK_POOL_NAME));
         scheduledThreadPool = new ScheduledThreadPoolExecutor(GRAKN_CORE_SCHEDULED_POOL_SIZE,
@@ -89,6 +97,31 @@ public class Executors {
         return singleton.asyncPool2;
     }
 
+    /**
+     * Returns the pool that traversal planners optimise on in the background.
+     * It is kept apart from the async pools so that long solver runs never
+     * hold up the production of answers, and it is smaller than them, as
+     * planning in the background is never urgent.
+     *
+     * @return the pool for background planning
+     */
+    public static ExecutorService plannerPool() {
+        assert isInitialised();
+        return singleton.plannerPool;
+    }
+
+    /**
+     * Returns the pool that transactions write their vertices on when they
+     * commit. Committing threads block on it, so it is kept apart from the
+     * pools that they may themselves be running on.
+     *
+     * @return the pool for concurrent commits
+     */
+    public static ExecutorService commitPool() {
+        assert isInitialised();
+        return singleton.commitPool;
+    }
+
     public static NioEventLoopGroup networkPool() {
         assert isInitialised();
         return singleton.networkPool;
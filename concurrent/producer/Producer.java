@@ -42,6 +42,10 @@ public interface Producer<T> {
         return new FilteredProducer<>(this, predicate);
     }
 
+    default Producer<T> onRecycle(Runnable function) {
+        return new RecycleHandledProducer<>(this, function);
+    }
+
     @ThreadSafe
     interface Queue<U> {
 
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.concurrent.producer;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.ExecutorService;
+
+@ThreadSafe
+public class RecycleHandledProducer<T> implements Producer<T> {
+
+    private final Producer<T> baseProducer;
+    private final Runnable function;
+
+    RecycleHandledProducer(Producer<T> baseProducer, Runnable function) {
+        this.baseProducer = baseProducer;
+        this.function = function;
+    }
+
+    @Override
+    public void produce(Producer.Queue<T> queue, int request, ExecutorService executor) {
+        baseProducer.produce(queue, request, executor);
+    }
+
+    @Override
+    public void recycle() {
+        baseProducer.recycle();
+        function.run();
+    }
+}
@@ -19,6 +19,7 @@
 package grakn.core.graph;
 
 import grakn.common.collection.Pair;
+import grakn.core.common.collection.ConcurrentPackedMap;
 import grakn.core.common.exception.GraknCheckedException;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.ResourceIterator;
@@ -28,7 +29,9 @@ import grakn.core.graph.common.Encoding;
 import grakn.core.graph.common.KeyGenerator;
 import grakn.core.graph.common.StatisticsBytes;
 import grakn.core.graph.common.Storage;
+import grakn.core.graph.edge.ThingEdge;
 import grakn.core.graph.iid.EdgeIID;
+import grakn.core.graph.iid.IndexIID;
 import grakn.core.graph.iid.PrefixIID;
 import grakn.core.graph.iid.VertexIID;
 import grakn.core.graph.vertex.AttributeVertex;
@@ -38,12 +41,18 @@ import grakn.core.graph.vertex.Vertex;
 import grakn.core.graph.vertex.impl.AttributeVertexImpl;
 import grakn.core.graph.vertex.impl.ThingVertexImpl;
 
+import javax.annotation.Nullable;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -51,14 +60,18 @@ import static grakn.common.collection.Collections.list;
 import static grakn.common.collection.Collections.pair;
 import static grakn.common.util.Objects.className;
 import static grakn.core.common.collection.Bytes.bytesToLong;
+import static grakn.core.common.collection.Bytes.compareBytes;
 import static grakn.core.common.collection.Bytes.join;
 import static grakn.core.common.collection.Bytes.longToBytes;
+import static grakn.core.common.collection.Bytes.longToSortedBytes;
+import static grakn.core.common.collection.Bytes.sortedBytesToLong;
 import static grakn.core.common.collection.Bytes.stripPrefix;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_CAST;
 import static grakn.core.common.exception.ErrorMessage.ThingWrite.ILLEGAL_STRING_SIZE;
 import static grakn.core.common.iterator.Iterators.iterate;
 import static grakn.core.common.iterator.Iterators.link;
 import static grakn.core.common.iterator.Iterators.tree;
+import static grakn.core.concurrent.common.Executors.PARALLELISATION_FACTOR;
 import static grakn.core.graph.common.Encoding.Edge.Type.SUB;
 import static grakn.core.graph.common.Encoding.Prefix.VERTEX_ATTRIBUTE_TYPE;
 import static grakn.core.graph.common.Encoding.Prefix.VERTEX_ENTITY_TYPE;
@@ -77,26 +90,41 @@ import static grakn.core.graph.common.StatisticsBytes.hasEdgeTotalCountKey;
 import static grakn.core.graph.common.StatisticsBytes.snapshotKey;
 import static grakn.core.graph.common.StatisticsBytes.vertexCountKey;
 import static grakn.core.graph.common.StatisticsBytes.vertexTransitiveCountKey;
+import static grakn.core.graph.common.SystemBytes.packedAdjacencyKey;
+import static grakn.core.graph.common.SystemBytes.rolePlayerIndexKey;
 import static grakn.core.graph.iid.VertexIID.Thing.generate;
 
 public class DataGraph implements Graph {
 
+    private static final int PARALLEL_COMMIT_MIN_VERTICES = 1_000;
+    private static final int VERTEX_BUFFERED_BYTES = 512;
+    private static final int EDGE_BUFFERED_BYTES = 256;
+    private static final int PARTITION_MIN_KEYS = 1_000;
+
     private final Storage.Data storage;
     private final SchemaGraph schemaGraph;
     private final KeyGenerator.Data.Buffered keyGenerator;
-    private final ConcurrentMap<VertexIID.Thing, ThingVertex> thingsByIID;
+    private final ConcurrentPackedMap<VertexIID.Thing, ThingVertex> thingsByIID;
     private final ConcurrentMap<VertexIID.Type, ConcurrentSet<ThingVertex>> thingsByTypeIID;
     private final AttributesByIID attributesByIID;
+    private final AtomicLong bufferedEdgeCount;
     private final Statistics statistics;
     private boolean isModified;
+    private final ConcurrentLinkedQueue<Runnable> serialWrites;
+    private volatile boolean hasBufferedRolePlayers;
+    private volatile boolean hasBufferedInferences;
+    private Boolean isRolePlayerIndexed;
+    private Boolean hasPackedAdjacencies;
 
     public DataGraph(Storage.Data storage, SchemaGraph schemaGraph) {
         this.storage = storage;
         this.schemaGraph = schemaGraph;
         keyGenerator = new KeyGenerator.Data.Buffered();
-        thingsByIID = new ConcurrentHashMap<>();
+        thingsByIID = new ConcurrentPackedMap<>(VertexIID.Thing::packedType, VertexIID.Thing::packedKey);
         thingsByTypeIID = new ConcurrentHashMap<>();
         attributesByIID = new AttributesByIID();
+        bufferedEdgeCount = new AtomicLong(0);
+        serialWrites = new ConcurrentLinkedQueue<>();
         statistics = new Statistics(schemaGraph, storage);
     }
 
@@ -114,23 +142,38 @@ public class DataGraph implements Graph {
     }
 
     public ResourceIterator<ThingVertex> vertices() {
-        return link(thingsByIID.values().iterator(), attributesByIID.valuesIterator());
+        return link(thingsByIID.values(), attributesByIID.valuesIterator());
     }
 
     public ThingVertex get(VertexIID.Thing iid) {
         assert storage.isOpen();
-        if (iid.encoding().equals(ATTRIBUTE)) return get(iid.asAttribute());
+        if (!iid.hasValidLength()) return null;
+        else if (iid.encoding().equals(ATTRIBUTE)) return get(iid.asAttribute());
         else if (!thingsByIID.containsKey(iid) && storage.get(iid.bytes()) == null) return null;
         return convert(iid);
     }
 
     public AttributeVertex<?> get(VertexIID.Attribute<?> iid) {
-        if (!attributesByIID.forValueType(iid.valueType()).containsKey(iid) && storage.get(iid.bytes()) == null) {
+        if (!iid.hasValidLength()) return null;
+        else if (!attributesByIID.containsKey(iid) && !existsInStorage(iid)) {
             return null;
         }
         return convert(iid);
     }
 
+    /**
+     * Returns true if an attribute exists in storage. The storage lookup is
+     * skipped when the database's {@code AttributeFilter} knows the attribute
+     * definitely does not exist, which is the common case when looking up
+     * new attribute values, such as during data ingestion.
+     *
+     * @param attIID the IID of the attribute to look up
+     * @return true if the attribute exists in storage
+     */
+    private boolean existsInStorage(VertexIID.Attribute<?> attIID) {
+        return storage.attributeFilter().mayExist(attIID) && storage.get(attIID.bytes()) != null;
+    }
+
     public ThingVertex convert(VertexIID.Thing iid) {
         // TODO: benchmark caching persisted edges
         // assert storage.isOpen();
@@ -175,14 +218,15 @@ public class DataGraph implements Graph {
         thingsByIID.put(iid, vertex);
         thingsByTypeIID.computeIfAbsent(typeVertex.iid(), t -> new ConcurrentSet<>()).add(vertex);
         if (!isInferred) statistics.vertexCreated(typeVertex.iid());
+        else inferenceBuffered();
         return vertex;
     }
 
     private <VALUE, ATT_IID extends VertexIID.Attribute<VALUE>, ATT_VERTEX extends AttributeVertex<VALUE>>
-    ATT_VERTEX getOrReadFromStorage(Map<ATT_IID, ATT_VERTEX> map, ATT_IID attIID, Function<ATT_IID, ATT_VERTEX> vertexConstructor) {
-        return map.computeIfAbsent(attIID, iid -> {
-            byte[] val = storage.get(iid.bytes());
-            if (val != null) return vertexConstructor.apply(iid);
+    ATT_VERTEX getOrReadFromStorage(BiFunction<ATT_IID, Function<ATT_IID, ATT_VERTEX>, ATT_VERTEX> computeIfAbsent,
+                                    ATT_IID attIID, Function<ATT_IID, ATT_VERTEX> vertexConstructor) {
+        return computeIfAbsent.apply(attIID, iid -> {
+            if (existsInStorage(iid)) return vertexConstructor.apply(iid);
             else return null;
         });
     }
@@ -196,13 +240,177 @@ public class DataGraph implements Graph {
         else return link(thingsByTypeIID.get(typeVertex.iid()).iterator(), storageIterator).distinct();
     }
 
+    /**
+     * Splits the instances of the given type into partitions of contiguous
+     * IIDs, which can be iterated concurrently. The keys of the IIDs of
+     * entities and relations are generated by counters that only ever
+     * increase, so they are dense between the first and the last key in
+     * storage, and splitting that range evenly gives partitions of similar
+     * sizes. Partitions hold no fewer than {@code PARTITION_MIN_KEYS} keys, and
+     * the instances buffered in this graph belong to the first partition.
+     *
+     * @param typeVertex the entity or relation type to iterate the instances of
+     * @param maxCount   the maximum number of partitions to split the instances into
+     * @return the iterators over each partition of the instances of the given type
+     */
+    public List<ResourceIterator<ThingVertex>> partitions(TypeVertex typeVertex, int maxCount) {
+        assert typeVertex.isEntityType() || typeVertex.isRelationType();
+        byte[] prefix = join(typeVertex.iid().bytes(), Encoding.Edge.ISA.in().bytes());
+        byte[] thingPrefix = join(prefix, typeVertex.iid().encoding().instance().prefix().bytes(), typeVertex.iid().bytes());
+        byte[] lastKey = storage.getLastKey(thingPrefix);
+        if (maxCount <= 1 || lastKey == null) return list(get(typeVertex));
+
+        ResourceIterator<byte[]> keys = storage.iterate(thingPrefix, (key, value) -> key);
+        long first = sortedBytesToLong(stripPrefix(keys.next(), thingPrefix.length));
+        keys.recycle();
+        long last = sortedBytesToLong(stripPrefix(lastKey, thingPrefix.length));
+        int count = (int) Math.max(1, Math.min(maxCount, (last - first + 1) / PARTITION_MIN_KEYS));
+        if (count == 1) return list(get(typeVertex));
+
+        long step = (last - first) / count + 1;
+        List<ResourceIterator<ThingVertex>> iterators = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] from = i == 0 ? prefix : join(thingPrefix, longToSortedBytes(first + step * i));
+            byte[] to = i == count - 1 ? null : join(thingPrefix, longToSortedBytes(first + step * (i + 1) - 1));
+            iterators.add(storage.iterate(prefix, from, to, (key, value) -> convert(EdgeIID.InwardsISA.of(key).end())));
+        }
+        if (thingsByTypeIID.containsKey(typeVertex.iid())) {
+            iterators.set(0, link(thingsByTypeIID.get(typeVertex.iid()).iterator(), iterators.get(0)).distinct());
+        }
+        return iterators;
+    }
+
+    /**
+     * Returns the relations of the given type that have a player of the given
+     * type in the given role type, by seeking the role player index rather than
+     * iterating every relation of the type. The index only holds the role
+     * players in storage, so it must only be used when
+     * {@code isRolePlayerIndexed()} holds.
+     *
+     * @param relationType the exact type of the relations to return
+     * @param roleType     the exact type of the role played in the relations
+     * @param playerType   the exact type of the players of the role
+     * @return the relations of the given type with a player of the given type in the given role
+     */
+    public ResourceIterator<ThingVertex> get(TypeVertex relationType, TypeVertex roleType, TypeVertex playerType) {
+        assert isRolePlayerIndexed();
+        return storage.iterate(
+                IndexIID.RolePlayer.prefix(relationType.iid(), playerType.iid(), roleType.iid()).bytes(),
+                (key, value) -> convert(IndexIID.RolePlayer.of(key).relation())
+        ).distinct();
+    }
+
+    /**
+     * Returns true if the role player index covers every role player visible
+     * to this graph: the index must have been built for the database, and no
+     * role player may have been added to this graph since it was last written
+     * to storage, as the index is only written at commit, and inferred role
+     * players are never written at all.
+     *
+     * @return true if the role player index can be used to look up relations
+     */
+    public boolean isRolePlayerIndexed() {
+        if (hasBufferedRolePlayers) return false;
+        if (isRolePlayerIndexed == null) isRolePlayerIndexed = storage.get(rolePlayerIndexKey()) != null;
+        return isRolePlayerIndexed;
+    }
+
+    public void rolePlayerBuffered() {
+        if (!hasBufferedRolePlayers) hasBufferedRolePlayers = true;
+    }
+
+    public void inferenceBuffered() {
+        if (!hasBufferedInferences) hasBufferedInferences = true;
+    }
+
+    /**
+     * Writes every role player in storage into the role player index, and
+     * marks the index as built, for databases that were created before the
+     * index existed. The index entries are written untracked, as the index is
+     * built once, before the database accepts any transactions.
+     */
+    public void indexRolePlayers() {
+        assert !hasBufferedRolePlayers;
+        schemaGraph.relationTypes().forEachRemaining(relationType -> get(relationType).forEachRemaining(
+                relation -> relation.outs().edge(Encoding.Edge.Thing.ROLEPLAYER).get().map(ThingEdge::outIID)
+                        .forEachRemaining(iid -> storage.putUntracked(IndexIID.RolePlayer.of(iid).bytes()))
+        ));
+        storage.put(rolePlayerIndexKey());
+        isRolePlayerIndexed = true;
+    }
+
+    /**
+     * Returns true if any adjacency in the database may have been written in
+     * the packed format, so that adjacencies are only ever looked up in the
+     * packed format in databases that hold any.
+     *
+     * @return true if adjacencies may have to be looked up in the packed format
+     */
+    public boolean hasPackedAdjacencies() {
+        if (hasPackedAdjacencies == null) hasPackedAdjacencies = storage.get(packedAdjacencyKey()) != null;
+        return hasPackedAdjacencies;
+    }
+
+    /**
+     * Records that an adjacency was written in the packed format. The key is
+     * written untracked, so that concurrent transactions that both pack an
+     * adjacency do not conflict on it.
+     */
+    public void adjacencyPacked() {
+        if (!hasPackedAdjacencies()) {
+            storage.putUntracked(packedAdjacencyKey());
+            hasPackedAdjacencies = true;
+        }
+    }
+
+    /**
+     * Defers a write that needs to read the storage until every vertex has
+     * been written, as vertices may be written concurrently, while the storage
+     * must not be read.
+     *
+     * @param writer the write to run once every vertex has been written
+     */
+    public void writeSerially(Runnable writer) {
+        serialWrites.add(writer);
+    }
+
+    /**
+     * Returns the attributes of the given type whose IIDs lie between the given
+     * bounds, inclusive. The values of longs, doubles and datetimes are encoded
+     * in their IIDs such that the IIDs sort in the order of the values, so for
+     * attribute types of these value types, this seeks the range of values
+     * between the bounds, rather than iterating every attribute of the type.
+     *
+     * @param type  the attribute type to iterate the attributes of
+     * @param lower the IID of the lowest attribute to return, or null if unbounded
+     * @param upper the IID of the highest attribute to return, or null if unbounded
+     * @return the attributes of the given type within the bounds
+     */
+    public ResourceIterator<AttributeVertex<?>> get(TypeVertex type, @Nullable VertexIID.Attribute<?> lower,
+                                                    @Nullable VertexIID.Attribute<?> upper) {
+        assert type.isAttributeType();
+        byte[] prefix = join(type.iid().bytes(), Encoding.Edge.ISA.in().bytes());
+        ResourceIterator<AttributeVertex<?>> storageIterator = storage.iterate(
+                prefix, lower == null ? prefix : join(prefix, lower.bytes()),
+                upper == null ? null : join(prefix, upper.bytes()),
+                (key, value) -> convert(EdgeIID.InwardsISA.of(key).end().asAttribute())
+        );
+        if (!thingsByTypeIID.containsKey(type.iid())) return storageIterator;
+        ResourceIterator<AttributeVertex<?>> buffered = iterate(thingsByTypeIID.get(type.iid()).iterator())
+                .map(ThingVertex::asAttribute).filter(
+                        v -> (lower == null || compareBytes(v.iid().bytes(), lower.bytes()) >= 0) &&
+                                (upper == null || compareBytes(v.iid().bytes(), upper.bytes()) <= 0)
+                );
+        return link(buffered, storageIterator).distinct();
+    }
+
     public AttributeVertex<Boolean> get(TypeVertex type, boolean value) {
         assert storage.isOpen();
         assert type.isAttributeType();
         assert type.valueType().valueClass().equals(Boolean.class);
 
         return getOrReadFromStorage(
-                attributesByIID.booleans,
+                attributesByIID.booleans::computeIfAbsent,
                 new VertexIID.Attribute.Boolean(type.iid(), value),
                 iid -> new AttributeVertexImpl.Boolean(this, iid)
         );
@@ -214,7 +422,7 @@ public class DataGraph implements Graph {
         assert type.valueType().valueClass().equals(Long.class);
 
         return getOrReadFromStorage(
-                attributesByIID.longs,
+                attributesByIID.longs::computeIfAbsent,
                 new VertexIID.Attribute.Long(type.iid(), value),
                 iid -> new AttributeVertexImpl.Long(this, iid)
         );
@@ -226,7 +434,7 @@ public class DataGraph implements Graph {
         assert type.valueType().valueClass().equals(Double.class);
 
         return getOrReadFromStorage(
-                attributesByIID.doubles,
+                attributesByIID.doubles::computeIfAbsent,
                 new VertexIID.Attribute.Double(type.iid(), value),
                 iid -> new AttributeVertexImpl.Double(this, iid)
         );
@@ -246,7 +454,7 @@ public class DataGraph implements Graph {
         }
 
         return getOrReadFromStorage(
-                attributesByIID.strings, attIID,
+                attributesByIID.strings::computeIfAbsent, attIID,
                 iid -> new AttributeVertexImpl.String(this, iid)
         );
     }
@@ -257,7 +465,7 @@ public class DataGraph implements Graph {
         assert type.valueType().valueClass().equals(LocalDateTime.class);
 
         return getOrReadFromStorage(
-                attributesByIID.dateTimes,
+                attributesByIID.dateTimes::computeIfAbsent,
                 new VertexIID.Attribute.DateTime(type.iid(), value),
                 iid -> new AttributeVertexImpl.DateTime(this, iid)
         );
@@ -274,6 +482,7 @@ public class DataGraph implements Graph {
                     AttributeVertex<Boolean> v = new AttributeVertexImpl.Boolean(this, iid, isInferred);
                     thingsByTypeIID.computeIfAbsent(type.iid(), t -> new ConcurrentSet<>()).add(v);
                     if (!isInferred) statistics.attributeVertexCreated(v.iid());
+                    else inferenceBuffered();
                     return v;
                 }
         );
@@ -296,6 +505,7 @@ public class DataGraph implements Graph {
                     AttributeVertex<Long> v = new AttributeVertexImpl.Long(this, iid, isInferred);
                     thingsByTypeIID.computeIfAbsent(type.iid(), t -> new ConcurrentSet<>()).add(v);
                     if (!isInferred) statistics.attributeVertexCreated(v.iid());
+                    else inferenceBuffered();
                     return v;
                 }
         );
@@ -318,6 +528,7 @@ public class DataGraph implements Graph {
                     AttributeVertex<Double> v = new AttributeVertexImpl.Double(this, iid, isInferred);
                     thingsByTypeIID.computeIfAbsent(type.iid(), t -> new ConcurrentSet<>()).add(v);
                     if (!isInferred) statistics.attributeVertexCreated(v.iid());
+                    else inferenceBuffered();
                     return v;
                 }
         );
@@ -351,6 +562,7 @@ public class DataGraph implements Graph {
                     AttributeVertex<String> v = new AttributeVertexImpl.String(this, iid, isInferred);
                     thingsByTypeIID.computeIfAbsent(type.iid(), t -> new ConcurrentSet<>()).add(v);
                     if (!isInferred) statistics.attributeVertexCreated(v.iid());
+                    else inferenceBuffered();
                     return v;
                 }
         );
@@ -373,6 +585,7 @@ public class DataGraph implements Graph {
                     AttributeVertex<LocalDateTime> v = new AttributeVertexImpl.DateTime(this, iid, isInferred);
                     thingsByTypeIID.computeIfAbsent(type.iid(), t -> new ConcurrentSet<>()).add(v);
                     if (!isInferred) statistics.attributeVertexCreated(v.iid());
+                    else inferenceBuffered();
                     return v;
                 }
         );
@@ -413,11 +626,30 @@ public class DataGraph implements Graph {
         return isModified;
     }
 
+    public void edgeBuffered() {
+        bufferedEdgeCount.incrementAndGet();
+    }
+
+    /**
+     * Returns an estimate of the memory occupied by the vertices and edges
+     * buffered in this graph, which is what a transaction spends most of its
+     * memory on when it writes a large amount of data.
+     *
+     * @return the estimated number of bytes buffered in this graph
+     */
+    public long bufferedBytes() {
+        long vertexCount = thingsByIID.size() + attributesByIID.size();
+        return vertexCount * VERTEX_BUFFERED_BYTES + bufferedEdgeCount.get() * EDGE_BUFFERED_BYTES;
+    }
+
     @Override
     public void clear() {
         thingsByIID.clear();
         thingsByTypeIID.clear();
         attributesByIID.clear();
+        bufferedEdgeCount.set(0);
+        hasBufferedRolePlayers = false;
+        hasBufferedInferences = false;
         statistics.clear();
     }
 
@@ -425,55 +657,126 @@ public class DataGraph implements Graph {
      * Commits all the writes captured in this graph into storage.
      *
      * We start off by generating new IIDs for every {@code ThingVertex} (which
-     * does not actually include {@code AttributeVertex}). We then write the every
-     * {@code ThingVertex} onto the storage. Once all commit operations for every
-     * {@code ThingVertex} is done, we the write all the {@code AttributeVertex}
-     * as the last step. Since the write operations to storage are serialised
-     * anyways, we don't need to parallelise the streams to commit the vertices.
+     * does not actually include {@code AttributeVertex}), reserving them from
+     * the key generator in one batch per type. Reserving a batch is cheap, so
+     * we do this serially on the calling thread, which also publishes the new
+     * IIDs to the writers that are started after it. We then write every
+     * {@code ThingVertex} onto the storage, by partitioning them across
+     * {@code PARALLELISATION_FACTOR} writers that serialise their
+     * vertices and edges concurrently into write batches of their own, which
+     * the storage merges into a single atomic write. Small transactions are
+     * not worth partitioning, and are written on the calling thread. Once all
+     * commit operations for every {@code ThingVertex} are done, we write all
+     * the {@code AttributeVertex} as the last step. Attributes are written
+     * untracked, and they are few compared to the edges that connect them, so
+     * we do not parallelise them.
      */
     @Override
     public void commit() {
-        Map<VertexIID.Thing, VertexIID.Thing> IIDMap = new HashMap<>();
-        iterate(thingsByIID.values()).filter(v -> v.status().equals(BUFFERED) && !v.isInferred()).forEachRemaining(
-                vertex -> {
-                    VertexIID.Thing newIID = generate(storage.dataKeyGenerator(), vertex.type().iid(), vertex.type().properLabel());
-                    IIDMap.put(vertex.iid(), newIID);
-                    vertex.iid(newIID);
-                }
-        ); // thingByIID no longer contains valid mapping from IID to TypeVertex
-        thingsByIID.values().stream().filter(v -> !v.isInferred()).forEach(Vertex::commit);
-        attributesByIID.valuesIterator().forEachRemaining(Vertex::commit);
+        Map<VertexIID.Thing, VertexIID.Thing> IIDMap = generateIIDs();
+        // thingByIID no longer contains valid mapping from IID to TypeVertex
+        writeVertices();
         statistics.commit(IIDMap);
 
         clear(); // we now flush the indexes after commit, and we do not expect this Graph.Thing to be used again
     }
 
+    /**
+     * Spills all the writes captured in this graph into storage, and releases
+     * the vertices and edges that held them, so that a large write transaction
+     * does not have to keep all of its writes on the heap until it commits.
+     *
+     * The writes go into the storage transaction exactly as they would at
+     * commit, where RocksDB keeps them outside the heap, and they remain visible
+     * to this transaction. Any vertex that is needed again is read back from
+     * storage as a persisted vertex, by the IID it was written with, which is
+     * what the spilled vertex reports as its IID from then on. We keep nothing
+     * of the spilled vertices on the heap, not even the IIDs they were created
+     * with, which no longer resolve.
+     *
+     * Spilled vertices no longer belong to this graph, so they are marked as
+     * such, and any write through them fails rather than being lost. Inferred
+     * vertices and edges are never written to storage, and releasing them would
+     * lose them, along with the edges that connect them to the vertices that
+     * are written, so this graph is not spilled once it has buffered any, by
+     * any query of the transaction. The caller must also ensure that no vertex
+     * of this graph is being written to while it is spilled.
+     *
+     * @return true if the graph was spilled, or false if it holds inferences
+     */
+    public boolean spill() {
+        assert storage.isOpen();
+        if (hasBufferedInferences) return false;
+        statistics.spilled(generateIIDs());
+        writeVertices();
+        thingsByIID.values().forEachRemaining(ThingVertex::setSpilled);
+        attributesByIID.valuesIterator().forEachRemaining(ThingVertex::setSpilled);
+        thingsByIID.clear();
+        thingsByTypeIID.clear();
+        attributesByIID.clear();
+        bufferedEdgeCount.set(0);
+        hasBufferedRolePlayers = false;
+        return true;
+    }
+
+    private void writeVertices() {
+        List<List<ThingVertex>> partitions = thingsByIID.values().filter(v -> !v.isInferred())
+                .toLists(PARALLEL_COMMIT_MIN_VERTICES, PARALLELISATION_FACTOR);
+        if (partitions.size() == 1) partitions.get(0).forEach(Vertex::commit);
+        else storage.writeConcurrently(iterate(partitions).<Runnable>map(p -> () -> p.forEach(Vertex::commit)).toList());
+        attributesByIID.valuesIterator().forEachRemaining(Vertex::commit);
+        Runnable writer;
+        while ((writer = serialWrites.poll()) != null) writer.run();
+    }
+
+    private Map<VertexIID.Thing, VertexIID.Thing> generateIIDs() {
+        Map<VertexIID.Type, List<ThingVertex>> bufferedByType = new HashMap<>();
+        thingsByIID.values().filter(v -> v.status().equals(BUFFERED) && !v.isInferred()).forEachRemaining(
+                vertex -> bufferedByType.computeIfAbsent(vertex.iid().type(), t -> new ArrayList<>()).add(vertex)
+        );
+        Map<VertexIID.Thing, VertexIID.Thing> IIDMap = new HashMap<>();
+        bufferedByType.forEach((type, vertices) -> {
+            List<VertexIID.Thing> newIIDs = generate(
+                    storage.dataKeyGenerator(), type, vertices.get(0).type().properLabel(), vertices.size()
+            );
+            for (int i = 0; i < vertices.size(); i++) {
+                IIDMap.put(vertices.get(i).iid(), newIIDs.get(i));
+                vertices.get(i).iid(newIIDs.get(i));
+            }
+        });
+        return IIDMap;
+    }
+
     private static class AttributesByIID {
 
-        private final ConcurrentMap<VertexIID.Attribute.Boolean, AttributeVertex<Boolean>> booleans;
-        private final ConcurrentMap<VertexIID.Attribute.Long, AttributeVertex<Long>> longs;
-        private final ConcurrentMap<VertexIID.Attribute.Double, AttributeVertex<Double>> doubles;
+        private final ConcurrentPackedMap<VertexIID.Attribute.Boolean, AttributeVertex<Boolean>> booleans;
+        private final ConcurrentPackedMap<VertexIID.Attribute.Long, AttributeVertex<Long>> longs;
+        private final ConcurrentPackedMap<VertexIID.Attribute.Double, AttributeVertex<Double>> doubles;
         private final ConcurrentMap<VertexIID.Attribute.String, AttributeVertex<String>> strings;
-        private final ConcurrentMap<VertexIID.Attribute.DateTime, AttributeVertex<LocalDateTime>> dateTimes;
+        private final ConcurrentPackedMap<VertexIID.Attribute.DateTime, AttributeVertex<LocalDateTime>> dateTimes;
 
         AttributesByIID() {
-            booleans = new ConcurrentHashMap<>();
-            longs = new ConcurrentHashMap<>();
-            doubles = new ConcurrentHashMap<>();
+            booleans = new ConcurrentPackedMap<>(VertexIID.Attribute.Boolean::packedType, VertexIID.Attribute.Boolean::packedKey);
+            longs = new ConcurrentPackedMap<>(VertexIID.Attribute.Long::packedType, VertexIID.Attribute.Long::packedKey);
+            doubles = new ConcurrentPackedMap<>(VertexIID.Attribute.Double::packedType, VertexIID.Attribute.Double::packedKey);
             strings = new ConcurrentHashMap<>();
-            dateTimes = new ConcurrentHashMap<>();
+            dateTimes = new ConcurrentPackedMap<>(VertexIID.Attribute.DateTime::packedType, VertexIID.Attribute.DateTime::packedKey);
         }
 
         ResourceIterator<AttributeVertex<?>> valuesIterator() {
             return link(list(
-                    booleans.values().iterator(),
-                    longs.values().iterator(),
-                    doubles.values().iterator(),
+                    booleans.values(),
+                    longs.values(),
+                    doubles.values(),
                     strings.values().iterator(),
-                    dateTimes.values().iterator()
+                    dateTimes.values()
             ));
         }
 
+        long size() {
+            return booleans.size() + longs.size() + doubles.size() + strings.size() + dateTimes.size();
+        }
+
         void clear() {
             booleans.clear();
             longs.clear();
@@ -502,21 +805,21 @@ public class DataGraph implements Graph {
             }
         }
 
-        ConcurrentMap<? extends VertexIID.Attribute<?>, ? extends AttributeVertex<?>> forValueType(Encoding.ValueType valueType) {
-            switch (valueType) {
+        boolean containsKey(VertexIID.Attribute<?> iid) {
+            switch (iid.valueType()) {
                 case BOOLEAN:
-                    return booleans;
+                    return booleans.containsKey(iid.asBoolean());
                 case LONG:
-                    return longs;
+                    return longs.containsKey(iid.asLong());
                 case DOUBLE:
-                    return doubles;
+                    return doubles.containsKey(iid.asDouble());
                 case STRING:
-                    return strings;
+                    return strings.containsKey(iid.asString());
                 case DATETIME:
-                    return dateTimes;
+                    return dateTimes.containsKey(iid.asDateTime());
                 default:
                     assert false;
-                    return null;
+                    return false;
             }
         }
     }
@@ -735,6 +1038,24 @@ public class DataGraph implements Graph {
             }
         }
 
+        /**
+         * Moves the count jobs of the has edges of buffered vertices onto the
+         * IIDs that the vertices were spilled with, as the buffered IIDs are
+         * not remembered until commit.
+         *
+         * @param IIDMap the IIDs the buffered vertices were spilled with
+         */
+        private void spilled(Map<VertexIID.Thing, VertexIID.Thing> IIDMap) {
+            Map<Pair<VertexIID.Thing, VertexIID.Attribute<?>>, Encoding.Statistics.JobOperation> spilled = new HashMap<>();
+            hasEdgeCountJobs.entrySet().removeIf(job -> {
+                VertexIID.Thing newIID = IIDMap.get(job.getKey().first());
+                if (newIID == null) return false;
+                spilled.put(pair(newIID, job.getKey().second()), job.getValue());
+                return true;
+            });
+            hasEdgeCountJobs.putAll(spilled);
+        }
+
         private void clear() {
             persistedVertexCount.clear();
             persistedVertexTransitiveCount.clear();
@@ -51,6 +51,8 @@ import java.util.stream.Stream;
 import static grakn.common.collection.Collections.list;
 import static grakn.common.collection.Collections.pair;
 import static grakn.common.collection.Collections.set;
+import static grakn.core.common.collection.Bytes.bytesToLong;
+import static grakn.core.common.collection.Bytes.longToBytes;
 import static grakn.core.common.collection.Bytes.stripPrefix;
 import static grakn.core.common.exception.ErrorMessage.SchemaGraph.INVALID_SCHEMA_WRITE;
 import static grakn.core.common.exception.ErrorMessage.Transaction.TRANSACTION_SCHEMA_READ_VIOLATION;
@@ -75,6 +77,7 @@ import static grakn.core.graph.common.Encoding.Vertex.Type.Root.ROLE;
 import static grakn.core.graph.common.Encoding.Vertex.Type.Root.THING;
 import static grakn.core.graph.common.Encoding.Vertex.Type.THING_TYPE;
 import static grakn.core.graph.common.Encoding.Vertex.Type.scopedLabel;
+import static grakn.core.graph.common.SystemBytes.schemaVersionKey;
 import static java.lang.Math.toIntExact;
 
 public class SchemaGraph implements Graph {
@@ -137,6 +140,19 @@ public class SchemaGraph implements Graph {
         return statistics;
     }
 
+    /**
+     * Returns the version of the schema that this graph reads, which is
+     * incremented by every schema commit. Anything derived from the schema
+     * and persisted outside of it can be keyed by this version, so that it is
+     * never read back against a schema that has since changed.
+     *
+     * @return the number of schema commits up to the snapshot of this graph
+     */
+    public long version() {
+        byte[] version = storage.get(schemaVersionKey());
+        return version == null ? 0 : bytesToLong(version);
+    }
+
     public boolean isReadOnly() {
         return isReadOnly;
     }
@@ -370,6 +386,7 @@ public class SchemaGraph implements Graph {
         ); // typeByIID no longer contains valid mapping from IID to TypeVertex
         typesByIID.values().forEach(TypeVertex::commit);
         rules.commit();
+        storage.mergeUntracked(schemaVersionKey(), longToBytes(1));
         clear(); // we now flush the indexes after commit, and we do not expect this Graph.Type to be used again
         rules.clear();
     }
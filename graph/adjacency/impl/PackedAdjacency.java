@@ -0,0 +1,296 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graph.adjacency.impl;
+
+import grakn.common.collection.Pair;
+import grakn.core.common.iterator.AbstractResourceIterator;
+import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.graph.common.Encoding;
+import grakn.core.graph.common.Storage;
+import grakn.core.graph.iid.EdgeIID;
+import grakn.core.graph.iid.VertexIID;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static grakn.core.common.collection.Bytes.bytesHavePrefix;
+import static grakn.core.common.collection.Bytes.compareBytes;
+import static grakn.core.common.collection.Bytes.join;
+import static grakn.core.graph.common.Encoding.Prefix.ADJACENCY_PACKED;
+import static java.util.Arrays.copyOfRange;
+
+/**
+ * The packed storage format of the edges of a single vertex, in a single
+ * direction, of a single edge encoding.
+ *
+ * Every edge is normally stored as its own key, which repeats the IID of the
+ * vertex that owns it and the infix of the edge. When a transaction commits
+ * at least {@code THRESHOLD} edges for the same vertex, direction and edge
+ * encoding, we instead store them in blocks of up to {@code BLOCK_SIZE} edges,
+ * under the key {@code [ADJACENCY_PACKED][owner IID][infix][last tail]}.
+ * Each block holds the "tails" of the edge IIDs (everything after the owner
+ * IID and the infix byte) in sorted order, where each tail only stores the
+ * bytes in which it differs from the previous tail: the length of the prefix
+ * it shares with the previous tail, the length of the rest, and the rest.
+ * Since adjacent tails typically share the prefix, type and most of the key
+ * of the vertex at the other end, an edge costs a few bytes instead of tens.
+ *
+ * The blocks of an adjacency hold disjoint ranges of tails, and are keyed by
+ * the last tail they hold, so the only block that may hold a given tail is the
+ * first block at or after it, which a single seek finds. Vertices that have
+ * packed blocks are marked by the key {@code [ADJACENCY_PACKED][owner IID]},
+ * so that the adjacencies of vertices without any are never looked up in the
+ * packed format.
+ *
+ * Packed edges are read alongside unpacked edges, so a vertex may hold any
+ * mix of both, and later transactions that add fewer edges keep writing them
+ * unpacked.
+ */
+class PackedAdjacency {
+
+    static final int THRESHOLD = 512;
+    static final int BLOCK_SIZE = 256;
+    private static final Comparator<byte[]> COMPARATOR = (first, second) -> compareBytes(first, second);
+
+    private final Storage.Data storage;
+    private final VertexIID.Thing owner;
+    private final byte[] prefix;
+
+    PackedAdjacency(Storage.Data storage, VertexIID.Thing owner, Encoding.Infix infix) {
+        this.storage = storage;
+        this.owner = owner;
+        this.prefix = join(ADJACENCY_PACKED.bytes(), owner.bytes(), infix.bytes());
+    }
+
+    static boolean isMarked(Storage.Data storage, VertexIID.Thing owner) {
+        return storage.get(markerKey(owner)) != null;
+    }
+
+    private static byte[] markerKey(VertexIID.Thing owner) {
+        return join(ADJACENCY_PACKED.bytes(), owner.bytes());
+    }
+
+    /**
+     * Returns the tails of the packed edges that start with a given lookahead,
+     * in sorted order, by seeking the first block that may hold one, and
+     * decoding blocks only until a tail no longer starts with the lookahead.
+     *
+     * @param lookAhead the bytes the tails must start with
+     * @return an iterator of tails of packed edge IIDs
+     */
+    ResourceIterator<byte[]> tails(byte[] lookAhead) {
+        return new TailIterator(storage.iterate(prefix, join(prefix, lookAhead), null, (key, value) -> value), lookAhead);
+    }
+
+    boolean contains(byte[] tail) {
+        ResourceIterator<byte[]> blocks = storage.iterate(prefix, join(prefix, tail), null, (key, value) -> value);
+        boolean contains = blocks.hasNext() && Collections.binarySearch(decode(blocks.next()), tail, COMPARATOR) >= 0;
+        blocks.recycle();
+        return contains;
+    }
+
+    /**
+     * Writes the given tails into blocks, along with the tails of the blocks
+     * whose ranges they overlap, which are rewritten, so that the ranges of
+     * the blocks remain disjoint, and marks the owner as having packed blocks.
+     * This reads the storage, so it must not run concurrently with other
+     * writes of the same transaction.
+     *
+     * @param tails the tails of the edge IIDs to pack, in any order
+     */
+    void put(List<byte[]> tails) {
+        tails.sort(COMPARATOR);
+        byte[] last = tails.get(tails.size() - 1);
+        List<byte[]> overlapped = new ArrayList<>();
+        List<byte[]> existing = new ArrayList<>();
+        ResourceIterator<Pair<byte[], byte[]>> blocks = storage.iterate(prefix, join(prefix, tails.get(0)), null, Pair::new);
+        while (blocks.hasNext()) {
+            Pair<byte[], byte[]> block = blocks.next();
+            List<byte[]> blockTails = decode(block.second());
+            if (compareBytes(blockTails.get(0), last) > 0) break;
+            overlapped.add(block.first());
+            existing.addAll(blockTails);
+        }
+        blocks.recycle(); // the storage must not be written to while we iterate it
+        overlapped.forEach(storage::delete);
+
+        List<byte[]> merged = merge(tails, existing);
+        for (int from = 0; from < merged.size(); from += BLOCK_SIZE) {
+            List<byte[]> blockTails = merged.subList(from, Math.min(from + BLOCK_SIZE, merged.size()));
+            storage.put(join(prefix, blockTails.get(blockTails.size() - 1)), encode(blockTails));
+        }
+        storage.putUntracked(markerKey(owner));
+    }
+
+    /**
+     * Removes a tail from the block that holds it, deleting the block if it
+     * becomes empty, and moving it to the key of its new last tail if it was
+     * the last one. This reads the block and writes it back, so it must not
+     * run concurrently with other removals from the same owner.
+     *
+     * @param tail the tail of the edge IID to remove
+     */
+    void remove(byte[] tail) {
+        ResourceIterator<Pair<byte[], byte[]>> blocks = storage.iterate(prefix, join(prefix, tail), null, Pair::new);
+        Pair<byte[], byte[]> block = blocks.hasNext() ? blocks.next() : null;
+        blocks.recycle(); // the storage must not be written to while we iterate it
+        if (block == null) return;
+
+        List<byte[]> blockTails = decode(block.second());
+        int index = Collections.binarySearch(blockTails, tail, COMPARATOR);
+        if (index < 0) return;
+        blockTails.remove(index);
+        if (blockTails.isEmpty() || index == blockTails.size()) storage.delete(block.first());
+        if (!blockTails.isEmpty()) storage.put(join(prefix, blockTails.get(blockTails.size() - 1)), encode(blockTails));
+    }
+
+    static byte[] tail(EdgeIID.Thing edgeIID) {
+        return copyOfRange(edgeIID.bytes(), edgeIID.start().bytes().length + 1, edgeIID.bytes().length);
+    }
+
+    EdgeIID.Thing edgeIID(byte[] tail) {
+        return EdgeIID.Thing.of(join(copyOfRange(prefix, ADJACENCY_PACKED.bytes().length, prefix.length), tail));
+    }
+
+    private static List<byte[]> merge(List<byte[]> sorted1, List<byte[]> sorted2) {
+        List<byte[]> merged = new ArrayList<>(sorted1.size() + sorted2.size());
+        int i = 0, j = 0;
+        while (i < sorted1.size() || j < sorted2.size()) {
+            int comparison;
+            if (i == sorted1.size()) comparison = 1;
+            else if (j == sorted2.size()) comparison = -1;
+            else comparison = compareBytes(sorted1.get(i), sorted2.get(j));
+            if (comparison <= 0) merged.add(sorted1.get(i++));
+            else merged.add(sorted2.get(j++));
+            if (comparison == 0) j++;
+        }
+        return merged;
+    }
+
+    private static byte[] encode(List<byte[]> sortedTails) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writeVarInt(bytes, sortedTails.size());
+        byte[] previous = new byte[0];
+        for (byte[] tail : sortedTails) {
+            int shared = 0;
+            int maxShared = Math.min(previous.length, tail.length);
+            while (shared < maxShared && previous[shared] == tail[shared]) shared++;
+            writeVarInt(bytes, shared);
+            writeVarInt(bytes, tail.length - shared);
+            bytes.write(tail, shared, tail.length - shared);
+            previous = tail;
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<byte[]> decode(byte[] block) {
+        int[] pos = new int[]{0};
+        int count = readVarInt(block, pos);
+        List<byte[]> tails = new ArrayList<>(count);
+        byte[] previous = new byte[0];
+        for (int i = 0; i < count; i++) {
+            int shared = readVarInt(block, pos);
+            int rest = readVarInt(block, pos);
+            byte[] tail = new byte[shared + rest];
+            System.arraycopy(previous, 0, tail, 0, shared);
+            System.arraycopy(block, pos[0], tail, shared, rest);
+            pos[0] += rest;
+            tails.add(tail);
+            previous = tail;
+        }
+        assert pos[0] == block.length;
+        return tails;
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream bytes, int value) {
+        while ((value & ~0x7F) != 0) {
+            bytes.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes.write(value);
+    }
+
+    private static int readVarInt(byte[] bytes, int[] pos) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes[pos[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static class TailIterator extends AbstractResourceIterator<byte[]> {
+
+        private final ResourceIterator<byte[]> blocks;
+        private final byte[] lookAhead;
+        private List<byte[]> blockTails;
+        private int index;
+        private byte[] next;
+
+        private TailIterator(ResourceIterator<byte[]> blocks, byte[] lookAhead) {
+            this.blocks = blocks;
+            this.lookAhead = lookAhead;
+            this.blockTails = Collections.emptyList();
+            this.index = 0;
+            this.next = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (index == blockTails.size()) {
+                    if (!blocks.hasNext()) return false;
+                    blockTails = decode(blocks.next());
+                    index = 0;
+                } else {
+                    byte[] tail = blockTails.get(index++);
+                    if (bytesHavePrefix(tail, lookAhead)) {
+                        next = tail;
+                    } else if (compareBytes(tail, lookAhead) > 0) {
+                        recycle();
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public byte[] next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            byte[] tail = next;
+            next = null;
+            return tail;
+        }
+
+        @Override
+        public void recycle() {
+            blockTails = Collections.emptyList();
+            index = 0;
+            blocks.recycle();
+        }
+    }
+}
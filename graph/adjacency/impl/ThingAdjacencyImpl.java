@@ -27,20 +27,27 @@ import grakn.core.graph.edge.ThingEdge;
 import grakn.core.graph.edge.impl.ThingEdgeImpl;
 import grakn.core.graph.iid.EdgeIID;
 import grakn.core.graph.iid.IID;
+import grakn.core.graph.iid.IndexIID;
 import grakn.core.graph.iid.InfixIID;
 import grakn.core.graph.iid.SuffixIID;
 import grakn.core.graph.vertex.ThingVertex;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.Predicate;
 
+import static grakn.core.common.collection.Bytes.compareBytes;
 import static grakn.core.common.collection.Bytes.join;
 import static grakn.core.common.iterator.Iterators.empty;
 import static grakn.core.common.iterator.Iterators.iterate;
 import static grakn.core.common.iterator.Iterators.link;
+import static grakn.core.common.iterator.Iterators.merge;
 import static java.util.Arrays.copyOfRange;
 
 public abstract class ThingAdjacencyImpl implements ThingAdjacency {
@@ -151,6 +158,7 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
                 if (thingEdge.isInferred() && !edge.isInferred()) thingEdge.isInferred(false);
             } else {
                 edgesByOutIID.put(edge.outIID(), edge);
+                if (isModified) owner.graph().edgeBuffered();
             }
             return edgesByOutIID;
         });
@@ -172,6 +180,7 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
         if (encoding == Encoding.Edge.Thing.HAS && direction.isOut() && !isInferred) {
             owner.graph().stats().hasEdgeCreated(owner.iid(), adjacent.iid().asAttribute());
         }
+        if (isInferred) owner.graph().inferenceBuffered();
         ThingEdgeImpl edge = direction.isOut()
                 ? new ThingEdgeImpl.Buffered(encoding, owner, adjacent, isInferred)
                 : new ThingEdgeImpl.Buffered(encoding, adjacent, owner, isInferred);
@@ -182,6 +191,8 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
     @Override
     public ThingEdge put(Encoding.Edge.Thing encoding, ThingVertex adjacent, ThingVertex optimised, boolean isInferred) {
         assert encoding.isOptimisation();
+        if (encoding == Encoding.Edge.Thing.ROLEPLAYER) owner.graph().rolePlayerBuffered();
+        if (isInferred) owner.graph().inferenceBuffered();
         ThingEdgeImpl edge = direction.isOut()
                 ? new ThingEdgeImpl.Buffered(encoding, owner, adjacent, optimised, isInferred)
                 : new ThingEdgeImpl.Buffered(encoding, adjacent, owner, optimised, isInferred);
@@ -212,10 +223,53 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
         for (Encoding.Edge.Thing encoding : Encoding.Edge.Thing.values()) delete(encoding);
     }
 
+    /**
+     * Commits the half of every edge that belongs to this adjacency.
+     *
+     * When more than {@code PackedAdjacency.THRESHOLD} new edges of the same
+     * encoding are committed at once, they are written in the packed format
+     * of {@code PackedAdjacency}, rather than as a key per edge. Packing reads
+     * the storage, so it is deferred until the graph has written every vertex,
+     * which it may do concurrently. Either way, the outgoing role player edges
+     * of a relation are also written into the role player index,
+     * {@code IndexIID.RolePlayer}.
+     */
     @Override
     public void commit() {
-        iterate(edges.values()).flatMap(edgeMap -> iterate(edgeMap.values()))
-                .filter(e -> !e.isInferred()).forEachRemaining(Edge::commit);
+        Map<Encoding.Edge.Thing, List<ThingEdgeImpl.Buffered>> buffered = new HashMap<>();
+        iterate(edges.values()).flatMap(edgeMap -> iterate(edgeMap.values())).filter(e -> !e.isInferred())
+                .forEachRemaining(edge -> {
+                    if (edge instanceof ThingEdgeImpl.Buffered) {
+                        buffered.computeIfAbsent(edge.encoding(), e -> new ArrayList<>()).add((ThingEdgeImpl.Buffered) edge);
+                    }
+                });
+        buffered.forEach((encoding, edges) -> {
+            if (encoding == Encoding.Edge.Thing.ROLEPLAYER && direction.isOut()) edges.forEach(this::index);
+            if (edges.size() < PackedAdjacency.THRESHOLD) {
+                edges.forEach(edge -> edge.commit(direction));
+            } else {
+                List<byte[]> tails = new ArrayList<>(edges.size());
+                for (ThingEdgeImpl.Buffered edge : edges) {
+                    tails.add(PackedAdjacency.tail(direction.isOut() ? edge.outIID() : edge.inIID()));
+                }
+                owner.graph().writeSerially(() -> pack(encoding, tails));
+            }
+        });
+    }
+
+    private void pack(Encoding.Edge.Thing encoding, List<byte[]> tails) {
+        packed(encoding).put(tails);
+        owner.graph().adjacencyPacked();
+    }
+
+    private void index(ThingEdgeImpl.Buffered edge) {
+        owner.graph().storage().put(IndexIID.RolePlayer.of(edge.outIID()).bytes());
+    }
+
+    PackedAdjacency packed(Encoding.Edge.Thing encoding) {
+        return new PackedAdjacency(
+                owner.graph().storage(), owner.iid(), direction.isOut() ? encoding.out() : encoding.in()
+        );
     }
 
     static class ThingIteratorBuilderImpl implements ThingIteratorBuilder {
@@ -271,16 +325,44 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
 
     public static class Persisted extends ThingAdjacencyImpl implements ThingAdjacency {
 
+        private Boolean isPacked;
+
         public Persisted(ThingVertex owner, Encoding.Direction.Adjacency direction) {
             super(owner, direction);
         }
 
+        /**
+         * Returns true if the owner of this adjacency may hold packed edges,
+         * which is only looked up once per adjacency, and never in a database
+         * that has not packed any.
+         *
+         * @return true if the edges of this adjacency must also be looked up in the packed format
+         */
+        private boolean isPacked() {
+            if (isPacked == null) {
+                isPacked = owner.graph().hasPackedAdjacencies() &&
+                        PackedAdjacency.isMarked(owner.graph().storage(), owner.iid());
+            }
+            return isPacked;
+        }
+
         private ResourceIterator<ThingEdge> edgeIterator(Encoding.Edge.Thing encoding, IID... lookahead) {
-            byte[] iid = join(owner.iid().bytes(), infixIID(encoding, lookahead).bytes());
+            InfixIID.Thing infixIID = infixIID(encoding, lookahead);
+            byte[] iid = join(owner.iid().bytes(), infixIID.bytes());
             ResourceIterator<ThingEdge> storageIterator = owner.graph().storage()
                     .iterate(iid, (key, value) -> cache(newPersistedEdge(EdgeIID.Thing.of(key))));
             ResourceIterator<ThingEdge> bufferedIterator = bufferedEdgeIterator(encoding, lookahead);
-            return link(bufferedIterator, storageIterator).distinct();
+            if (!isPacked()) return link(bufferedIterator, storageIterator).distinct();
+
+            PackedAdjacency packed = packed(encoding);
+            ResourceIterator<ThingEdge> packedIterator = packed.tails(copyOfRange(infixIID.bytes(), 1, infixIID.length()))
+                    .map(tail -> cache(newPersistedEdge(packed.edgeIID(tail))));
+            return link(bufferedIterator, merge(storageIterator, packedIterator, this::compareIIDs)).distinct();
+        }
+
+        private int compareIIDs(ThingEdge first, ThingEdge second) {
+            if (direction.isOut()) return compareBytes(first.outIID().bytes(), second.outIID().bytes());
+            else return compareBytes(first.inIID().bytes(), second.inIID().bytes());
         }
 
         private ThingEdgeImpl.Persisted newPersistedEdge(EdgeIID.Thing of) {
@@ -304,7 +386,7 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
             if (edge != null) return edge;
 
             EdgeIID.Thing edgeIID = EdgeIID.Thing.of(owner.iid(), infixIID(encoding), adjacent.iid());
-            if (owner.graph().storage().get(edgeIID.bytes()) == null) return null;
+            if (!existsInStorage(encoding, edgeIID)) return null;
             else return cache(newPersistedEdge(edgeIID));
         }
 
@@ -318,10 +400,35 @@ public abstract class ThingAdjacencyImpl implements ThingAdjacency {
                     owner.iid(), infixIID(encoding, optimised.iid().type()),
                     adjacent.iid(), SuffixIID.of(optimised.iid().key())
             );
-            if (owner.graph().storage().get(edgeIID.bytes()) == null) return null;
+            if (!existsInStorage(encoding, edgeIID)) return null;
             else return cache(newPersistedEdge(edgeIID));
         }
 
+        private boolean existsInStorage(Encoding.Edge.Thing encoding, EdgeIID.Thing edgeIID) {
+            return owner.graph().storage().get(edgeIID.bytes()) != null ||
+                    (isPacked() && packed(encoding).contains(PackedAdjacency.tail(edgeIID)));
+        }
+
+        /**
+         * Removes an edge from this adjacency, and from the packed blocks of
+         * this adjacency if it is held in one. Unpacked persisted edges are
+         * deleted from storage by the edge itself. Edges may be deleted in
+         * parallel, and removing a packed edge rewrites the block that holds
+         * it, so packed edges are removed from an adjacency one at a time.
+         *
+         * @param edge the edge to remove
+         */
+        @Override
+        public void remove(ThingEdge edge) {
+            super.remove(edge);
+            if (edge instanceof ThingEdgeImpl.Persisted && isPacked()) {
+                byte[] tail = PackedAdjacency.tail(direction.isOut() ? edge.outIID() : edge.inIID());
+                synchronized (this) {
+                    packed(edge.encoding()).remove(tail);
+                }
+            }
+        }
+
         @Override
         public void delete(Encoding.Edge.Thing encoding) {
             edgeIterator(encoding).forEachRemaining(Edge::delete);
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graph.common;
+
+import grakn.core.common.collection.BloomFilter;
+import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.graph.iid.EdgeIID;
+import grakn.core.graph.iid.VertexIID;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static grakn.core.common.collection.Bytes.join;
+import static grakn.core.graph.common.Encoding.Vertex.Type.ATTRIBUTE_TYPE;
+
+/**
+ * An in-memory filter of the attributes that exist in storage, held per
+ * database, with one {@code BloomFilter} per attribute type.
+ *
+ * The filter is rebuilt when the database is opened, and an attribute is
+ * added to it when it is committed, before the storage commit completes.
+ * A filter may hence answer that an attribute "may exist" when it does not
+ * (e.g. it was deleted, or its transaction failed), in which case we fall
+ * back to reading storage, but it never answers that a committed attribute
+ * does not exist. This allows lookups of attributes that definitely do not
+ * exist to skip storage entirely.
+ */
+public class AttributeFilter {
+
+    private final ConcurrentMap<VertexIID.Type, BloomFilter> filters;
+
+    public AttributeFilter() {
+        filters = new ConcurrentHashMap<>();
+    }
+
+    public boolean mayExist(VertexIID.Attribute<?> attIID) {
+        BloomFilter filter = filters.get(attIID.type());
+        return filter != null && filter.mayContain(attIID.bytes());
+    }
+
+    public void add(VertexIID.Attribute<?> attIID) {
+        filters.computeIfAbsent(attIID.type(), t -> new BloomFilter()).add(attIID.bytes());
+    }
+
+    public void sync(Storage.Schema schemaStorage, Storage.Data dataStorage) {
+        filters.clear();
+        ResourceIterator<byte[]> typeIterator = schemaStorage.iterate(ATTRIBUTE_TYPE.prefix().bytes(), (iid, value) -> iid)
+                .filter(iid -> iid.length == VertexIID.Type.LENGTH);
+        while (typeIterator.hasNext()) {
+            VertexIID.Type typeIID = VertexIID.Type.of(typeIterator.next());
+            BloomFilter filter = new BloomFilter();
+            dataStorage.iterate(
+                    join(typeIID.bytes(), Encoding.Edge.ISA.in().bytes()),
+                    (key, value) -> EdgeIID.InwardsISA.of(key).end()
+            ).forEachRemaining(attIID -> filter.add(attIID.bytes()));
+            filters.put(typeIID, filter);
+        }
+    }
+}
@@ -134,7 +134,9 @@ public class Encoding {
         STATISTICS(1),
         TYPE(2),
         THING(3),
-        RULE(4);
+        RULE(4),
+        ADJACENCY(5),
+        SYSTEM(6);
 
         private final int key;
 
@@ -155,10 +157,16 @@ public class Encoding {
         INDEX_TYPE(0, PrefixType.INDEX),
         INDEX_RULE(10, PrefixType.INDEX),
         INDEX_ATTRIBUTE(20, PrefixType.INDEX),
+        INDEX_ROLEPLAYER(30, PrefixType.INDEX),
         STATISTICS_THINGS(50, PrefixType.STATISTICS),
         STATISTICS_COUNT_JOB(51, PrefixType.STATISTICS),
         STATISTICS_COUNTED(52, PrefixType.STATISTICS),
         STATISTICS_SNAPSHOT(53, PrefixType.STATISTICS),
+        ADJACENCY_PACKED(60, PrefixType.ADJACENCY),
+        SYSTEM_SCHEMA_VERSION(70, PrefixType.SYSTEM),
+        SYSTEM_TRAVERSAL_PLAN(71, PrefixType.SYSTEM),
+        SYSTEM_ROLEPLAYER_INDEX(72, PrefixType.SYSTEM),
+        SYSTEM_PACKED_ADJACENCY(73, PrefixType.SYSTEM),
         VERTEX_THING_TYPE(100, PrefixType.TYPE),
         VERTEX_ENTITY_TYPE(110, PrefixType.TYPE),
         VERTEX_ATTRIBUTE_TYPE(120, PrefixType.TYPE),
@@ -174,10 +182,16 @@ public class Encoding {
                 pair(INDEX_TYPE.key, INDEX_TYPE),
                 pair(INDEX_RULE.key, INDEX_RULE),
                 pair(INDEX_ATTRIBUTE.key, INDEX_ATTRIBUTE),
+                pair(INDEX_ROLEPLAYER.key, INDEX_ROLEPLAYER),
                 pair(STATISTICS_THINGS.key, STATISTICS_THINGS),
                 pair(STATISTICS_COUNT_JOB.key, STATISTICS_COUNT_JOB),
                 pair(STATISTICS_COUNTED.key, STATISTICS_COUNTED),
                 pair(STATISTICS_SNAPSHOT.key, STATISTICS_SNAPSHOT),
+                pair(ADJACENCY_PACKED.key, ADJACENCY_PACKED),
+                pair(SYSTEM_SCHEMA_VERSION.key, SYSTEM_SCHEMA_VERSION),
+                pair(SYSTEM_TRAVERSAL_PLAN.key, SYSTEM_TRAVERSAL_PLAN),
+                pair(SYSTEM_ROLEPLAYER_INDEX.key, SYSTEM_ROLEPLAYER_INDEX),
+                pair(SYSTEM_PACKED_ADJACENCY.key, SYSTEM_PACKED_ADJACENCY),
                 pair(VERTEX_THING_TYPE.key, VERTEX_THING_TYPE),
                 pair(VERTEX_ENTITY_TYPE.key, VERTEX_ENTITY_TYPE),
                 pair(VERTEX_ATTRIBUTE_TYPE.key, VERTEX_ATTRIBUTE_TYPE),
@@ -237,6 +251,10 @@ public class Encoding {
             return type.equals(PrefixType.RULE);
         }
 
+        public boolean isAdjacency() {
+            return type.equals(PrefixType.ADJACENCY);
+        }
+
     }
 
     /**
@@ -821,7 +839,8 @@ public class Encoding {
         enum Prefix {
             TYPE(Encoding.Prefix.INDEX_TYPE),
             RULE(Encoding.Prefix.INDEX_RULE),
-            ATTRIBUTE(Encoding.Prefix.INDEX_ATTRIBUTE);
+            ATTRIBUTE(Encoding.Prefix.INDEX_ATTRIBUTE),
+            ROLEPLAYER(Encoding.Prefix.INDEX_ROLEPLAYER);
 
             private final Encoding.Prefix prefix;
 
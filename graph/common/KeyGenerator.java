@@ -192,6 +192,29 @@ public class KeyGenerator {
             return longToSortedBytes(key);
         }
 
+        /**
+         * Reserves a contiguous range of {@code count} keys for a given type in
+         * a single atomic operation, rather than one operation per key.
+         *
+         * @param typeIID   {@code IID} of the type in which the keys will be used for
+         * @param typeLabel {@code Label} of the type in which the keys will be used for
+         * @param count     the number of keys to reserve
+         * @return the reserved keys, in the order they were generated
+         */
+        public byte[][] forThings(VertexIID.Type typeIID, Label typeLabel, int count) {
+            assert count > 0;
+            long range = (long) delta * count;
+            long first = thingKeys.computeIfAbsent(typeIID, k -> new AtomicLong(initialValue)).getAndAdd(range);
+            long last = first + range - delta;
+            if (first >= LONG_MAX_VALUE || first <= LONG_MIN_VALUE || last >= LONG_MAX_VALUE || last <= LONG_MIN_VALUE) {
+                thingKeys.get(typeIID).addAndGet(-1 * range);
+                throw GraknException.of(MAX_INSTANCE_REACHED, typeLabel, LONG_MAX_VALUE);
+            }
+            byte[][] keys = new byte[count][];
+            for (int i = 0; i < count; i++) keys[i] = longToSortedBytes(first + (long) delta * i);
+            return keys;
+        }
+
         public byte[] serialise() {
             ByteArrayOutputStream bytes = new ByteArrayOutputStream();
             byte[] thingKeysSize = intToBytes(thingKeys.size());
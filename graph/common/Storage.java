@@ -22,6 +22,8 @@ import grakn.core.common.exception.ErrorMessage;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.ResourceIterator;
 
+import javax.annotation.Nullable;
+import java.util.List;
 import java.util.function.BiFunction;
 
 import static grakn.common.util.Objects.className;
@@ -49,6 +51,18 @@ public interface Storage {
 
     <G> ResourceIterator<G> iterate(byte[] key, BiFunction<byte[], byte[], G> constructor);
 
+    /**
+     * Iterates the keys that start with the given prefix and lie between the
+     * given bounds, inclusive, in the order of their bytes.
+     *
+     * @param key         the prefix of the keys to iterate
+     * @param from        the lowest key to iterate, which must start with the prefix
+     * @param to          the highest key to iterate, or null to iterate to the end of the prefix
+     * @param constructor the function that constructs the elements from each key and value
+     */
+    <G> ResourceIterator<G> iterate(byte[] key, byte[] from, @Nullable byte[] to,
+                                    BiFunction<byte[], byte[], G> constructor);
+
     GraknException exception(ErrorMessage error);
 
     GraknException exception(Exception exception);
@@ -73,5 +87,17 @@ public interface Storage {
     interface Data extends Storage {
 
         KeyGenerator.Data dataKeyGenerator();
+
+        AttributeFilter attributeFilter();
+
+        /**
+         * Runs the given writers concurrently, where every write that a writer
+         * makes to this storage is buffered in a write batch of its own. Once
+         * all writers are done, the batches are merged into this storage, so
+         * they are still committed as a single atomic write.
+         *
+         * @param writers the jobs that write to this storage concurrently
+         */
+        void writeConcurrently(List<Runnable> writers);
     }
 }
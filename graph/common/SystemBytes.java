@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graph.common;
+
+import static grakn.core.common.collection.Bytes.join;
+import static grakn.core.common.collection.Bytes.longToSortedBytes;
+
+public class SystemBytes {
+
+    public static byte[] schemaVersionKey() {
+        return Encoding.Prefix.SYSTEM_SCHEMA_VERSION.bytes();
+    }
+
+    public static byte[] rolePlayerIndexKey() {
+        return Encoding.Prefix.SYSTEM_ROLEPLAYER_INDEX.bytes();
+    }
+
+    public static byte[] packedAdjacencyKey() {
+        return Encoding.Prefix.SYSTEM_PACKED_ADJACENCY.bytes();
+    }
+
+    public static byte[] traversalPlanPrefix() {
+        return Encoding.Prefix.SYSTEM_TRAVERSAL_PLAN.bytes();
+    }
+
+    public static byte[] traversalPlanPrefix(long schemaVersion) {
+        return join(
+                Encoding.Prefix.SYSTEM_TRAVERSAL_PLAN.bytes(),
+                longToSortedBytes(schemaVersion));
+    }
+
+    public static byte[] traversalPlanKey(long schemaVersion, byte[] fingerprintHash) {
+        return join(
+                Encoding.Prefix.SYSTEM_TRAVERSAL_PLAN.bytes(),
+                longToSortedBytes(schemaVersion),
+                fingerprintHash);
+    }
+}
@@ -23,6 +23,7 @@ import grakn.core.graph.DataGraph;
 import grakn.core.graph.common.Encoding;
 import grakn.core.graph.edge.ThingEdge;
 import grakn.core.graph.iid.EdgeIID;
+import grakn.core.graph.iid.IndexIID;
 import grakn.core.graph.iid.InfixIID;
 import grakn.core.graph.iid.SuffixIID;
 import grakn.core.graph.iid.VertexIID;
@@ -58,9 +59,20 @@ public abstract class ThingEdgeImpl implements ThingEdge {
         return isInferred;
     }
 
+    /**
+     * Commits only the key of this edge that belongs to the adjacency of the
+     * given direction, i.e. {@code outIID} for {@code OUT} and {@code inIID}
+     * for {@code IN}, so that each adjacency may store its half of the edge
+     * in its own format.
+     *
+     * @param direction the direction of the adjacency committing this edge
+     */
+    public abstract void commit(Encoding.Direction.Adjacency direction);
+
     public static class Buffered extends ThingEdgeImpl implements ThingEdge {
 
-        private final AtomicBoolean committed;
+        private final AtomicBoolean outCommitted;
+        private final AtomicBoolean inCommitted;
         private final ThingVertex from;
         private final ThingVertex to;
         private final ThingVertex optimised;
@@ -94,7 +106,8 @@ public abstract class ThingEdgeImpl implements ThingEdge {
             this.to = to;
             this.optimised = optimised;
             this.hash = hash(Buffered.class, encoding, from, to);
-            committed = new AtomicBoolean(false);
+            outCommitted = new AtomicBoolean(false);
+            inCommitted = new AtomicBoolean(false);
         }
 
         @Override
@@ -165,9 +178,16 @@ public abstract class ThingEdgeImpl implements ThingEdge {
 
         @Override
         public void commit() {
+            commit(Encoding.Direction.Adjacency.OUT);
+            commit(Encoding.Direction.Adjacency.IN);
+        }
+
+        @Override
+        public void commit(Encoding.Direction.Adjacency direction) {
             if (isInferred()) throw GraknException.of(ILLEGAL_OPERATION);
-            if (committed.compareAndSet(false, true)) {
+            if (direction.isOut() && outCommitted.compareAndSet(false, true)) {
                 graph.storage().put(outIID().bytes());
+            } else if (direction.isIn() && inCommitted.compareAndSet(false, true)) {
                 graph.storage().put(inIID().bytes());
             }
         }
@@ -312,7 +332,8 @@ public abstract class ThingEdgeImpl implements ThingEdge {
          * {@code isDelete} atomic boolean. The delete operation involves
          * removing this edge from the {@code from.outs()} and {@code to.ins()}
          * edge collections in case it is cached. Then, delete both directions
-         * of this edge from the graph storage.
+         * of this edge from the graph storage, along with its entry in the
+         * role player index if it is a role player edge.
          */
         @Override
         public void delete() {
@@ -321,6 +342,9 @@ public abstract class ThingEdgeImpl implements ThingEdge {
                 to().ins().remove(this);
                 graph.storage().delete(this.outIID.bytes());
                 graph.storage().delete(this.inIID.bytes());
+                if (encoding == Encoding.Edge.Thing.ROLEPLAYER) {
+                    graph.storage().delete(IndexIID.RolePlayer.of(outIID).bytes());
+                }
                 if (encoding == Encoding.Edge.Thing.HAS && !isInferred) {
                     graph.stats().hasEdgeDeleted(fromIID, toIID.asAttribute());
                 }
@@ -337,6 +361,9 @@ public abstract class ThingEdgeImpl implements ThingEdge {
         @Override
         public void commit() {}
 
+        @Override
+        public void commit(Encoding.Direction.Adjacency direction) {}
+
         /**
          * Determine the equality of a {@code Edge} against another.
          *
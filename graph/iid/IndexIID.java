@@ -289,4 +289,65 @@ public abstract class IndexIID extends IID {
             return readableString;
         }
     }
+
+    /**
+     * The index of the role players of relations by the types involved: every
+     * role player edge is indexed under the type of its relation, the type of
+     * its player and its role type, followed by the IIDs of the relation and
+     * the player, and the key of the role instance, which make it unique. The
+     * relations of a type that have a player of a given type in a given role
+     * can then be found with a single seek, rather than by scanning all the
+     * relations of the type.
+     */
+    public static class RolePlayer extends IndexIID {
+
+        static final int RELATION_INDEX = PrefixIID.LENGTH + 3 * VertexIID.Type.LENGTH;
+
+        RolePlayer(byte[] bytes) {
+            super(bytes);
+        }
+
+        public static RolePlayer of(byte[] bytes) {
+            return new RolePlayer(bytes);
+        }
+
+        /**
+         * @param outIID the outwards IID of a role player edge, from its relation to its player
+         * @return the index entry of the given role player edge
+         */
+        public static RolePlayer of(EdgeIID.Thing outIID) {
+            assert outIID.encoding() == Encoding.Edge.Thing.ROLEPLAYER && outIID.isOutwards();
+            VertexIID.Thing relation = outIID.start(), player = outIID.end();
+            VertexIID.Type roleType = outIID.infix().asRolePlayer().tail();
+            return new RolePlayer(join(prefix(relation.type(), player.type(), roleType).bytes,
+                                       relation.bytes, player.bytes, outIID.suffix().bytes));
+        }
+
+        /**
+         * @return the prefix of the index of the relations of the given type, with a player of the given type in the given role type
+         */
+        public static RolePlayer prefix(VertexIID.Type relationType, VertexIID.Type playerType, VertexIID.Type roleType) {
+            return new RolePlayer(join(Encoding.Index.Prefix.ROLEPLAYER.prefix().bytes(), relationType.bytes,
+                                       playerType.bytes, roleType.bytes));
+        }
+
+        public VertexIID.Thing relation() {
+            return VertexIID.Thing.extract(bytes, RELATION_INDEX);
+        }
+
+        @Override
+        public String toString() {
+            if (readableString == null) {
+                readableString = "[" + PrefixIID.LENGTH + ": " + Encoding.Index.Prefix.ROLEPLAYER.toString() + "]" +
+                        "[" + VertexIID.Type.LENGTH + ": " + VertexIID.Type.of(copyOfRange(
+                        bytes, PrefixIID.LENGTH, PrefixIID.LENGTH + VertexIID.Type.LENGTH)).toString() + "]" +
+                        "[" + VertexIID.Type.LENGTH + ": " + VertexIID.Type.of(copyOfRange(
+                        bytes, PrefixIID.LENGTH + VertexIID.Type.LENGTH, PrefixIID.LENGTH + 2 * VertexIID.Type.LENGTH)).toString() + "]" +
+                        "[" + VertexIID.Type.LENGTH + ": " + VertexIID.Type.of(copyOfRange(
+                        bytes, PrefixIID.LENGTH + 2 * VertexIID.Type.LENGTH, RELATION_INDEX)).toString() + "]" +
+                        "[" + (bytes.length - RELATION_INDEX) + ": " + (bytes.length > RELATION_INDEX ? relation().toString() : "") + "]";
+            }
+            return readableString;
+        }
+    }
 }
@@ -24,6 +24,9 @@ import grakn.core.common.parameters.Label;
 import grakn.core.graph.common.Encoding;
 import grakn.core.graph.common.KeyGenerator;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static grakn.common.util.Objects.className;
 import static grakn.core.common.collection.Bytes.DATETIME_SIZE;
 import static grakn.core.common.collection.Bytes.DOUBLE_SIZE;
@@ -32,6 +35,7 @@ import static grakn.core.common.collection.Bytes.booleanToByte;
 import static grakn.core.common.collection.Bytes.byteToBoolean;
 import static grakn.core.common.collection.Bytes.bytesToDateTime;
 import static grakn.core.common.collection.Bytes.bytesToString;
+import static grakn.core.common.collection.Bytes.compareBytes;
 import static grakn.core.common.collection.Bytes.dateTimeToBytes;
 import static grakn.core.common.collection.Bytes.doubleToSortedBytes;
 import static grakn.core.common.collection.Bytes.join;
@@ -41,6 +45,7 @@ import static grakn.core.common.collection.Bytes.sortedBytesToLong;
 import static grakn.core.common.collection.Bytes.sortedBytesToShort;
 import static grakn.core.common.collection.Bytes.stringToBytes;
 import static grakn.core.common.collection.Bytes.unsignedBytesToShort;
+import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_OPERATION;
 import static grakn.core.common.exception.ErrorMessage.Internal.UNRECOGNISED_VALUE;
 import static grakn.core.common.exception.ErrorMessage.ThingRead.INVALID_THING_IID_CASTING;
 import static grakn.core.graph.common.Encoding.ValueType.STRING_ENCODING;
@@ -148,6 +153,23 @@ public abstract class VertexIID extends IID {
                                   typeIID.bytes(), keyGenerator.forThing(typeIID, typeLabel)));
         }
 
+        /**
+         * Generate a batch of IIDs for {@code ThingVertex}s of the same {@code TypeVertex}
+         *
+         * @param keyGenerator to generate the IIDs for the {@code ThingVertex}s
+         * @param typeIID      {@code IID} of the {@code TypeVertex} in which the {@code ThingVertex}s are instances of
+         * @param typeLabel    {@code Label} of the {@code TypeVertex} in which the {@code ThingVertex}s are instances of
+         * @param count        the number of IIDs to generate
+         * @return a list of new IIDs for {@code ThingVertex}s
+         */
+        public static List<VertexIID.Thing> generate(KeyGenerator.Data keyGenerator, Type typeIID, Label typeLabel, int count) {
+            byte[] prefix = join(typeIID.encoding().instance().prefix().bytes(), typeIID.bytes());
+            byte[][] keys = keyGenerator.forThings(typeIID, typeLabel, count);
+            List<VertexIID.Thing> iids = new ArrayList<>(count);
+            for (byte[] key : keys) iids.add(new Thing(join(prefix, key)));
+            return iids;
+        }
+
         public static VertexIID.Thing of(byte[] bytes) {
             if (Encoding.Vertex.Type.of(bytes[PrefixIID.LENGTH]).equals(ATTRIBUTE_TYPE)) {
                 return VertexIID.Attribute.of(bytes);
@@ -176,6 +198,44 @@ public abstract class VertexIID extends IID {
             return copyOfRange(bytes, PREFIX_W_TYPE_LENGTH, bytes.length);
         }
 
+        /**
+         * Returns the prefix and type of this IID packed into an {@code int},
+         * which together with {@link #packedKey()} identifies the thing without
+         * having to hash or compare its bytes.
+         *
+         * @return the prefix and type of this IID packed into an {@code int}
+         */
+        public int packedType() {
+            return (bytes[0] & 0xFF) << 16 | (bytes[1] & 0xFF) << 8 | (bytes[2] & 0xFF);
+        }
+
+        /**
+         * Returns the key of this IID packed into a {@code long}, which is
+         * unique among the things of the same type.
+         *
+         * @return the key of this IID packed into a {@code long}
+         */
+        public long packedKey() {
+            return packedLong(PREFIX_W_TYPE_LENGTH);
+        }
+
+        /**
+         * Returns true if this IID is as long as an IID of its encoding must
+         * be. IIDs given by clients may not be, and they may only be packed,
+         * or looked up, if they are.
+         *
+         * @return true if this IID has the length of its encoding
+         */
+        public boolean hasValidLength() {
+            return bytes.length == DEFAULT_LENGTH;
+        }
+
+        long packedLong(int from) {
+            long packed = 0;
+            for (int i = from; i < from + LONG_SIZE; i++) packed = (packed << 8) | (bytes[i] & 0xFF);
+            return packed;
+        }
+
         public boolean isAttribute() {
             return false;
         }
@@ -208,6 +268,22 @@ public abstract class VertexIID extends IID {
             valueType = Encoding.ValueType.of(bytes[PREFIX_W_TYPE_LENGTH]);
         }
 
+        /**
+         * Returns the value of this attribute packed into a {@code long}, which
+         * is only possible for value types of a fixed size of at most 8 bytes.
+         *
+         * @return the value of this attribute packed into a {@code long}
+         */
+        @Override
+        public long packedKey() {
+            throw GraknException.of(ILLEGAL_OPERATION);
+        }
+
+        @Override
+        public boolean hasValidLength() {
+            return bytes.length > VALUE_INDEX;
+        }
+
         Attribute(Encoding.ValueType valueType, VertexIID.Type typeIID, byte[] valueBytes) {
             super(join(
                     ATTRIBUTE.prefix().bytes(),
@@ -256,6 +332,17 @@ public abstract class VertexIID extends IID {
 
         public abstract VALUE value();
 
+        /**
+         * Compares the encoded value of this attribute with the given encoded
+         * value, in place, without decoding either of them.
+         *
+         * @param encodedValue a value encoded as the value of this attribute type is
+         * @return the unsigned comparison of the encoded values
+         */
+        public int compareValue(byte[] encodedValue) {
+            return compareBytes(bytes, VALUE_INDEX, encodedValue);
+        }
+
         public Encoding.ValueType valueType() {
             return valueType;
         }
@@ -319,6 +406,16 @@ public abstract class VertexIID extends IID {
                 return byteToBoolean(bytes[VALUE_INDEX]);
             }
 
+            @Override
+            public long packedKey() {
+                return bytes[VALUE_INDEX];
+            }
+
+            @Override
+            public boolean hasValidLength() {
+                return bytes.length == VALUE_INDEX + 1;
+            }
+
             @Override
             public Boolean asBoolean() {
                 return this;
@@ -344,6 +441,20 @@ public abstract class VertexIID extends IID {
                 return sortedBytesToLong(copyOfRange(bytes, VALUE_INDEX, VALUE_INDEX + LONG_SIZE));
             }
 
+            public long longValue() {
+                return sortedBytesToLong(bytes, VALUE_INDEX);
+            }
+
+            @Override
+            public long packedKey() {
+                return packedLong(VALUE_INDEX);
+            }
+
+            @Override
+            public boolean hasValidLength() {
+                return bytes.length == VALUE_INDEX + LONG_SIZE;
+            }
+
             @Override
             public Long asLong() {
                 return this;
@@ -369,6 +480,20 @@ public abstract class VertexIID extends IID {
                 return sortedBytesToDouble(copyOfRange(bytes, VALUE_INDEX, VALUE_INDEX + DOUBLE_SIZE));
             }
 
+            public double doubleValue() {
+                return sortedBytesToDouble(bytes, VALUE_INDEX);
+            }
+
+            @Override
+            public long packedKey() {
+                return packedLong(VALUE_INDEX);
+            }
+
+            @Override
+            public boolean hasValidLength() {
+                return bytes.length == VALUE_INDEX + LONG_SIZE;
+            }
+
             @Override
             public Double asDouble() {
                 return this;
@@ -395,7 +520,7 @@ public abstract class VertexIID extends IID {
 
             @Override
             public java.lang.String value() {
-                return bytesToString(copyOfRange(bytes, VALUE_INDEX, bytes.length), STRING_ENCODING);
+                return bytesToString(bytes, VALUE_INDEX, STRING_ENCODING);
             }
 
             @Override
@@ -423,6 +548,16 @@ public abstract class VertexIID extends IID {
                 return bytesToDateTime(copyOfRange(bytes, VALUE_INDEX, bytes.length), TIME_ZONE_ID);
             }
 
+            @Override
+            public long packedKey() {
+                return packedLong(VALUE_INDEX);
+            }
+
+            @Override
+            public boolean hasValidLength() {
+                return bytes.length == VALUE_INDEX + LONG_SIZE;
+            }
+
             @Override
             public DateTime asDateTime() {
                 return this;
@@ -75,6 +75,21 @@ public interface ThingVertex extends Vertex<VertexIID.Thing, Encoding.Vertex.Thi
      */
     void isInferred(boolean isInferred);
 
+    /**
+     * Marks this {@code ThingVertex} as spilled out of its {@code DataGraph}
+     * onto storage, after which it can no longer be written to.
+     */
+    void setSpilled();
+
+    /**
+     * Returns true if this {@code ThingVertex} was spilled out of its
+     * {@code DataGraph}, and has to be retrieved from the graph again to be
+     * written to.
+     *
+     * @return true if this {@code ThingVertex} was spilled out of its {@code DataGraph}
+     */
+    boolean isSpilled();
+
     /**
      * Returns true if this {@code ThingVertex} is an instance of {@code AttributeVertex}.
      *
@@ -32,8 +32,10 @@ import grakn.core.graph.vertex.TypeVertex;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static grakn.common.collection.Bytes.bytesToHexString;
 import static grakn.common.util.Objects.className;
 import static grakn.core.common.exception.ErrorMessage.ThingRead.INVALID_THING_VERTEX_CASTING;
+import static grakn.core.common.exception.ErrorMessage.ThingWrite.THING_HAS_BEEN_SPILLED;
 import static grakn.core.common.exception.ErrorMessage.Transaction.ILLEGAL_OPERATION;
 import static grakn.core.graph.common.Encoding.Vertex.Thing.ATTRIBUTE;
 
@@ -45,6 +47,7 @@ public abstract class ThingVertexImpl extends VertexImpl<VertexIID.Thing> implem
     protected final ThingAdjacency ins;
     protected final AtomicBoolean isDeleted;
     protected boolean isInferred;
+    private volatile boolean isSpilled;
 
     ThingVertexImpl(DataGraph graph, VertexIID.Thing iid, boolean isInferred) {
         super(iid);
@@ -55,6 +58,7 @@ public abstract class ThingVertexImpl extends VertexImpl<VertexIID.Thing> implem
         this.isInferred = isInferred;
         this.isModified = false;
         this.isDeleted = new AtomicBoolean(false);
+        this.isSpilled = false;
     }
 
     public static ThingVertexImpl of(DataGraph graph, VertexIID.Thing iid) {
@@ -100,6 +104,7 @@ public abstract class ThingVertexImpl extends VertexImpl<VertexIID.Thing> implem
 
     @Override
     public void setModified() {
+        if (isSpilled) throw GraknException.of(THING_HAS_BEEN_SPILLED, bytesToHexString(iid.bytes()));
         if (!isModified) {
             isModified = true;
             graph.setModified();
@@ -121,6 +126,16 @@ public abstract class ThingVertexImpl extends VertexImpl<VertexIID.Thing> implem
         return isInferred;
     }
 
+    @Override
+    public void setSpilled() {
+        isSpilled = true;
+    }
+
+    @Override
+    public boolean isSpilled() {
+        return isSpilled;
+    }
+
     public boolean isDeleted() {
         return isDeleted.get();
     }
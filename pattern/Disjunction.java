@@ -23,8 +23,10 @@ import grakn.core.pattern.variable.VariableRegistry;
 import graql.lang.pattern.Conjunctable;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 import static grabl.tracing.client.GrablTracingThreadStatic.traceOnThread;
 import static grakn.core.common.iterator.Iterators.iterate;
@@ -39,10 +41,21 @@ public class Disjunction implements Pattern, Cloneable {
 
     private static final String TRACE_PREFIX = "disjunction.";
     private final List<Conjunction> conjunctions;
+    private final Conjunction common;
+    private final List<Conjunction> remainders;
     private final int hash;
 
     public Disjunction(List<Conjunction> conjunctions) {
+        this(conjunctions, null, null);
+    }
+
+    private Disjunction(List<Conjunction> conjunctions, @Nullable Conjunction common,
+                        @Nullable List<Conjunction> remainders) {
+        assert (common == null) == (remainders == null);
+        assert remainders == null || remainders.size() == conjunctions.size();
         this.conjunctions = conjunctions;
+        this.common = common;
+        this.remainders = remainders;
         this.hash = Objects.hash(conjunctions);
     }
 
@@ -55,19 +68,66 @@ public class Disjunction implements Pattern, Cloneable {
             graql.lang.pattern.Disjunction<graql.lang.pattern.Conjunction<Conjunctable>> graql,
             @Nullable VariableRegistry bounds) {
         try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "create")) {
-            return new Disjunction(graql.patterns().stream().map(
+            List<Conjunction> conjunctions = graql.patterns().stream().map(
                     conjunction -> Conjunction.create(conjunction, bounds)
-            ).collect(toList()));
+            ).collect(toList());
+            if (bounds != null || graql.patterns().size() < 2) return new Disjunction(conjunctions);
+
+            List<Conjunctable> common = new ArrayList<>(graql.patterns().get(0).patterns());
+            graql.patterns().forEach(conjunction -> common.retainAll(conjunction.patterns()));
+            if (!hasVariable(common)) return new Disjunction(conjunctions);
+            List<Conjunction> remainders = new ArrayList<>(conjunctions.size());
+            for (graql.lang.pattern.Conjunction<Conjunctable> conjunction : graql.patterns()) {
+                List<Conjunctable> remainder = new ArrayList<>(conjunction.patterns());
+                remainder.removeAll(common);
+                if (!hasVariable(remainder)) return new Disjunction(conjunctions);
+                remainders.add(Conjunction.create(new graql.lang.pattern.Conjunction<>(remainder)));
+            }
+            return new Disjunction(conjunctions, Conjunction.create(new graql.lang.pattern.Conjunction<>(common)),
+                                   remainders);
         }
     }
 
+    private static boolean hasVariable(List<Conjunctable> patterns) {
+        return iterate(patterns).anyMatch(Conjunctable::isVariable);
+    }
+
     public List<Conjunction> conjunctions() {
         return conjunctions;
     }
 
+    /**
+     * Returns the patterns that every conjunction of this disjunction starts
+     * with, such as those written outside of an {@code or} clause, which only
+     * need to be matched once for all the conjunctions, rather than once for
+     * each of them. This is only split out of the disjunctions of a query,
+     * and not out of those of negations, which are matched against answers
+     * that are already bound.
+     *
+     * @return the patterns common to every conjunction, if there are any
+     */
+    public Optional<Conjunction> common() {
+        return Optional.ofNullable(common);
+    }
+
+    /**
+     * Returns what is left of each conjunction of this disjunction once the
+     * common patterns are taken out, in the same order as the conjunctions.
+     * The answers of each conjunction are the answers of its remainder, bound
+     * to each answer of the common patterns.
+     *
+     * @return the remainder of each conjunction, if there are common patterns
+     */
+    public List<Conjunction> remainders() {
+        assert common != null;
+        return remainders;
+    }
+
     @Override
     public Disjunction clone() {
-        return new Disjunction(iterate(conjunctions).map(Conjunction::clone).toList());
+        List<Conjunction> conjunctions = iterate(this.conjunctions).map(Conjunction::clone).toList();
+        if (common == null) return new Disjunction(conjunctions);
+        else return new Disjunction(conjunctions, common.clone(), iterate(remainders).map(Conjunction::clone).toList());
     }
 
     @Override
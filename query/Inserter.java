@@ -22,6 +22,7 @@ import grabl.tracing.client.GrablTracingThreadStatic;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.common.parameters.Context;
+import grakn.core.common.parameters.MemoryBudget;
 import grakn.core.concept.ConceptManager;
 import grakn.core.concept.answer.ConceptMap;
 import grakn.core.concept.thing.Attribute;
@@ -121,7 +122,9 @@ public class Inserter {
     }
 
     private ResourceIterator<ConceptMap> executeParallel() {
-        List<List<ConceptMap>> lists = matcher.execute(context).toLists(PARALLELISATION_SPLIT_MIN, PARALLELISATION_FACTOR);
+        MemoryBudget budget = context.options().memoryBudget();
+        List<ConceptMap> matches = Matcher.materialise(matcher.execute(context), budget);
+        List<List<ConceptMap>> lists = iterate(matches).toLists(PARALLELISATION_SPLIT_MIN, PARALLELISATION_FACTOR);
         assert !lists.isEmpty();
         List<ConceptMap> inserts;
         if (lists.size() == 1) inserts = iterate(lists.get(0)).map(
@@ -130,12 +133,14 @@ public class Inserter {
         else inserts = produce(async(iterate(lists).map(list -> iterate(list).map(
                 matched -> new Operation(conceptMgr, matched, variables).execute()
         )), PARALLELISATION_FACTOR), EXHAUSTIVE, asyncPool1()).toList();
-        return iterate(inserts);
+        return iterate(inserts).onConsumed(() -> Matcher.release(matches, budget));
     }
 
     private ResourceIterator<ConceptMap> executeSerial() {
-        List<ConceptMap> matches = matcher.execute(context).toList();
-        return iterate(iterate(matches).map(matched -> new Operation(conceptMgr, matched, variables).execute()).toList());
+        MemoryBudget budget = context.options().memoryBudget();
+        List<ConceptMap> matches = Matcher.materialise(matcher.execute(context), budget);
+        return iterate(iterate(matches).map(matched -> new Operation(conceptMgr, matched, variables).execute()).toList())
+                .onConsumed(() -> Matcher.release(matches, budget));
     }
 
     public static class Operation {
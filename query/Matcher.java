@@ -21,6 +21,7 @@ package grakn.core.query;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.common.parameters.Context;
+import grakn.core.common.parameters.MemoryBudget;
 import grakn.core.concept.answer.ConceptMap;
 import grakn.core.concept.answer.ConceptMapGroup;
 import grakn.core.concept.answer.Numeric;
@@ -61,6 +62,7 @@ import static grakn.core.common.exception.ErrorMessage.ThingRead.SORT_VARIABLE_N
 import static grakn.core.common.iterator.Iterators.iterate;
 import static grakn.core.common.parameters.Arguments.Query.Producer.EXHAUSTIVE;
 import static grakn.core.common.parameters.Arguments.Query.Producer.INCREMENTAL;
+import static grakn.core.common.parameters.MemoryBudget.answerBytes;
 import static grakn.core.query.Matcher.Aggregator.aggregator;
 import static java.lang.Math.sqrt;
 import static java.util.stream.Collectors.groupingBy;
@@ -119,13 +121,16 @@ public class Matcher {
     ResourceIterator<ConceptMap> execute(Context.Query context) {
         ResourceIterator<ConceptMap> answers = reasoner.execute(disjunction, query.modifiers(), context);
         // TODO: we should remove these and handle them in the traversal engine or reasoner ONLY. Currently in reasoner already
-        if (query.modifiers().sort().isPresent()) answers = sort(answers, query.modifiers().sort().get());
+        if (query.modifiers().sort().isPresent()) {
+            answers = sort(answers, query.modifiers().sort().get(), context.options().memoryBudget());
+        }
         if (query.modifiers().offset().isPresent()) answers = answers.offset(query.modifiers().offset().get());
         if (query.modifiers().limit().isPresent()) answers = answers.limit(query.modifiers().limit().get());
         return answers;
     }
 
-    private ResourceIterator<ConceptMap> sort(ResourceIterator<ConceptMap> answers, Sortable.Sorting sorting) {
+    private ResourceIterator<ConceptMap> sort(ResourceIterator<ConceptMap> answers, Sortable.Sorting sorting,
+                                              MemoryBudget budget) {
         // TODO: Replace this temporary implementation of Graql Match Sort query with a native sorting traversal
         Reference.Name var = sorting.var().reference().asName();
         Comparator<ConceptMap> comparator = (answer1, answer2) -> {
@@ -161,7 +166,40 @@ public class Matcher {
             }
         };
         comparator = (sorting.order() == GraqlArg.Order.DESC) ? comparator.reversed() : comparator;
-        return iterate(answers.stream().sorted(comparator).iterator());
+        List<ConceptMap> sorted = materialise(answers, budget);
+        sorted.sort(comparator);
+        return iterate(sorted).onConsumed(() -> release(sorted, budget));
+    }
+
+    /**
+     * Collects the answers into a list, reserving their estimated memory
+     * against the given budget, which the caller releases once it no longer
+     * holds on to them. If the budget is exceeded, the answers are recycled
+     * and whatever was reserved so far is released before throwing.
+     */
+    static List<ConceptMap> materialise(ResourceIterator<ConceptMap> answers, MemoryBudget budget) {
+        List<ConceptMap> list = new ArrayList<>();
+        long reservedBytes = 0;
+        try {
+            while (answers.hasNext()) {
+                ConceptMap answer = answers.next();
+                long bytes = answerBytes(answer.concepts().size());
+                budget.reserve(bytes);
+                reservedBytes += bytes;
+                list.add(answer);
+            }
+        } catch (GraknException e) {
+            answers.recycle();
+            budget.release(reservedBytes);
+            throw e;
+        }
+        return list;
+    }
+
+    static void release(List<ConceptMap> answers, MemoryBudget budget) {
+        long bytes = 0;
+        for (ConceptMap answer : answers) bytes += answerBytes(answer.concepts().size());
+        budget.release(bytes);
     }
 
     public static class Aggregator {
@@ -596,10 +634,12 @@ public class Matcher {
 
         public ResourceIterator<ConceptMapGroup> execute() {
             // TODO: Replace this temporary implementation of Graql Match Group query with a native grouping traversal
+            MemoryBudget budget = context.options().memoryBudget();
+            List<ConceptMap> answers = materialise(matcher.execute(context), budget);
             List<ConceptMapGroup> answerGroups = new ArrayList<>();
-            matcher.execute(context).stream().collect(groupingBy(a -> a.get(query.var())))
+            answers.stream().collect(groupingBy(a -> a.get(query.var())))
                     .forEach((o, cm) -> answerGroups.add(new ConceptMapGroup(o, cm)));
-            return iterate(answerGroups);
+            return iterate(answerGroups).onConsumed(() -> release(answers, budget));
         }
 
         public static class Aggregator {
@@ -19,8 +19,10 @@
 package grakn.core.query;
 
 import grabl.tracing.client.GrablTracingThreadStatic.ThreadTrace;
+import grakn.common.collection.Either;
 import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.common.parameters.Context;
+import grakn.core.common.parameters.Label;
 import grakn.core.common.parameters.Options;
 import grakn.core.concept.ConceptManager;
 import grakn.core.concept.answer.ConceptMap;
@@ -29,6 +31,7 @@ import grakn.core.concept.answer.Numeric;
 import grakn.core.concept.answer.NumericGroup;
 import grakn.core.logic.LogicManager;
 import grakn.core.reasoner.Reasoner;
+import grakn.core.traversal.common.Identifier.Variable.Retrievable;
 import graql.lang.query.GraqlDefine;
 import graql.lang.query.GraqlDelete;
 import graql.lang.query.GraqlInsert;
@@ -38,11 +41,17 @@ import graql.lang.query.GraqlUpdate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 import static grabl.tracing.client.GrablTracingThreadStatic.traceOnThread;
 import static grakn.core.common.exception.ErrorMessage.Transaction.SESSION_DATA_VIOLATION;
 import static grakn.core.common.exception.ErrorMessage.Transaction.SESSION_SCHEMA_VIOLATION;
 import static grakn.core.common.exception.ErrorMessage.Transaction.TRANSACTION_DATA_READ_VIOLATION;
 import static grakn.core.common.exception.ErrorMessage.Transaction.TRANSACTION_SCHEMA_READ_VIOLATION;
+import static grakn.core.common.iterator.Iterators.iterate;
 
 public class QueryManager {
 
@@ -53,29 +62,60 @@ public class QueryManager {
     private final LogicManager logicMgr;
     private final Reasoner reasoner;
     private final ConceptManager conceptMgr;
-    private final Context.Query defaultContext;
-
-    public QueryManager(ConceptManager conceptMgr, LogicManager logicMgr, Reasoner reasoner, Context.Transaction context) {
+    private final Context.Transaction context;
+    private final ResultCache.Epoch resultCache;
+
+    /**
+     * @param resultCache the answers of the epoch of this transaction's snapshot, or null
+     *                    if the transaction may not share the answers of its read queries
+     */
+    public QueryManager(ConceptManager conceptMgr, LogicManager logicMgr, Reasoner reasoner,
+                        Context.Transaction context, @Nullable ResultCache.Epoch resultCache) {
         this.conceptMgr = conceptMgr;
         this.logicMgr = logicMgr;
         this.reasoner = reasoner;
-        this.defaultContext = new Context.Query(context, new Options.Query());
+        this.context = context;
+        this.resultCache = resultCache;
+    }
+
+    /**
+     * Returns the context of a query executed without one, which is new for
+     * every query, as the context holds the query's own cancellation.
+     */
+    private Context.Query defaultContext() {
+        return new Context.Query(context, new Options.Query());
     }
 
     public ResourceIterator<ConceptMap> match(GraqlMatch query) {
-        return match(query, defaultContext);
+        return match(query, defaultContext());
     }
 
     public ResourceIterator<ConceptMap> match(GraqlMatch query, Context.Query context) {
         try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "match")) {
-            return Matcher.create(reasoner, query, context).execute().onError(conceptMgr::exception);
+            if (!isCacheable(context)) {
+                return Matcher.create(reasoner, query, context).execute().onError(conceptMgr::exception);
+            }
+            Optional<List<Map<Retrievable, Either<Label, byte[]>>>> cached = resultCache.get(query);
+            if (cached.isPresent()) return iterate(cached.get()).map(conceptMgr::conceptMap).onError(conceptMgr::exception);
+            else return resultCache.record(query, Matcher.create(reasoner, query, context).execute())
+                    .onError(conceptMgr::exception);
         } catch (Exception exception) {
             throw conceptMgr.exception(exception);
         }
     }
 
+    /**
+     * Whether the answers of a match query may be shared with the other read
+     * transactions of the same snapshot: they must be plain answers, without
+     * inferred concepts, explanations or a profile of their execution.
+     */
+    private boolean isCacheable(Context.Query context) {
+        return resultCache != null && !context.options().infer() &&
+                !context.options().explain() && !context.options().profile();
+    }
+
     public Numeric match(GraqlMatch.Aggregate query) {
-        return match(query, defaultContext);
+        return match(query, defaultContext());
     }
 
     public Numeric match(GraqlMatch.Aggregate query, Context.Query queryContext) {
@@ -87,7 +127,7 @@ public class QueryManager {
     }
 
     public ResourceIterator<ConceptMapGroup> match(GraqlMatch.Group query) {
-        return match(query, defaultContext);
+        return match(query, defaultContext());
     }
 
     public ResourceIterator<ConceptMapGroup> match(GraqlMatch.Group query, Context.Query queryContext) {
@@ -99,7 +139,7 @@ public class QueryManager {
     }
 
     public ResourceIterator<NumericGroup> match(GraqlMatch.Group.Aggregate query) {
-        return match(query, defaultContext);
+        return match(query, defaultContext());
     }
 
     public ResourceIterator<NumericGroup> match(GraqlMatch.Group.Aggregate query, Context.Query queryContext) {
@@ -111,21 +151,23 @@ public class QueryManager {
     }
 
     public ResourceIterator<ConceptMap> insert(GraqlInsert query) {
-        return insert(query, defaultContext);
+        return insert(query, defaultContext());
     }
 
     public ResourceIterator<ConceptMap> insert(GraqlInsert query, Context.Query context) {
         if (context.sessionType().isSchema()) throw conceptMgr.exception(SESSION_SCHEMA_VIOLATION);
         if (context.transactionType().isRead()) throw conceptMgr.exception(TRANSACTION_DATA_READ_VIOLATION);
         try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "insert")) {
-            return Inserter.create(reasoner, conceptMgr, query, context).execute().onError(conceptMgr::exception);
+            ResourceIterator<ConceptMap> answers = Inserter.create(reasoner, conceptMgr, query, context).execute();
+            spillThings(context);
+            return answers.onError(conceptMgr::exception);
         } catch (Exception exception) {
             throw conceptMgr.exception(exception);
         }
     }
 
     public void delete(GraqlDelete query) {
-        delete(query, defaultContext);
+        delete(query, defaultContext());
     }
 
     public void delete(GraqlDelete query, Context.Query context) {
@@ -133,27 +175,39 @@ public class QueryManager {
         if (context.transactionType().isRead()) throw conceptMgr.exception(TRANSACTION_DATA_READ_VIOLATION);
         try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "delete")) {
             Deleter.create(reasoner, query, context).execute();
+            spillThings(context);
         } catch (Exception exception) {
             throw conceptMgr.exception(exception);
         }
     }
 
     public void update(GraqlUpdate query) {
-        update(query, defaultContext);
+        update(query, defaultContext());
     }
 
     public ResourceIterator<ConceptMap> update(GraqlUpdate query, Context.Query context) {
         if (context.sessionType().isSchema()) throw conceptMgr.exception(SESSION_SCHEMA_VIOLATION);
         if (context.transactionType().isRead()) throw conceptMgr.exception(TRANSACTION_DATA_READ_VIOLATION);
         try (ThreadTrace ignored = traceOnThread(TRACE_PREFIX + "update")) {
-            return Updater.create(reasoner, conceptMgr, query, context).execute().onError(conceptMgr::exception);
+            ResourceIterator<ConceptMap> answers = Updater.create(reasoner, conceptMgr, query, context).execute();
+            spillThings(context);
+            return answers.onError(conceptMgr::exception);
         } catch (Exception exception) {
             throw conceptMgr.exception(exception);
         }
     }
 
+    /**
+     * Spills the things buffered by the transaction, if they exceed its memory
+     * budget. Write queries are fully executed by the time they return, which
+     * makes the end of one the point where nothing is writing to the things.
+     */
+    private void spillThings(Context.Query context) {
+        conceptMgr.spillThings(context.options().transactionMemoryBudgetBytes());
+    }
+
     public void define(GraqlDefine query) {
-        define(query, defaultContext);
+        define(query, defaultContext());
     }
 
     public void define(GraqlDefine query, Context.Query context) {
@@ -167,7 +221,7 @@ public class QueryManager {
     }
 
     public void undefine(GraqlUndefine query) {
-        undefine(query, defaultContext);
+        undefine(query, defaultContext());
     }
 
     public void undefine(GraqlUndefine query, Context.Query context) {
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.query;
+
+import grakn.common.collection.Either;
+import grakn.core.common.cache.CommonCache;
+import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.common.parameters.Label;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.concept.thing.Thing;
+import grakn.core.concept.type.Type;
+import grakn.core.traversal.common.Identifier.Variable.Retrievable;
+import graql.lang.query.GraqlMatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import static grakn.core.common.parameters.MemoryBudget.answerBytes;
+
+/**
+ * A cache of the answers of read queries, shared by the transactions of a
+ * database, and bounded by the estimated bytes of the answers it holds.
+ *
+ * Answers are keyed by their query, and by the epoch of the snapshot that they
+ * were computed against: the number of data commits that it had seen. A
+ * transaction only reads and writes the answers of its own epoch, and only if
+ * no commit was in progress as it took its snapshot, so that it is only ever
+ * given the answers it would have computed itself. The cache is cleared by
+ * every data commit, as the answers of past epochs are of no use to the
+ * transactions opened afterwards.
+ *
+ * Answers are held as the labels of their types and the IIDs of their things,
+ * as concepts belong to the transaction that retrieved them, and the answers
+ * of a query are only cached once they have all been iterated.
+ */
+public class ResultCache {
+
+    private static final int ENTRY_FRACTION = 10;
+
+    private final CommonCache<Key, Answers> cache;
+    private final long entryBytes;
+
+    public ResultCache(long maxBytes) {
+        assert maxBytes > 0;
+        this.cache = new CommonCache<>(maxBytes, answers -> (int) Math.min(answers.bytes, Integer.MAX_VALUE));
+        this.entryBytes = maxBytes / ENTRY_FRACTION;
+    }
+
+    public Epoch epoch(long epoch) {
+        return new Epoch(epoch);
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public class Epoch {
+
+        private final long epoch;
+
+        private Epoch(long epoch) {
+            this.epoch = epoch;
+        }
+
+        Optional<List<Map<Retrievable, Either<Label, byte[]>>>> get(GraqlMatch query) {
+            Answers answers = cache.getIfPresent(new Key(query.toString(), epoch));
+            if (answers != null) return Optional.of(answers.answers);
+            else return Optional.empty();
+        }
+
+        /**
+         * Returns the given answers of the given query, and caches them once
+         * they have all been iterated, unless they overran the bytes that a
+         * single query may take up in the cache.
+         */
+        ResourceIterator<ConceptMap> record(GraqlMatch query, ResourceIterator<ConceptMap> answers) {
+            Answers recorded = new Answers();
+            return answers.map(answer -> {
+                recorded.add(answer);
+                return answer;
+            }).onConsumed(() -> {
+                if (recorded.answers != null) cache.put(new Key(query.toString(), epoch), recorded);
+            });
+        }
+    }
+
+    private class Answers {
+
+        private List<Map<Retrievable, Either<Label, byte[]>>> answers;
+        private long bytes;
+
+        private Answers() {
+            this.answers = new ArrayList<>();
+            this.bytes = 0;
+        }
+
+        private void add(ConceptMap answer) {
+            if (answers == null) return;
+            bytes += answerBytes(answer.concepts().size());
+            if (bytes > entryBytes) answers = null;
+            else answers.add(answer.toMap(Type::getLabel, Thing::getIID));
+        }
+    }
+
+    private static class Key {
+
+        private final String query;
+        private final long epoch;
+        private final int hash;
+
+        private Key(String query, long epoch) {
+            this.query = query;
+            this.epoch = epoch;
+            this.hash = Objects.hash(query, epoch);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key that = (Key) o;
+            return this.epoch == that.epoch && this.query.equals(that.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
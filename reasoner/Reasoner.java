@@ -21,9 +21,12 @@ package grakn.core.reasoner;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.Iterators;
 import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.common.parameters.Cancellation;
 import grakn.core.common.parameters.Context;
 import grakn.core.common.parameters.Label;
+import grakn.core.common.parameters.MemoryBudget;
 import grakn.core.common.parameters.Options;
+import grakn.core.concept.Concept;
 import grakn.core.concept.ConceptManager;
 import grakn.core.concept.answer.ConceptMap;
 import grakn.core.concept.thing.Thing;
@@ -34,6 +37,8 @@ import grakn.core.logic.LogicManager;
 import grakn.core.pattern.Conjunction;
 import grakn.core.pattern.Disjunction;
 import grakn.core.pattern.Negation;
+import grakn.core.pattern.constraint.thing.ValueConstraint;
+import grakn.core.pattern.variable.ThingVariable;
 import grakn.core.pattern.variable.Variable;
 import grakn.core.reasoner.resolution.ResolutionRecorder;
 import grakn.core.reasoner.resolution.ResolverRegistry;
@@ -43,14 +48,23 @@ import graql.lang.query.GraqlMatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 import static grakn.common.collection.Collections.list;
 import static grakn.common.collection.Collections.set;
 import static grakn.core.common.exception.ErrorMessage.Pattern.UNSATISFIABLE_CONJUNCTION;
+import static grakn.core.common.exception.ErrorMessage.Transaction.QUERY_MEMORY_EXCEEDED;
+import static grakn.core.common.exception.ErrorMessage.Transaction.SERVER_MEMORY_EXCEEDED;
+import static grakn.core.common.iterator.Iterators.cancellable;
 import static grakn.core.common.iterator.Iterators.iterate;
 import static grakn.core.common.parameters.Arguments.Query.Producer.EXHAUSTIVE;
+import static grakn.core.common.parameters.MemoryBudget.answerBytes;
 import static grakn.core.concurrent.common.Executors.PARALLELISATION_FACTOR;
 import static grakn.core.concurrent.common.Executors.asyncPool1;
 import static grakn.core.concurrent.common.Executors.eventLoopGroup;
@@ -58,6 +72,9 @@ import static grakn.core.concurrent.producer.Producers.produce;
 
 public class Reasoner {
     private static final Logger LOG = LoggerFactory.getLogger(Reasoner.class);
+    private static final int ANTI_JOIN_THRESHOLD = 64;
+    private static final int ANTI_JOIN_MAX_ANSWERS = 100_000;
+    private static final long COMMON_MAX_ANSWERS = 1_000;
 
     private final TraversalEngine traversalEng;
     private final ConceptManager conceptMgr;
@@ -71,7 +88,8 @@ public class Reasoner {
         this.conceptMgr = conceptMgr;
         this.traversalEng = traversalEng;
         this.logicMgr = logicMgr;
-        this.defaultContext = new Context.Query(context, new Options.Query());
+        // negations are checked within the queries that contain them, which check their own cancellation
+        this.defaultContext = new Context.Query(context, new Options.Query().cancellation(Cancellation.NONE));
         this.defaultContext.producer(EXHAUSTIVE);
         this.resolutionRecorder = Actor.create(eventLoopGroup(), ResolutionRecorder::new);
         this.resolverRegistry = new ResolverRegistry(eventLoopGroup(), resolutionRecorder, traversalEng, conceptMgr,
@@ -93,14 +111,22 @@ public class Reasoner {
             }
         });
 
-        if (isInfer(disjunction, context)) return resolve(disjunction, modifiers, context);
+        Cancellation cancellation = context.options().cancellation();
+        if (isInfer(disjunction, context)) return cancellable(resolve(disjunction, modifiers, context), cancellation);
 
         ResourceIterator<ConceptMap> answers;
         ResourceIterator<Conjunction> conjs = iterate(disjunction.conjunctions());
-        if (!context.options().parallel()) answers = conjs.flatMap(conj -> iterator(conj, filter, context));
-        else answers = produce(conjs.map(c -> producer(c, filter, context)).toList(), context.producer(), asyncPool1());
-        if (disjunction.conjunctions().size() > 1) answers = answers.distinct();
-        return answers;
+        if (disjunction.common().isPresent() && isSelective(disjunction.common().get())) {
+            answers = iterator(disjunction.common().get(), disjunction.remainders(), filter, context);
+        } else if (!context.options().parallel()) {
+            answers = conjs.flatMap(conj -> iterator(conj, filter, context));
+        } else {
+            answers = produce(conjs.map(c -> producer(c, filter, context)).toList(), context.producer(), asyncPool1());
+        }
+        if (disjunction.conjunctions().size() > 1) {
+            answers = answers.distinct(context.options().memoryBudget(), a -> answerBytes(a.concepts().size()));
+        }
+        return cancellable(answers, cancellation);
     }
 
     private boolean isInfer(Disjunction disjunction, Context.Query context) {
@@ -145,14 +171,23 @@ public class Reasoner {
      * @param disjunction - the disjunction to recursively apply type resolver to
      */
     private void resolveTypes(Disjunction disjunction, List<Conjunction> scopingConjunctions) {
-        for (Conjunction conjunction : disjunction.conjunctions()) {
-            logicMgr.typeResolver().resolve(conjunction, scopingConjunctions);
-            for (Negation negation : conjunction.negations()) {
-                resolveTypes(negation.disjunction(), list(scopingConjunctions, conjunction));
+        for (Conjunction conjunction : disjunction.conjunctions()) resolveTypes(conjunction, scopingConjunctions);
+        if (disjunction.common().isPresent()) {
+            Conjunction common = disjunction.common().get();
+            resolveTypes(common, scopingConjunctions);
+            for (Conjunction remainder : disjunction.remainders()) {
+                resolveTypes(remainder, list(scopingConjunctions, common));
             }
         }
     }
 
+    private void resolveTypes(Conjunction conjunction, List<Conjunction> scopingConjunctions) {
+        logicMgr.typeResolver().resolve(conjunction, scopingConjunctions);
+        for (Negation negation : conjunction.negations()) {
+            resolveTypes(negation.disjunction(), list(scopingConjunctions, conjunction));
+        }
+    }
+
     private boolean isSchemaQuery(Conjunction conjunction, Set<Identifier.Variable.Name> filter) {
         return !filter.isEmpty() && iterate(filter).noneMatch(id -> conjunction.variable(id).isThing())
                 || iterate(conjunction.variables()).noneMatch(Variable::isThing);
@@ -163,37 +198,87 @@ public class Reasoner {
     private Producer<ConceptMap> producer(Conjunction conjunction, Set<Identifier.Variable.Name> filter,
                                           Context.Query context) {
         Producer<ConceptMap> producer = traversalEng.producer(
-                conjunction.traversal(filter), context.producer(), PARALLELISATION_FACTOR
+                conjunction.traversal(filter), context.producer(), PARALLELISATION_FACTOR, context.options()
         ).map(conceptMgr::conceptMap);
 
         if (conjunction.negations().isEmpty()) return producer;
-        else return producer.filter(answer -> !iterate(conjunction.negations())
-                .flatMap(negation -> iterator(negation.disjunction(), answer)).hasNext()
-        );
+        NegationFilter negationFilter = new NegationFilter(conjunction.negations(), context);
+        return producer.filter(negationFilter).onRecycle(negationFilter::release);
     }
 
-    private ResourceIterator<ConceptMap> iterator(Disjunction disjunction, ConceptMap bounds) {
-        if (disjunction.conjunctions().isEmpty()) return Iterators.empty();
-        return iterate(disjunction.conjunctions()).flatMap(c -> iterator(c, bounds));
+    /**
+     * Returns true if the patterns common to every conjunction of a disjunction
+     * are estimated to have few enough answers that matching the remainder of
+     * every conjunction bound to each of them, one after the other, is cheaper
+     * than matching every conjunction on its own, in parallel if allowed. This
+     * is the case when one of its things is identified by an IID or a value,
+     * or when there are at most {@code COMMON_MAX_ANSWERS} instances of the
+     * types of one of its things.
+     */
+    private boolean isSelective(Conjunction common) {
+        if (!common.isSatisfiable()) return false;
+        for (Variable var : common.variables()) {
+            if (!var.isThing()) continue;
+            ThingVariable thing = var.asThing();
+            if (thing.iid().isPresent() || iterate(thing.value()).anyMatch(ValueConstraint::isValueIdentity)) {
+                return true;
+            } else if (!var.resolvedTypes().isEmpty() &&
+                    traversalEng.graph().data().stats().thingVertexSum(var.resolvedTypes()) <= COMMON_MAX_ANSWERS) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private ResourceIterator<ConceptMap> iterator(Conjunction conjunction, ConceptMap bounds) {
-        return iterator(bound(conjunction, bounds));
+    /**
+     * Matches the patterns common to every conjunction of a disjunction once,
+     * and then matches the remainder of each conjunction bound to each of the
+     * common answers, so that the common patterns are not traversed again for
+     * every conjunction of the disjunction.
+     */
+    private ResourceIterator<ConceptMap> iterator(Conjunction common, List<Conjunction> remainders,
+                                                  Set<Identifier.Variable.Name> filter, Context.Query context) {
+        Set<Identifier.Variable.Name> commonFilter = iterate(common.identifiers())
+                .filter(Identifier::isName).map(Identifier.Variable::asName).toSet();
+        ResourceIterator<ConceptMap> commonAnswers;
+        if (!context.options().parallel()) commonAnswers = iterator(common, commonFilter, context);
+        else commonAnswers = produce(producer(common, commonFilter, context), context.producer(), asyncPool1());
+        ResourceIterator<ConceptMap> answers = commonAnswers.flatMap(commonAnswer -> iterate(remainders).flatMap(
+                remainder -> iterator(remainder, commonAnswer, context).map(answer -> merge(commonAnswer, answer))
+        ));
+        if (filter.isEmpty()) return answers;
+        else return answers.map(answer -> answer.filter(filter));
     }
 
-    private ResourceIterator<ConceptMap> iterator(Conjunction conjunction) {
-        return iterator(conjunction, set(), defaultContext);
+    private static ConceptMap merge(ConceptMap first, ConceptMap second) {
+        Map<Identifier.Variable.Retrievable, Concept> merged = new HashMap<>(first.concepts());
+        merged.putAll(second.concepts());
+        return new ConceptMap(merged);
+    }
+
+    private ResourceIterator<ConceptMap> iterator(Conjunction conjunction, ConceptMap bounds, Context.Query context) {
+        Conjunction bound = bound(conjunction, bounds);
+        if (!bound.isSatisfiable()) return Iterators.empty();
+        ResourceIterator<ConceptMap> answers = traversalEng.iterator(
+                bound.traversal(set()), context.options().cancellation(), context.options().memoryBudget()
+        ).map(conceptMgr::conceptMap);
+        return filterNegations(answers, bound, context);
     }
 
     private ResourceIterator<ConceptMap> iterator(Conjunction conjunction, Set<Identifier.Variable.Name> filter,
                                                   Context.Query context) {
         if (!conjunction.isSatisfiable()) return Iterators.empty();
-        ResourceIterator<ConceptMap> answers = traversalEng.iterator(conjunction.traversal(filter))
-                .map(conceptMgr::conceptMap);
+        ResourceIterator<ConceptMap> answers = traversalEng.iterator(
+                conjunction.traversal(filter), context.options()
+        ).map(conceptMgr::conceptMap);
+        return filterNegations(answers, conjunction, context);
+    }
+
+    private ResourceIterator<ConceptMap> filterNegations(ResourceIterator<ConceptMap> answers, Conjunction conjunction,
+                                                         Context.Query context) {
         if (conjunction.negations().isEmpty()) return answers;
-        else return answers.filter(answer -> !iterate(conjunction.negations()).flatMap(
-                negation -> iterator(negation.disjunction(), answer)
-        ).hasNext());
+        NegationFilter negationFilter = new NegationFilter(conjunction.negations(), context);
+        return answers.filter(negationFilter).onConsumed(negationFilter::release);
     }
 
     private Conjunction bound(Conjunction conjunction, ConceptMap bounds) {
@@ -201,4 +286,127 @@ public class Reasoner {
         newClone.bound(bounds.toMap(Type::getLabel, Thing::getIID));
         return newClone;
     }
+
+    /**
+     * Accepts the answers that match none of the negated conjunctions of the
+     * negations of a conjunction.
+     *
+     * Each answer is first checked on its own, by matching every negated
+     * conjunction bound to the answer. Once a negated conjunction has been
+     * checked for {@code ANTI_JOIN_THRESHOLD} answers, it is matched once more,
+     * unbound, and the values of its answers for the variables it shares with
+     * the answers being filtered are collected into a set, against which every
+     * later answer is checked with a single lookup. If the negated conjunction
+     * has more than {@code ANTI_JOIN_MAX_ANSWERS} answers, or if the set does
+     * not fit in the memory budget of the query, the set is dropped, and
+     * answers go on being checked one by one. The memory reserved for the sets
+     * is released once the answers being filtered are exhausted, or else with
+     * the budget of the transaction.
+     */
+    private class NegationFilter implements Predicate<ConceptMap> {
+
+        private final List<Negated> negated;
+        private final Context.Query context;
+
+        private NegationFilter(Set<Negation> negations, Context.Query context) {
+            this.negated = iterate(negations).flatMap(negation -> iterate(negation.disjunction().conjunctions()))
+                    .map(Negated::new).toList();
+            this.context = context;
+        }
+
+        @Override
+        public boolean test(ConceptMap answer) {
+            for (Negated conjunction : negated) {
+                if (conjunction.matches(answer)) return false;
+            }
+            return true;
+        }
+
+        private void release() {
+            negated.forEach(Negated::release);
+        }
+
+        private class Negated {
+
+            private final Conjunction conjunction;
+            private final AtomicInteger checks;
+            private volatile Set<ConceptMap> answers;
+            private volatile Set<Identifier.Variable.Name> shared;
+            private volatile boolean isMaterialisable;
+            private long reservedBytes;
+
+            private Negated(Conjunction conjunction) {
+                this.conjunction = conjunction;
+                this.checks = new AtomicInteger(0);
+                this.answers = null;
+                this.shared = null;
+                this.isMaterialisable = true;
+                this.reservedBytes = 0;
+            }
+
+            private boolean matches(ConceptMap answer) {
+                if (answers == null && isMaterialisable && checks.incrementAndGet() > ANTI_JOIN_THRESHOLD) {
+                    materialise(answer);
+                }
+                Set<ConceptMap> answers = this.answers;
+                if (answers != null) return answers.contains(answer.filter(shared));
+                ResourceIterator<ConceptMap> iterator = iterator(conjunction, answer, context);
+                try {
+                    return iterator.hasNext();
+                } finally {
+                    iterator.recycle();
+                }
+            }
+
+            private synchronized void materialise(ConceptMap answer) {
+                if (answers != null || !isMaterialisable) return;
+                Set<Identifier.Variable.Name> shared = iterate(conjunction.identifiers())
+                        .filter(id -> id.isName() && answer.contains(id.asName())).map(Identifier.Variable::asName)
+                        .toSet();
+                Set<ConceptMap> answers = new HashSet<>();
+                MemoryBudget budget = context.options().memoryBudget();
+                ResourceIterator<ConceptMap> iterator = iterator(conjunction, new ConceptMap(), context);
+                try {
+                    while (iterator.hasNext()) {
+                        ConceptMap sharedAnswer = iterator.next().filter(shared);
+                        if (answers.contains(sharedAnswer)) continue;
+                        if (answers.size() == ANTI_JOIN_MAX_ANSWERS) {
+                            abandon(iterator, budget);
+                            return;
+                        }
+                        long bytes = answerBytes(sharedAnswer.concepts().size());
+                        budget.reserve(bytes);
+                        reservedBytes += bytes;
+                        answers.add(sharedAnswer);
+                    }
+                } catch (GraknException e) {
+                    // without the memory for the set, answers can still be checked one by one
+                    if (!isMemoryExceeded(e)) throw e;
+                    abandon(iterator, budget);
+                    return;
+                }
+                this.shared = shared;
+                this.answers = answers;
+            }
+
+            private void abandon(ResourceIterator<ConceptMap> iterator, MemoryBudget budget) {
+                iterator.recycle();
+                budget.release(reservedBytes);
+                reservedBytes = 0;
+                isMaterialisable = false;
+            }
+
+            private boolean isMemoryExceeded(GraknException e) {
+                return e.code().isPresent() && (e.code().get().equals(QUERY_MEMORY_EXCEEDED.code()) ||
+                        e.code().get().equals(SERVER_MEMORY_EXCEEDED.code()));
+            }
+
+            private synchronized void release() {
+                isMaterialisable = false;
+                answers = null;
+                context.options().memoryBudget().release(reservedBytes);
+                reservedBytes = 0;
+            }
+        }
+    }
 }
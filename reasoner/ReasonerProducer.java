@@ -117,6 +117,7 @@ public class ReasonerProducer implements Producer<ConceptMap> {
     }
 
     private void requestAnswered(Top resolutionAnswer) {
+        if (done) return;
         if (options.traceInference()) ResolutionTracer.get().finish();
         if (resolutionAnswer.requiresReiteration()) requiredReiteration = true;
         queue.put(resolutionAnswer.conceptMap());
@@ -142,6 +143,19 @@ public class ReasonerProducer implements Producer<ConceptMap> {
         }
     }
 
+    /**
+     * Stops sending requests to the resolvers once the query is cancelled or
+     * times out. The resolvers are shared by every query of the transaction,
+     * so the requests they are already processing are left to complete, and
+     * their answers are dropped.
+     */
+    private void cancel() {
+        if (done) return;
+        done = true;
+        required.set(0);
+        queue.done(options.cancellation().exception());
+    }
+
     private void prepareNextIteration() {
         iteration++;
         requiredReiteration = false;
@@ -166,6 +180,10 @@ public class ReasonerProducer implements Producer<ConceptMap> {
     }
 
     private void requestAnswer() {
+        if (options.cancellation().isCancelled()) {
+            cancel();
+            return;
+        }
         if (options.traceInference()) ResolutionTracer.get().start();
         rootResolver.tell(actor -> actor.receiveRequest(resolveRequest, iteration));
     }
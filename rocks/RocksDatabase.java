@@ -25,9 +25,11 @@ import grakn.core.common.exception.GraknException;
 import grakn.core.common.parameters.Arguments;
 import grakn.core.common.parameters.Options;
 import grakn.core.graph.SchemaGraph;
+import grakn.core.graph.common.AttributeFilter;
 import grakn.core.graph.common.Encoding;
 import grakn.core.graph.common.KeyGenerator;
 import grakn.core.logic.LogicCache;
+import grakn.core.query.ResultCache;
 import grakn.core.traversal.TraversalCache;
 import org.rocksdb.OptimisticTransactionDB;
 import org.rocksdb.RocksDBException;
@@ -35,6 +37,7 @@ import org.rocksdb.Status;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
@@ -45,6 +48,7 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.StampedLock;
 import java.util.stream.Stream;
 
@@ -53,6 +57,7 @@ import static grakn.core.common.exception.ErrorMessage.Internal.DIRTY_INITIALISA
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
 import static grakn.core.common.exception.ErrorMessage.Internal.UNEXPECTED_INTERRUPTION;
 import static grakn.core.common.exception.ErrorMessage.Session.SCHEMA_ACQUIRE_LOCK_TIMEOUT;
+import static grakn.core.common.parameters.Arguments.Session.Type.DATA;
 import static grakn.core.common.parameters.Arguments.Session.Type.SCHEMA;
 import static grakn.core.common.parameters.Arguments.Transaction.Type.WRITE;
 import static java.util.Comparator.reverseOrder;
@@ -70,9 +75,13 @@ public class RocksDatabase implements Grakn.Database {
     protected RocksSession.Data statisticsBackgroundCounterSession;
     protected final KeyGenerator.Schema.Persisted schemaKeyGenerator;
     protected final KeyGenerator.Data.Persisted dataKeyGenerator;
+    protected final AttributeFilter attributeFilter;
+    protected final RocksPlanStore planStore;
     private final StampedLock schemaLock;
     private final RocksGrakn grakn;
     private final AtomicInteger schemaLockWriteRequests;
+    private final AtomicLong dataEpoch;
+    private final AtomicInteger dataCommitsInProgress;
     private Cache cache;
 
     private final Factory.Session sessionFactory;
@@ -84,9 +93,12 @@ public class RocksDatabase implements Grakn.Database {
         this.sessionFactory = sessionFactory;
         schemaKeyGenerator = new KeyGenerator.Schema.Persisted();
         dataKeyGenerator = new KeyGenerator.Data.Persisted();
+        attributeFilter = new AttributeFilter();
         sessions = new ConcurrentHashMap<>();
         schemaLock = new StampedLock();
         schemaLockWriteRequests = new AtomicInteger(0);
+        dataEpoch = new AtomicLong(0);
+        dataCommitsInProgress = new AtomicInteger(0);
 
         try {
             String schemaDirPath = directory().resolve(Encoding.ROCKS_SCHEMA).toString();
@@ -96,6 +108,7 @@ public class RocksDatabase implements Grakn.Database {
         } catch (RocksDBException e) {
             throw GraknException.of(e);
         }
+        planStore = new RocksPlanStore(rocksSchema);
         isOpen = new AtomicBoolean(true);
     }
 
@@ -108,6 +121,7 @@ public class RocksDatabase implements Grakn.Database {
 
         RocksDatabase database = new RocksDatabase(grakn, name, sessionFactory);
         database.initialise();
+        database.indexRolePlayers();
         database.statisticsBgCounterStart();
         return database;
     }
@@ -115,6 +129,7 @@ public class RocksDatabase implements Grakn.Database {
     static RocksDatabase loadAndOpen(RocksGrakn grakn, String name, Factory.Session sessionFactory) {
         RocksDatabase database = new RocksDatabase(grakn, name, sessionFactory);
         database.load();
+        database.indexRolePlayers();
         database.statisticsBgCounterStart();
         return database;
     }
@@ -134,6 +149,22 @@ public class RocksDatabase implements Grakn.Database {
             try (RocksTransaction.Schema txn = session.initialisationTransaction()) {
                 schemaKeyGenerator.sync(txn.schemaStorage());
                 dataKeyGenerator.sync(txn.schemaStorage(), txn.dataStorage());
+                attributeFilter.sync(txn.schemaStorage(), txn.dataStorage());
+            }
+        }
+    }
+
+    /**
+     * Builds the role player index of a database that was created before the
+     * index existed, before the database accepts any transactions. This only
+     * happens once, as the index is maintained by every commit thereafter.
+     */
+    protected void indexRolePlayers() {
+        try (RocksSession.Data session = createAndOpenSession(DATA, new Options.Session()).asData()) {
+            try (RocksTransaction.Data txn = session.transaction(WRITE)) {
+                if (txn.graphMgr.data().isRolePlayerIndexed()) return;
+                txn.graphMgr.data().indexRolePlayers();
+                txn.commit();
             }
         }
     }
@@ -190,6 +221,35 @@ public class RocksDatabase implements Grakn.Database {
         if (cache != null) cache.close();
     }
 
+    private synchronized void resultCacheClear() {
+        if (cache != null && cache.results() != null) cache.results().clear();
+    }
+
+    /**
+     * Returns the number of data commits of this database so far. A transaction
+     * reads it before taking its snapshot, and then checks that the snapshot
+     * holds the data of exactly that many commits with {@link #isDataEpoch(long)}.
+     */
+    long dataEpoch() {
+        return dataEpoch.get();
+    }
+
+    boolean isDataEpoch(long epoch) {
+        // a commit that made it into the snapshot is either still in progress, or has moved the epoch on
+        return dataCommitsInProgress.get() == 0 && dataEpoch.get() == epoch;
+    }
+
+    void commitData(RocksStorage.Data dataStorage) throws RocksDBException {
+        dataCommitsInProgress.incrementAndGet();
+        try {
+            dataStorage.commit();
+        } finally {
+            dataEpoch.incrementAndGet();
+            dataCommitsInProgress.decrementAndGet();
+            resultCacheClear();
+        }
+    }
+
     protected void statisticsBgCounterStart() {
         assert statisticsBackgroundCounterSession == null;
         assert statisticsBackgroundCounter == null;
@@ -232,6 +292,10 @@ public class RocksDatabase implements Grakn.Database {
         return dataKeyGenerator;
     }
 
+    AttributeFilter attributeFilter() {
+        return attributeFilter;
+    }
+
     /**
      * Get the lock that guarantees that the schema is not modified at the same
      * time as data being written to the database. When a schema session is
@@ -287,6 +351,7 @@ public class RocksDatabase implements Grakn.Database {
         sessions.values().forEach(p -> p.first().close());
         statisticsBgCounterStop();
         cacheClose();
+        planStore.close();
         rocksData.close();
         rocksSchema.close();
     }
@@ -306,6 +371,7 @@ public class RocksDatabase implements Grakn.Database {
 
         private final TraversalCache traversalCache;
         private final LogicCache logicCache;
+        private final ResultCache resultCache;
         private final SchemaGraph schemaGraph;
         private final RocksStorage schemaStorage;
         private long borrowerCount;
@@ -314,8 +380,10 @@ public class RocksDatabase implements Grakn.Database {
         private Cache(RocksDatabase database) {
             schemaStorage = new RocksStorage.Cache(database.rocksSchema());
             schemaGraph = new SchemaGraph(schemaStorage, true);
-            traversalCache = new TraversalCache();
+            traversalCache = new TraversalCache(database.planStore.load(schemaStorage, schemaGraph.version()));
             logicCache = new LogicCache();
+            long resultCacheBytes = database.options().resultCacheBytes();
+            resultCache = resultCacheBytes > 0 ? new ResultCache(resultCacheBytes) : null;
             borrowerCount = 0L;
             invalidated = false;
         }
@@ -328,6 +396,11 @@ public class RocksDatabase implements Grakn.Database {
             return logicCache;
         }
 
+        @Nullable
+        public ResultCache results() {
+            return resultCache;
+        }
+
         public SchemaGraph schemaGraph() {
             return schemaGraph;
         }
@@ -20,14 +20,18 @@ package grakn.core.rocks;
 
 import grakn.core.common.iterator.AbstractResourceIterator;
 
+import javax.annotation.Nullable;
 import java.util.NoSuchElementException;
 import java.util.function.BiFunction;
 
 import static grakn.core.common.collection.Bytes.bytesHavePrefix;
+import static grakn.core.common.collection.Bytes.compareBytes;
 
 public final class RocksIterator<T> extends AbstractResourceIterator<T> implements AutoCloseable {
 
     private final byte[] prefix;
+    private final byte[] from;
+    private final byte[] to;
     private final RocksStorage storage;
     private final BiFunction<byte[], byte[], T> constructor;
     private org.rocksdb.RocksIterator internalRocksIterator;
@@ -37,8 +41,16 @@ public final class RocksIterator<T> extends AbstractResourceIterator<T> implemen
     private enum State {INIT, EMPTY, FETCHED, COMPLETED}
 
     RocksIterator(RocksStorage storage, byte[] prefix, BiFunction<byte[], byte[], T> constructor) {
+        this(storage, prefix, prefix, null, constructor);
+    }
+
+    RocksIterator(RocksStorage storage, byte[] prefix, byte[] from, @Nullable byte[] to,
+                  BiFunction<byte[], byte[], T> constructor) {
+        assert bytesHavePrefix(from, prefix);
         this.storage = storage;
         this.prefix = prefix;
+        this.from = from;
+        this.to = to;
         this.constructor = constructor;
         state = State.INIT;
     }
@@ -74,7 +86,7 @@ public final class RocksIterator<T> extends AbstractResourceIterator<T> implemen
     private synchronized boolean initialiseAndCheck() {
         if (state != State.COMPLETED) {
             this.internalRocksIterator = storage.getInternalRocksIterator();
-            this.internalRocksIterator.seek(prefix);
+            this.internalRocksIterator.seek(from);
             state = State.EMPTY;
             return hasValidNext();
         } else {
@@ -93,7 +105,8 @@ public final class RocksIterator<T> extends AbstractResourceIterator<T> implemen
 
     private synchronized boolean hasValidNext() {
         byte[] key;
-        if (!internalRocksIterator.isValid() || !bytesHavePrefix(key = internalRocksIterator.key(), prefix)) {
+        if (!internalRocksIterator.isValid() || !bytesHavePrefix(key = internalRocksIterator.key(), prefix) ||
+                (to != null && compareBytes(key, to) > 0)) {
             recycle();
             return false;
         }
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.rocks;
+
+import grakn.core.common.exception.GraknException;
+import grakn.core.traversal.TraversalCache;
+import grakn.core.traversal.planner.GraphPlanner;
+import org.rocksdb.OptimisticTransactionDB;
+import org.rocksdb.RocksDBException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static grakn.common.collection.Collections.pair;
+import static grakn.core.common.collection.Bytes.INTEGER_SIZE;
+import static grakn.core.common.collection.Bytes.bytesHavePrefix;
+import static grakn.core.graph.common.SystemBytes.traversalPlanKey;
+import static grakn.core.graph.common.SystemBytes.traversalPlanPrefix;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.copyOfRange;
+
+/**
+ * Persists optimised traversal plans in the schema store, so that planning
+ * does not have to start over when a database is reopened. Plans are keyed by
+ * the schema version they were optimised against, followed by the hash of the
+ * fingerprint of their structure. The fingerprint itself is stored alongside
+ * the plan, to tell apart structures whose fingerprints collide.
+ *
+ * Plans are written straight into the schema database rather than through a
+ * transaction: they are only a cache, so they need not be atomic with anything,
+ * and they must not conflict with concurrent schema transactions.
+ */
+class RocksPlanStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RocksPlanStore.class);
+
+    private final OptimisticTransactionDB rocksSchema;
+    private boolean isOpen;
+
+    RocksPlanStore(OptimisticTransactionDB rocksSchema) {
+        this.rocksSchema = rocksSchema;
+        this.isOpen = true;
+    }
+
+    /**
+     * Loads the plans that were optimised against the given schema version,
+     * and deletes those that were optimised against any other version, as
+     * the version of a database's schema only ever increases.
+     *
+     * @param storage       the storage to read the schema store from
+     * @param schemaVersion the version of the schema in the given storage
+     * @return a store of the plans for the given schema version
+     */
+    TraversalCache.PlanStore load(RocksStorage storage, long schemaVersion) {
+        Version version = new Version(schemaVersion);
+        byte[] versionPrefix = traversalPlanPrefix(schemaVersion);
+        storage.iterate(traversalPlanPrefix(), (key, value) -> pair(key, value)).forEachRemaining(entry -> {
+            if (bytesHavePrefix(entry.first(), versionPrefix)) version.load(entry.second());
+            else delete(entry.first());
+        });
+        return version;
+    }
+
+    private synchronized void put(byte[] key, byte[] value) {
+        if (!isOpen) return;
+        try {
+            rocksSchema.put(key, value);
+        } catch (RocksDBException e) {
+            LOG.warn("Failed to persist a traversal plan", e);
+        }
+    }
+
+    private synchronized void delete(byte[] key) {
+        if (!isOpen) return;
+        try {
+            rocksSchema.delete(key);
+        } catch (RocksDBException e) {
+            LOG.warn("Failed to delete an outdated traversal plan", e);
+        }
+    }
+
+    /**
+     * Stops any further writes, which may still come from planners optimising
+     * in the background, before the schema database is closed.
+     */
+    synchronized void close() {
+        isOpen = false;
+    }
+
+    private class Version implements TraversalCache.PlanStore {
+
+        private final long schemaVersion;
+        private final ConcurrentMap<String, GraphPlanner.Plan> plans;
+
+        private Version(long schemaVersion) {
+            this.schemaVersion = schemaVersion;
+            this.plans = new ConcurrentHashMap<>();
+        }
+
+        private void load(byte[] value) {
+            ByteBuffer buffer = ByteBuffer.wrap(value);
+            int length = buffer.getInt();
+            String fingerprint = new String(value, INTEGER_SIZE, length, UTF_8);
+            plans.put(fingerprint, GraphPlanner.Plan.of(copyOfRange(value, INTEGER_SIZE + length, value.length)));
+        }
+
+        @Override
+        public Optional<GraphPlanner.Plan> get(String fingerprint) {
+            return Optional.ofNullable(plans.get(fingerprint));
+        }
+
+        @Override
+        public void put(String fingerprint, GraphPlanner.Plan plan) {
+            plans.put(fingerprint, plan);
+            byte[] fingerprintBytes = fingerprint.getBytes(UTF_8);
+            byte[] planBytes = plan.bytes();
+            ByteBuffer value = ByteBuffer.allocate(INTEGER_SIZE + fingerprintBytes.length + planBytes.length);
+            value.putInt(fingerprintBytes.length).put(fingerprintBytes).put(planBytes);
+            RocksPlanStore.this.put(traversalPlanKey(schemaVersion, hash(fingerprintBytes)), value.array());
+        }
+
+        private byte[] hash(byte[] fingerprint) {
+            try {
+                return MessageDigest.getInstance("SHA-256").digest(fingerprint);
+            } catch (NoSuchAlgorithmException e) {
+                throw GraknException.of(e);
+            }
+        }
+    }
+}
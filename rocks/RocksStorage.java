@@ -22,6 +22,8 @@ import grakn.core.common.exception.ErrorMessage;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.concurrent.common.ConcurrentSet;
+import grakn.core.concurrent.common.Executors;
+import grakn.core.graph.common.AttributeFilter;
 import grakn.core.graph.common.KeyGenerator;
 import grakn.core.graph.common.Storage;
 import org.rocksdb.AbstractImmutableNativeReference;
@@ -31,12 +33,17 @@ import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.Snapshot;
 import org.rocksdb.Transaction;
+import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -181,8 +188,14 @@ public abstract class RocksStorage implements Storage {
 
         @Override
         public <G> ResourceIterator<G> iterate(byte[] key, BiFunction<byte[], byte[], G> constructor) {
+            return iterate(key, key, null, constructor);
+        }
+
+        @Override
+        public <G> ResourceIterator<G> iterate(byte[] key, byte[] from, @Nullable byte[] to,
+                                               BiFunction<byte[], byte[], G> constructor) {
             assert isOpen();
-            RocksIterator<G> iterator = new RocksIterator<>(this, key, constructor);
+            RocksIterator<G> iterator = new RocksIterator<>(this, key, from, to, constructor);
             iterators.add(iterator);
             return iterator.onFinalise(iterator::close);
         }
@@ -246,8 +259,14 @@ public abstract class RocksStorage implements Storage {
 
         @Override
         public <G> ResourceIterator<G> iterate(byte[] key, BiFunction<byte[], byte[], G> constructor) {
+            return iterate(key, key, null, constructor);
+        }
+
+        @Override
+        public <G> ResourceIterator<G> iterate(byte[] key, byte[] from, @Nullable byte[] to,
+                                               BiFunction<byte[], byte[], G> constructor) {
             if (!isOpen()) throw GraknException.of(TRANSACTION_CLOSED);
-            RocksIterator<G> iterator = new RocksIterator<>(this, key, constructor);
+            RocksIterator<G> iterator = new RocksIterator<>(this, key, from, to, constructor);
             iterators.add(iterator);
             if (!isOpen()) throw GraknException.of(TRANSACTION_CLOSED); //guard against close() race conditions
             return iterator;
@@ -316,16 +335,40 @@ public abstract class RocksStorage implements Storage {
                 if (transaction.isOpen()) readWriteLock.writeLock().unlock();
             }
         }
+
+        @Override
+        public void mergeUntracked(byte[] key, byte[] value) {
+            assert isOpen() && !isReadOnly;
+            try {
+                if (transaction.isOpen()) readWriteLock.writeLock().lock();
+                storageTransaction.mergeUntracked(key, value);
+            } catch (RocksDBException e) {
+                throw exception(e);
+            } finally {
+                if (transaction.isOpen()) readWriteLock.writeLock().unlock();
+            }
+        }
     }
 
+    /**
+     * Data storage is not thread-safe to write to, except through
+     * {@link #writeConcurrently(List)}, where every writer thread puts into a
+     * {@code WriteBatch} of its own, and untracked writes are serialised.
+     * Writers must not read the storage, as their batches are not visible to
+     * reads until every writer has finished.
+     */
     @NotThreadSafe
     public static class Data extends TransactionBounded implements Storage.Data {
 
         private final KeyGenerator.Data dataKeyGenerator;
+        private final AttributeFilter attributeFilter;
+        private final ThreadLocal<WriteBatch> writeBatch;
 
         public Data(RocksDatabase database, RocksTransaction transaction) {
             super(database.rocksData, transaction);
             this.dataKeyGenerator = database.dataKeyGenerator();
+            this.attributeFilter = database.attributeFilter();
+            this.writeBatch = new ThreadLocal<>();
         }
 
         @Override
@@ -333,11 +376,52 @@ public abstract class RocksStorage implements Storage {
             return dataKeyGenerator;
         }
 
+        @Override
+        public AttributeFilter attributeFilter() {
+            return attributeFilter;
+        }
+
+        @Override
+        public byte[] get(byte[] key) {
+            assert writeBatch.get() == null;
+            return super.get(key);
+        }
+
+        @Override
+        public byte[] getLastKey(byte[] prefix) {
+            assert writeBatch.get() == null;
+            return super.getLastKey(prefix);
+        }
+
+        @Override
+        public <G> ResourceIterator<G> iterate(byte[] key, byte[] from, @Nullable byte[] to,
+                                               BiFunction<byte[], byte[], G> constructor) {
+            assert writeBatch.get() == null;
+            return super.iterate(key, from, to, constructor);
+        }
+
+        @Override
+        public void delete(byte[] key) {
+            WriteBatch batch = writeBatch.get();
+            if (batch == null) {
+                super.delete(key);
+                return;
+            }
+            assert isOpen() && !isReadOnly;
+            try {
+                batch.delete(key);
+            } catch (RocksDBException e) {
+                throw exception(e);
+            }
+        }
+
         @Override
         public void put(byte[] key, byte[] value) {
             assert isOpen() && !isReadOnly;
             try {
-                storageTransaction.put(key, value);
+                WriteBatch batch = writeBatch.get();
+                if (batch != null) batch.put(key, value);
+                else storageTransaction.put(key, value);
             } catch (RocksDBException e) {
                 throw exception(e);
             }
@@ -347,7 +431,13 @@ public abstract class RocksStorage implements Storage {
         public void putUntracked(byte[] key, byte[] value) {
             assert isOpen() && !isReadOnly;
             try {
-                storageTransaction.putUntracked(key, value);
+                if (writeBatch.get() == null) {
+                    storageTransaction.putUntracked(key, value);
+                } else {
+                    synchronized (storageTransaction) {
+                        storageTransaction.putUntracked(key, value);
+                    }
+                }
             } catch (RocksDBException e) {
                 throw exception(e);
             }
@@ -357,10 +447,51 @@ public abstract class RocksStorage implements Storage {
         public void mergeUntracked(byte[] key, byte[] value) {
             assert isOpen() && !isReadOnly;
             try {
-                storageTransaction.mergeUntracked(key, value);
+                if (writeBatch.get() == null) {
+                    storageTransaction.mergeUntracked(key, value);
+                } else {
+                    synchronized (storageTransaction) {
+                        storageTransaction.mergeUntracked(key, value);
+                    }
+                }
             } catch (RocksDBException e) {
                 throw exception(e);
             }
         }
+
+        /**
+         * Runs the writers on the commit pool (as the caller may itself be
+         * running on one of our other pools). Each writer puts into its own
+         * {@code WriteBatch}, and the batches are then replayed into the storage
+         * transaction, which tracks every key in them for conflict detection as
+         * if they were written directly.
+         *
+         * @param writers the jobs that write to this storage concurrently
+         */
+        @Override
+        public void writeConcurrently(List<Runnable> writers) {
+            assert isOpen() && !isReadOnly;
+            ConcurrentLinkedQueue<WriteBatch> batches = new ConcurrentLinkedQueue<>();
+            try {
+                CompletableFuture.allOf(writers.stream().map(writer -> CompletableFuture.runAsync(() -> {
+                    WriteBatch batch = new WriteBatch();
+                    batches.add(batch);
+                    writeBatch.set(batch);
+                    try {
+                        writer.run();
+                    } finally {
+                        writeBatch.remove();
+                    }
+                }, Executors.commitPool())).toArray(CompletableFuture[]::new)).join();
+                for (WriteBatch batch : batches) storageTransaction.rebuildFromWriteBatch(batch);
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+                else throw exception(e);
+            } catch (RocksDBException e) {
+                throw exception(e);
+            } finally {
+                batches.forEach(WriteBatch::close);
+            }
+        }
     }
 }
@@ -30,11 +30,13 @@ import grakn.core.graph.SchemaGraph;
 import grakn.core.logic.LogicCache;
 import grakn.core.logic.LogicManager;
 import grakn.core.query.QueryManager;
+import grakn.core.query.ResultCache;
 import grakn.core.reasoner.Reasoner;
 import grakn.core.traversal.TraversalCache;
 import grakn.core.traversal.TraversalEngine;
 import org.rocksdb.RocksDBException;
 
+import javax.annotation.Nullable;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static grakn.common.util.Objects.className;
@@ -61,12 +63,13 @@ public abstract class RocksTransaction implements Grakn.Transaction {
         this.context = new Context.Transaction(session.context(), options).type(type);
     }
 
-    void initialise(GraphManager graphMgr, TraversalCache traversalCache, LogicCache logicCache) {
+    void initialise(GraphManager graphMgr, TraversalCache traversalCache, LogicCache logicCache,
+                    @Nullable ResultCache.Epoch resultCache) {
         traversalEng = new TraversalEngine(graphMgr, traversalCache);
         conceptMgr = new ConceptManager(graphMgr);
         logicMgr = new LogicManager(graphMgr, conceptMgr, traversalEng, logicCache);
         reasoner = new Reasoner(conceptMgr, logicMgr, traversalEng, context);
-        queryMgr = new QueryManager(conceptMgr, logicMgr, reasoner, context);
+        queryMgr = new QueryManager(conceptMgr, logicMgr, reasoner, context, resultCache);
         isOpen = new AtomicBoolean(true);
     }
 
@@ -118,6 +121,7 @@ public abstract class RocksTransaction implements Grakn.Transaction {
     }
 
     protected void closeResources() {
+        context.options().memoryBudget().close();
         closeStorage();
         session.remove(this);
     }
@@ -156,7 +160,7 @@ public abstract class RocksTransaction implements Grakn.Transaction {
             DataGraph dataGraph = new DataGraph(dataStorage, schemaGraph);
 
             graphMgr = new GraphManager(schemaGraph, dataGraph);
-            initialise(graphMgr, new TraversalCache(), new LogicCache());
+            initialise(graphMgr, new TraversalCache(), new LogicCache(), null);
         }
 
         @Override
@@ -251,11 +255,24 @@ public abstract class RocksTransaction implements Grakn.Transaction {
             super(session, type, options);
 
             cache = session.database().cacheBorrow();
+            long epoch = session.database().dataEpoch();
             dataStorage = storageFactory.storageData(session.database(), this);
             DataGraph dataGraph = new DataGraph(dataStorage, cache.schemaGraph());
             graphMgr = new GraphManager(cache.schemaGraph(), dataGraph);
 
-            initialise(graphMgr, cache.traversal(), cache.logic());
+            initialise(graphMgr, cache.traversal(), cache.logic(), resultCache(epoch));
+        }
+
+        /**
+         * Returns the cached answers that this transaction may read and write,
+         * which are those of the epoch it read before taking its snapshot, as
+         * long as the snapshot turned out to hold the data of exactly that epoch.
+         */
+        @Nullable
+        private ResultCache.Epoch resultCache(long epoch) {
+            if (!type().isRead() || cache.results() == null) return null;
+            else if (!session.database().isDataEpoch(epoch)) return null;
+            else return cache.results().epoch(epoch);
         }
 
         @Override
@@ -294,7 +311,7 @@ public abstract class RocksTransaction implements Grakn.Transaction {
 
                     conceptMgr.validateThings();
                     graphMgr.data().commit();
-                    dataStorage.commit();
+                    session.database().commitData(dataStorage);
                     triggerStatisticBgCounter();
                 } catch (RocksDBException e) {
                     rollback();
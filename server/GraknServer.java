@@ -88,7 +88,8 @@ public class GraknServer implements AutoCloseable {
         Options.Database options = new Options.Database()
                 .graknDir(ServerDefaults.GRAKN_DIR)
                 .dataDir(command.dataDir())
-                .logsDir(command.logsDir());
+                .logsDir(command.logsDir())
+                .queryTimeoutMillis(command.queryTimeoutMillis());
         grakn = RocksGrakn.open(options);
         graknRPCService = new GraknRPCService(grakn);
         migratorRPCService = new MigratorRPCService(grakn);
@@ -21,6 +21,7 @@ import grabl.tracing.client.GrablTracingThreadStatic;
 import grakn.core.Grakn;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.parameters.Arguments;
+import grakn.core.common.parameters.Cancellation;
 import grakn.core.common.parameters.Context;
 import grakn.core.common.parameters.Options;
 import grakn.core.server.rpc.concept.ConceptManagerHandler;
@@ -31,6 +32,9 @@ import grakn.core.server.rpc.logic.RuleHandler;
 import grakn.core.server.rpc.query.QueryHandler;
 import grakn.protocol.TransactionProto;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -47,12 +51,15 @@ import static grakn.core.common.exception.ErrorMessage.Server.ITERATION_WITH_UNK
 import static grakn.core.common.exception.ErrorMessage.Server.UNKNOWN_REQUEST_TYPE;
 import static grakn.core.common.exception.ErrorMessage.Transaction.BAD_TRANSACTION_TYPE;
 import static grakn.core.common.exception.ErrorMessage.Transaction.TRANSACTION_ALREADY_OPENED;
+import static grakn.core.common.iterator.Iterators.iterate;
 import static grakn.core.server.rpc.common.RequestReader.setDefaultOptions;
 import static grakn.core.server.rpc.common.ResponseBuilder.Transaction.continueRes;
 import static grakn.core.server.rpc.common.ResponseBuilder.Transaction.done;
 
 public class TransactionRPC {
 
+    private static final Logger PROFILE_LOG = LoggerFactory.getLogger("grakn.core.profile");
+
     private final Grakn.Transaction transaction;
     private final SessionRPC sessionRPC;
     private final TransactionStream stream;
@@ -67,6 +74,8 @@ public class TransactionRPC {
         Arguments.Transaction.Type transactionType = Arguments.Transaction.Type.of(request.getType().getNumber());
         if (transactionType == null) throw GraknException.of(BAD_TRANSACTION_TYPE, request.getType());
         Options.Transaction options = setDefaultOptions(new Options.Transaction().parent(sessionRPC.options()), request.getOptions());
+        // the protocol cannot carry profiles back to clients, so they are logged instead
+        if (PROFILE_LOG.isDebugEnabled()) options.profile(true);
 
         transaction = sessionRPC.session().transaction(transactionType, options);
         isOpen = new AtomicBoolean(true);
@@ -137,10 +146,22 @@ public class TransactionRPC {
         iterators.iterate(request, iterator, responseBuilderFn);
     }
 
+    public void respond(TransactionProto.Transaction.Res response, Context.Query context) {
+        respond(response);
+        logProfile(context);
+    }
+
     public <T> void respond(TransactionProto.Transaction.Req request, Iterator<T> iterator, Context.Query context,
                             Function<List<T>, TransactionProto.Transaction.Res> responseBuilderFn) {
-        iterators.iterate(request, iterator, context.options().prefetch(),
-                          context.options().responseBatchSize(), responseBuilderFn);
+        Iterator<T> answers = iterator;
+        if (context.options().queryProfile() != null) answers = iterate(iterator).onConsumed(() -> logProfile(context));
+        iterators.iterate(request, answers, context.options().prefetch(), context.options().responseBatchSize(),
+                          context.options().cancellation(), responseBuilderFn);
+    }
+
+    private static void logProfile(Context.Query context) {
+        if (context.options().queryProfile() == null) return;
+        PROFILE_LOG.debug("{}", context.options().queryProfile());
     }
 
     private void commit(String requestId) {
@@ -158,6 +179,7 @@ public class TransactionRPC {
 
     void close() {
         if (isOpen.compareAndSet(true, false)) {
+            iterators.cancel();
             stream.close();
             transaction.close();
             sessionRPC.remove(this);
@@ -166,6 +188,7 @@ public class TransactionRPC {
 
     void closeWithError(Throwable error) {
         if (isOpen.compareAndSet(true, false)) {
+            iterators.cancel();
             stream.closeWithError(error);
             transaction.close();
             sessionRPC.remove(this);
@@ -196,7 +219,7 @@ public class TransactionRPC {
         <T> void iterate(TransactionProto.Transaction.Req request, Iterator<T> iterator,
                          Function<List<T>, TransactionProto.Transaction.Res> responseBuilderFn) {
             int size = transaction.context().options().responseBatchSize();
-            iterate(request, iterator, true, size, responseBuilderFn);
+            iterate(request, iterator, true, size, Cancellation.NONE, responseBuilderFn);
         }
 
         /**
@@ -206,15 +229,17 @@ public class TransactionRPC {
          * @param iterator          The iterator that contains the raw answers from the database.
          * @param prefetch          If set to true, the first batch will be streamed to the client immediately.
          * @param batchSize         The base batch size, before network latency is accounted for.
+         * @param cancellation      The cancellation of the query that produces the answers, if any.
          * @param responseBuilderFn The projection function that serialises raw answers to RPC messages.
          * @param <T>               The type of answers being fetched.
          */
         <T> void iterate(TransactionProto.Transaction.Req request, Iterator<T> iterator, boolean prefetch, int batchSize,
-                         Function<List<T>, TransactionProto.Transaction.Res> responseBuilderFn) {
+                         Cancellation cancellation, Function<List<T>, TransactionProto.Transaction.Res> responseBuilderFn) {
             String requestId = request.getId();
             int latencyMillis = request.getLatencyMillis();
-            BatchingIterator<T> batchingIterator =
-                    new BatchingIterator<>(requestId, iterator, responseBuilderFn, batchSize, latencyMillis);
+            BatchingIterator<T> batchingIterator = new BatchingIterator<>(
+                    requestId, iterator, responseBuilderFn, batchSize, latencyMillis, cancellation
+            );
             iterators.compute(requestId, (key, oldValue) -> {
                 if (oldValue == null) return batchingIterator;
                 else throw GraknException.of(DUPLICATE_REQUEST, requestId);
@@ -232,6 +257,15 @@ public class TransactionRPC {
             iterator.iterateBatch();
         }
 
+        /**
+         * Cancels the queries of every iterator, so that the work they still
+         * have in flight, such as prefetching answers on other threads, stops
+         * when the transaction closes.
+         */
+        void cancel() {
+            iterators.values().forEach(BatchingIterator::cancel);
+        }
+
         private class BatchingIterator<T> {
             private static final int MAX_LATENCY_MILLIS = 3000;
 
@@ -240,13 +274,20 @@ public class TransactionRPC {
             private final Function<List<T>, TransactionProto.Transaction.Res> responseBuilderFn;
             private final int batchSize;
             private final int latencyMillis;
+            private final Cancellation cancellation;
 
-            BatchingIterator(String id, Iterator<T> iterator, Function<List<T>, TransactionProto.Transaction.Res> responseBuilderFn, int batchSize, int latencyMillis) {
+            BatchingIterator(String id, Iterator<T> iterator, Function<List<T>, TransactionProto.Transaction.Res> responseBuilderFn,
+                             int batchSize, int latencyMillis, Cancellation cancellation) {
                 this.id = id;
                 this.iterator = iterator;
                 this.responseBuilderFn = responseBuilderFn;
                 this.batchSize = batchSize;
                 this.latencyMillis = Math.min(latencyMillis, MAX_LATENCY_MILLIS);
+                this.cancellation = cancellation;
+            }
+
+            void cancel() {
+                if (cancellation != Cancellation.NONE) cancellation.cancel();
             }
 
             synchronized void iterateBatch() {
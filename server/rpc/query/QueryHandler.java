@@ -115,7 +115,7 @@ public class QueryHandler {
         Numeric answer = queryManager.match(query, context);
         transactionRPC.respond(
                 response(request, QueryProto.Query.Res.newBuilder().setMatchAggregateRes(
-                        QueryProto.Query.MatchAggregate.Res.newBuilder().setAnswer(numeric(answer)))));
+                        QueryProto.Query.MatchAggregate.Res.newBuilder().setAnswer(numeric(answer)))), context);
     }
 
     private void match(Transaction.Req request, QueryProto.Query.MatchGroup.Req req, Options.Query options) {
@@ -156,7 +156,7 @@ public class QueryHandler {
         Context.Query context = new Context.Query(transactionRPC.context(), options.query(query), query);
         queryManager.delete(query, context);
         transactionRPC.respond(response(txReq, QueryProto.Query.Res.newBuilder()
-                .setDeleteRes(QueryProto.Query.Delete.Res.getDefaultInstance())));
+                .setDeleteRes(QueryProto.Query.Delete.Res.getDefaultInstance())), context);
     }
 
     private void update(Transaction.Req txReq, QueryProto.Query.Update.Req queryReq, Options.Query options) {
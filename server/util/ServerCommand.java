@@ -84,6 +84,12 @@ public interface ServerCommand {
                 description = "Port number of database server in which GRPC clients will connect to")
         private int port;
 
+        @Option(descriptionKey = "server.query-timeout",
+                names = {"--query-timeout"},
+                defaultValue = "0",
+                description = "Milliseconds after which a query is stopped, or 0 to never time out")
+        private long queryTimeout;
+
         @Option(descriptionKey = "grabl.trace",
                 names = {"--grabl-trace"},
                 negatable = true,
@@ -129,6 +135,10 @@ public interface ServerCommand {
             return port;
         }
 
+        public long queryTimeoutMillis() {
+            return queryTimeout;
+        }
+
         public boolean debug() {
             return debug;
         }
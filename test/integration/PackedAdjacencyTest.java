@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.test.integration;
+
+import grakn.core.Grakn;
+import grakn.core.common.parameters.Arguments;
+import grakn.core.common.parameters.Context;
+import grakn.core.common.parameters.Options;
+import grakn.core.concept.thing.Attribute;
+import grakn.core.concept.thing.Entity;
+import grakn.core.concept.type.AttributeType;
+import grakn.core.concept.type.EntityType;
+import grakn.core.rocks.RocksGrakn;
+import grakn.core.test.integration.util.Util;
+import graql.lang.Graql;
+import graql.lang.query.GraqlDelete;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static grakn.core.concept.type.AttributeType.ValueType.STRING;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PackedAdjacencyTest {
+
+    private static final String database = "packed-adjacency-test";
+    private static final Path dataDir = Paths.get(System.getProperty("user.dir")).resolve(database);
+    private static final Path logDir = dataDir.resolve("logs");
+    private static final Options.Database options = new Options.Database().dataDir(dataDir).logsDir(logDir);
+
+    private static final int PACKED_COUNT = 600;
+    private static final int UNPACKED_COUNT = 3;
+
+    @Test
+    public void test_packed_and_unpacked_edges() throws IOException {
+        Util.resetDirectory(dataDir);
+
+        try (Grakn grakn = RocksGrakn.open(options)) {
+            grakn.databases().create(database);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    AttributeType.String name = transaction.concepts().putAttributeType("name", STRING).asString();
+                    transaction.concepts().putEntityType("person").setOwns(name);
+                    transaction.commit();
+                }
+            }
+
+            Set<String> expected = new HashSet<>();
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    Entity person = transaction.concepts().getEntityType("person").create();
+                    AttributeType.String name = transaction.concepts().getAttributeType("name").asString();
+                    for (int i = 0; i < PACKED_COUNT; i++) {
+                        person.setHas(name.put("packed-" + i));
+                        expected.add("packed-" + i);
+                    }
+                    transaction.commit();
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    Entity person = person(transaction);
+                    AttributeType.String name = transaction.concepts().getAttributeType("name").asString();
+                    for (int i = 0; i < UNPACKED_COUNT; i++) {
+                        person.setHas(name.put("unpacked-" + i));
+                        expected.add("unpacked-" + i);
+                    }
+                    transaction.commit();
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertNames(expected, transaction);
+                    Entity person = person(transaction);
+                    AttributeType.String name = transaction.concepts().getAttributeType("name").asString();
+                    assertTrue(name.get("packed-7").getOwners().anyMatch(person::equals));
+                    assertTrue(name.get("unpacked-1").getOwners().anyMatch(person::equals));
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    Entity person = person(transaction);
+                    AttributeType.String name = transaction.concepts().getAttributeType("name").asString();
+                    person.unsetHas(name.get("packed-7"));
+                    person.unsetHas(name.get("packed-" + (PACKED_COUNT - 1)));
+                    person.unsetHas(name.get("unpacked-1"));
+                    expected.remove("packed-7");
+                    expected.remove("packed-" + (PACKED_COUNT - 1));
+                    expected.remove("unpacked-1");
+                    assertNames(expected, transaction);
+                    transaction.commit();
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertNames(expected, transaction);
+                    AttributeType.String name = transaction.concepts().getAttributeType("name").asString();
+                    assertNull(name.get("packed-7").getOwners().findAny().orElse(null));
+                    assertNull(name.get("unpacked-1").getOwners().findAny().orElse(null));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_delete_packed_edges_in_parallel() throws IOException {
+        Util.resetDirectory(dataDir);
+
+        try (Grakn grakn = RocksGrakn.open(options)) {
+            grakn.databases().create(database);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    AttributeType.String name = transaction.concepts().putAttributeType("name", STRING).asString();
+                    transaction.concepts().putEntityType("person").setOwns(name);
+                    transaction.commit();
+                }
+            }
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    Entity person = transaction.concepts().getEntityType("person").create();
+                    AttributeType.String name = transaction.concepts().getAttributeType("name").asString();
+                    for (int i = 0; i < PACKED_COUNT; i++) person.setHas(name.put("packed-" + i));
+                    transaction.commit();
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    // the deletes are split across threads, and every one of them rewrites a block of the same owner
+                    GraqlDelete query = Graql.parseQuery("match $p isa person, has name $n; delete $p has $n;");
+                    transaction.query().delete(query, new Context.Query(transaction.context(), new Options.Query().parallel(true)));
+                    assertNames(new HashSet<>(), transaction);
+                    transaction.commit();
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertNames(new HashSet<>(), transaction);
+                    AttributeType.String name = transaction.concepts().getAttributeType("name").asString();
+                    for (int i = 0; i < PACKED_COUNT; i++) {
+                        assertNull(name.get("packed-" + i).getOwners().findAny().orElse(null));
+                    }
+                }
+            }
+        }
+    }
+
+    private static Entity person(Grakn.Transaction transaction) {
+        EntityType person = transaction.concepts().getEntityType("person");
+        return person.getInstances().findFirst().get();
+    }
+
+    private static void assertNames(Set<String> expected, Grakn.Transaction transaction) {
+        AttributeType.String name = transaction.concepts().getAttributeType("name").asString();
+        List<String> names = person(transaction).getHas(name).map(Attribute.String::getValue).collect(toList());
+        assertEquals(expected.size(), names.size());
+        assertEquals(expected, new HashSet<>(names));
+    }
+}
@@ -19,8 +19,15 @@
 package grakn.core.test.integration;
 
 import grakn.core.Grakn;
+import grakn.core.common.exception.GraknException;
+import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.common.parameters.Arguments;
+import grakn.core.common.parameters.Cancellation;
+import grakn.core.common.parameters.Context;
+import grakn.core.common.parameters.Options;
 import grakn.core.common.parameters.Options.Database;
+import grakn.core.common.parameters.QueryProfile;
+import grakn.core.concept.answer.ConceptMap;
 import grakn.core.concept.thing.Attribute;
 import grakn.core.concept.thing.Entity;
 import grakn.core.concept.type.AttributeType;
@@ -29,9 +36,12 @@ import grakn.core.concept.type.RelationType;
 import grakn.core.concept.type.RoleType;
 import grakn.core.rocks.RocksGrakn;
 import grakn.core.test.integration.util.Util;
+import grakn.core.traversal.TraversalProfile;
 import graql.lang.Graql;
 import graql.lang.query.GraqlDefine;
+import graql.lang.query.GraqlDelete;
 import graql.lang.query.GraqlInsert;
+import graql.lang.query.GraqlMatch;
 import graql.lang.query.GraqlUndefine;
 import org.junit.Test;
 
@@ -39,7 +49,18 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
+import static grakn.core.common.exception.ErrorMessage.Transaction.QUERY_CANCELLED;
+import static grakn.core.common.exception.ErrorMessage.Transaction.QUERY_MEMORY_EXCEEDED;
+import static grakn.core.common.exception.ErrorMessage.Transaction.QUERY_TIMED_OUT;
+import static grakn.core.common.parameters.MemoryBudget.answerBytes;
+import static grakn.core.common.test.Util.assertThrowsGraknException;
 import static grakn.core.test.integration.util.Util.assertNotNulls;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertEquals;
@@ -47,6 +68,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class QueryTest {
     private static final Path dataDir = Paths.get(System.getProperty("user.dir")).resolve("query-test");
@@ -252,4 +274,1031 @@ public class QueryTest {
             }
         }
     }
+
+    @Test
+    public void test_query_profile() throws IOException {
+        Util.resetDirectory(dataDir);
+
+        try (Grakn grakn = RocksGrakn.open(options)) {
+            grakn.databases().create(database);
+            defineSchema(grakn);
+            insertUsers(grakn, 3);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    Options.Query queryOptions = new Options.Query().profile(true);
+                    GraqlMatch query = Graql.parseQuery("match $u isa user, has name $n;");
+                    List<ConceptMap> answers = transaction.query().match(
+                            query, new Context.Query(transaction.context(), queryOptions)
+                    ).toList();
+                    assertEquals(3, answers.size());
+
+                    QueryProfile profile = queryOptions.queryProfile();
+                    assertNotNull(profile);
+                    assertEquals(1, profile.entries().size());
+                    TraversalProfile traversal = (TraversalProfile) profile.entries().get(0);
+                    long answered = 0;
+                    for (TraversalProfile.ProcedureProfile procedure : traversal.procedures()) {
+                        answered += procedure.answers();
+                    }
+                    assertEquals(3, answered);
+                    assertTrue(profile.toString().contains("Traversal Profile"));
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    Options.Query queryOptions = new Options.Query();
+                    GraqlMatch query = Graql.parseQuery("match $u isa user, has name $n;");
+                    transaction.query().match(query, new Context.Query(transaction.context(), queryOptions)).toList();
+                    assertNull(queryOptions.queryProfile());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_commit_vertices_concurrently() throws IOException {
+        Util.resetDirectory(dataDir);
+        int count = 2_500;
+
+        try (Grakn grakn = RocksGrakn.open(options)) {
+            grakn.databases().create(database);
+            defineSchema(grakn);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    GraqlInsert team = Graql.parseQuery("insert $t isa team, has symbol 'engineers';");
+                    transaction.query().insert(team);
+                    for (int i = 0; i < count; i++) {
+                        GraqlInsert query = Graql.parseQuery(
+                                "match $t isa team, has symbol 'engineers'; " +
+                                        "insert $u isa user, has name 'user-" + i + "'; (team: $t, member: $u) isa team-member;"
+                        );
+                        transaction.query().insert(query);
+                    }
+                    transaction.commit();
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    GraqlMatch users = Graql.parseQuery("match $u isa user, has name $n;");
+                    assertEquals(count, transaction.query().match(users).toList().size());
+
+                    GraqlMatch members = Graql.parseQuery(
+                            "match $t isa team, has symbol 'engineers'; (team: $t, member: $u) isa team-member; $u has name $n;"
+                    );
+                    Set<String> names = new HashSet<>();
+                    transaction.query().match(members).forEachRemaining(
+                            answer -> names.add(answer.get("n").asAttribute().asString().getValue())
+                    );
+                    assertEquals(count, names.size());
+                    assertTrue(names.contains("user-0"));
+                    assertTrue(names.contains("user-" + (count - 1)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_modify_after_spill() throws IOException {
+        Util.resetDirectory(dataDir);
+
+        try (Grakn grakn = RocksGrakn.open(options)) {
+            grakn.databases().create(database);
+            defineSchema(grakn);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                Options.Transaction spillAlways = new Options.Transaction().transactionMemoryBudgetBytes(1);
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE, spillAlways)) {
+                    GraqlInsert query = Graql.parseQuery("insert $u isa user, has name 'alice';");
+                    ConceptMap inserted = transaction.query().insert(query).next();
+                    Entity alice = transaction.concepts().getThing(inserted.get("u").asThing().getIID()).asEntity();
+                    alice.setHas(transaction.concepts().getAttributeType("full-name").asString().put("Alice"));
+                    transaction.commit();
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    GraqlMatch query = Graql.parseQuery("match $u isa user, has name 'alice', has full-name 'Alice';");
+                    assertEquals(1, transaction.query().match(query).toList().size());
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE, spillAlways)) {
+                    GraqlInsert query = Graql.parseQuery("insert $u isa user, has name 'bob';");
+                    Entity bob = transaction.query().insert(query).next().get("u").asThing().asEntity();
+                    AttributeType.String fullName = transaction.concepts().getAttributeType("full-name").asString();
+                    try {
+                        bob.setHas(fullName.put("Bob"));
+                        fail("A write through a thing that has been spilled is not supposed to succeed");
+                    } catch (GraknException ignored) {
+                        assertFalse(transaction.isOpen());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_no_spill_after_inference() throws IOException {
+        Util.resetDirectory(dataDir);
+
+        try (Grakn grakn = RocksGrakn.open(options)) {
+            grakn.databases().create(database);
+            defineSchema(grakn);
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    GraqlDefine query = Graql.parseQuery(
+                            "define rule alice-full-name: when { $u isa user, has name 'alice'; } then { $u has full-name 'Alice'; };"
+                    );
+                    transaction.query().define(query);
+                    transaction.commit();
+                }
+            }
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                Options.Transaction spillAlways = new Options.Transaction().transactionMemoryBudgetBytes(1).infer(true);
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE, spillAlways)) {
+                    GraqlInsert alice = Graql.parseQuery("insert $u isa user, has name 'alice';");
+                    transaction.query().insert(alice);
+                    GraqlMatch inferred = Graql.parseQuery("match $u isa user, has full-name 'Alice';");
+                    assertEquals(1, transaction.query().match(inferred).toList().size());
+
+                    Context.Query noInference = new Context.Query(transaction.context(), new Options.Query().infer(false));
+                    GraqlInsert query = Graql.parseQuery("insert $u isa user, has name 'bob';");
+                    Entity bob = transaction.query().insert(query, noInference).next().get("u").asThing().asEntity();
+                    bob.setHas(transaction.concepts().getAttributeType("full-name").asString().put("Bob"));
+                    assertTrue(transaction.isOpen());
+                    assertEquals(1, transaction.query().match(inferred).toList().size());
+                    transaction.commit();
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    GraqlMatch query = Graql.parseQuery("match $u isa user, has full-name $f;");
+                    assertEquals(1, transaction.query().match(query).toList().size());
+                    GraqlMatch bob = Graql.parseQuery("match $u isa user, has name 'bob', has full-name 'Bob';");
+                    assertEquals(1, transaction.query().match(bob).toList().size());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_disjunction_with_common_patterns() throws IOException {
+        Util.resetDirectory(dataDir);
+
+        try (Grakn grakn = RocksGrakn.open(options)) {
+            grakn.databases().create(database);
+            defineSchema(grakn);
+            insertUsers(grakn, 10);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    Set<String> expected = new HashSet<>();
+                    expected.addAll(names(transaction, "match $u isa user, has name $n; $n 'user-1';"));
+                    expected.addAll(names(transaction, "match $u isa user, has name $n; $n contains '-2';"));
+                    expected.addAll(names(transaction, "match $u isa user, has name $n; not { $n 'user-3'; }; $n contains '3';"));
+                    assertEquals(2, expected.size());
+
+                    List<String> answers = namesList(transaction, "match $u isa user, has name $n; " +
+                            "{ $n 'user-1'; } or { $n contains '-2'; } or { not { $n 'user-3'; }; $n contains '3'; };");
+                    assertEquals(expected.size(), answers.size());
+                    assertEquals(expected, new HashSet<>(answers));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_negation_anti_join_agrees_with_per_answer_checks() throws IOException {
+        Util.resetDirectory(dataDir);
+
+        try (Grakn grakn = RocksGrakn.open(options)) {
+            grakn.databases().create(database);
+            defineSchema(grakn);
+            insertUsers(grakn, 200);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    String negation = "not { $u has name $m; $m contains '1'; };";
+                    Set<String> perAnswer = new HashSet<>();
+                    for (int i = 0; i < 200; i++) {
+                        perAnswer.addAll(names(transaction, "match $u isa user, has name $n; $n 'user-" + i + "'; " + negation));
+                    }
+                    Set<String> expected = new HashSet<>();
+                    for (int i = 0; i < 200; i++) {
+                        if (!String.valueOf(i).contains("1")) expected.add("user-" + i);
+                    }
+                    assertEquals(expected, perAnswer);
+
+                    List<String> antiJoin = namesList(transaction, "match $u isa user, has name $n; " + negation);
+                    assertEquals(perAnswer.size(), antiJoin.size());
+                    assertEquals(perAnswer, new HashSet<>(antiJoin));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_negation_checks_release_their_memory() throws IOException {
+        Util.resetDirectory(dataDir);
+        int users = 10;
+        Database limitedOptions = new Database().dataDir(dataDir).logsDir(logDir).serverMemoryLimitBytes(4 * users * answerBytes(4));
+
+        try (Grakn grakn = RocksGrakn.open(limitedOptions)) {
+            grakn.databases().create(database);
+            defineSchema(grakn);
+            insertUsers(grakn, users);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    for (int i = 0; i < users; i += 2) {
+                        transaction.query().insert(Graql.parseQuery(
+                                "match $u isa user, has name 'user-" + i + "'; insert $u has full-name 'full-" + i + "';"
+                        ));
+                    }
+                    transaction.commit();
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    Set<String> expected = new HashSet<>();
+                    for (int i = 1; i < users; i += 2) expected.add("user-" + i);
+                    // every run checks the negation once per user, which would exceed the server's limit if the checks kept their memory
+                    for (int run = 0; run < 100; run++) {
+                        assertEquals(expected, names(transaction, "match $u isa user, has name $n; not { $u has full-name $f; };"));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_malformed_iids_are_absent() throws IOException {
+        Util.resetDirectory(dataDir);
+
+        try (Grakn grakn = RocksGrakn.open(options)) {
+            grakn.databases().create(database);
+            defineSchema(grakn);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    transaction.query().insert(Graql.parseQuery("insert $u isa user, has name 'alice'; $p 7 isa priority;"));
+                    transaction.commit();
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    ConceptMap answer = transaction.query().match(Graql.parseQuery("match $u isa user; $p isa priority;")).next();
+                    for (String var : new String[]{"u", "p"}) {
+                        byte[] iid = answer.get(var).asThing().getIID();
+                        assertNotNull(transaction.concepts().getThing(iid));
+                        byte[] truncated = Arrays.copyOfRange(iid, 0, iid.length - 2);
+                        byte[] extended = Arrays.copyOf(iid, iid.length + 2);
+                        assertNull(transaction.concepts().getThing(truncated));
+                        assertNull(transaction.concepts().getThing(extended));
+                        GraqlMatch query = Graql.parseQuery("match $x iid " + hex(truncated) + ";");
+                        assertFalse(transaction.query().match(query).hasNext());
+                    }
+                }
+            }
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder("0x");
+        for (byte b : bytes) hex.append(String.format("%02x", b));
+        return hex.toString();
+    }
+
+    @Test
+    public void test_join_of_disconnected_patterns() throws IOException {
+        Util.resetDirectory(dataDir);
+        int teams = 5;
+        int users = 40;
+
+        try (Grakn grakn = RocksGrakn.open(options)) {
+            grakn.databases().create(database);
+            defineSchema(grakn);
+            insertUsers(grakn, users);
+            insertTeams(grakn, teams);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    Set<String> expected = new HashSet<>();
+                    for (String user : names(transaction, "match $u isa user, has name $n;")) {
+                        for (int i = 0; i < teams; i++) expected.add(user + ":team-" + i);
+                    }
+
+                    GraqlMatch query = Graql.parseQuery("match $u isa user, has name $n; $t isa team, has symbol $s;");
+                    List<String> answers = transaction.query().match(query).map(
+                            answer -> answer.get("n").asAttribute().asString().getValue() + ":" +
+                                    answer.get("s").asAttribute().asString().getValue()
+                    ).toList();
+                    assertEquals(users * teams, answers.size());
+                    assertEquals(expected, new HashSet<>(answers));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_query_cancellation_and_timeout() throws IOException, InterruptedException {
+        Util.resetDirectory(dataDir);
+
+        try (Grakn grakn = RocksGrakn.open(options)) {
+            grakn.databases().create(database);
+            defineSchema(grakn);
+            insertUsers(grakn, 200);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                GraqlMatch query = Graql.parseQuery("match $u isa user, has name $n;");
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    Cancellation cancellation = new Cancellation(0);
+                    Options.Query queryOptions = new Options.Query().parallel(false).cancellation(cancellation);
+                    ResourceIterator<ConceptMap> answers =
+                            transaction.query().match(query, new Context.Query(transaction.context(), queryOptions));
+                    assertNotNull(answers.next());
+                    cancellation.cancel();
+                    assertThrowsGraknException(answers::toList, QUERY_CANCELLED.code());
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    Cancellation cancellation = new Cancellation(1);
+                    Thread.sleep(10);
+                    Options.Query queryOptions = new Options.Query().cancellation(cancellation);
+                    assertThrowsGraknException(
+                            () -> transaction.query().match(query, new Context.Query(transaction.context(), queryOptions)).toList(),
+                            QUERY_TIMED_OUT.code()
+                    );
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    Options.Query queryOptions = new Options.Query().queryTimeoutMillis(60_000);
+                    assertEquals(200, transaction.query().match(query, new Context.Query(transaction.context(), queryOptions)).toList().size());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_query_memory_limit() throws IOException {
+        Util.resetDirectory(dataDir);
+        int users = 200;
+        long serverLimit = 3 * users * answerBytes(4);
+        Database limitedOptions = new Database().dataDir(dataDir).logsDir(logDir).serverMemoryLimitBytes(serverLimit);
+
+        try (Grakn grakn = RocksGrakn.open(limitedOptions)) {
+            grakn.databases().create(database);
+            defineSchema(grakn);
+            insertUsers(grakn, users);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                GraqlMatch query = Graql.parseQuery("match $u isa user, has name $n; sort $n;");
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    Options.Query queryOptions = new Options.Query().queryMemoryLimitBytes(1);
+                    assertThrowsGraknException(
+                            () -> transaction.query().match(query, new Context.Query(transaction.context(), queryOptions)).toList(),
+                            QUERY_MEMORY_EXCEEDED.code()
+                    );
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    // every run must release what it reserved, or the runs together would exceed the server's limit
+                    for (int run = 0; run < 10; run++) {
+                        List<String> names = namesList(transaction, "match $u isa user, has name $n; sort $n;");
+                        assertEquals(users, names.size());
+                        for (int i = 1; i < names.size(); i++) assertTrue(names.get(i - 1).compareTo(names.get(i)) < 0);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_predicates_between_variables() throws IOException {
+        Util.resetDirectory(dataDir);
+
+        try (Grakn grakn = RocksGrakn.open(options)) {
+            grakn.databases().create(database);
+            defineSchema(grakn);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    for (long i = -20; i < 30; i++) transaction.query().insert(Graql.parseQuery("insert $p " + i + " isa priority;"));
+                    for (int day = 1; day <= 20; day++) {
+                        transaction.query().insert(Graql.parseQuery("insert $c 2021-01-" + String.format("%02d", day) + " isa created;"));
+                    }
+                    transaction.commit();
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    String pivot = "match $p isa priority; $q isa priority; $q -5; ";
+                    assertEquals(range(-4, 30), priorities(transaction, pivot + "$p > $q;"));
+                    assertEquals(range(-5, 30), priorities(transaction, pivot + "$p >= $q;"));
+                    assertEquals(range(-20, -5), priorities(transaction, pivot + "$p < $q;"));
+                    assertEquals(range(-20, -4), priorities(transaction, pivot + "$p <= $q;"));
+                    assertEquals(range(-5, -4), priorities(transaction, pivot + "$p = $q;"));
+                    Set<Long> notEqual = range(-20, 30);
+                    notEqual.remove(-5L);
+                    assertEquals(notEqual, priorities(transaction, pivot + "$p != $q;"));
+
+                    GraqlMatch query = Graql.parseQuery("match $c isa created; $d isa created; $d 2021-01-10; $c < $d;");
+                    Set<Integer> days = new HashSet<>();
+                    transaction.query().match(query).forEachRemaining(
+                            answer -> days.add(answer.get("c").asAttribute().asDateTime().getValue().getDayOfMonth())
+                    );
+                    assertEquals(9, days.size());
+                    for (int day = 1; day < 10; day++) assertTrue(days.contains(day));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_predicates_against_values() throws IOException {
+        Util.resetDirectory(dataDir);
+
+        try (Grakn grakn = RocksGrakn.open(options)) {
+            grakn.databases().create(database);
+            defineSchema(grakn);
+            insertUsers(grakn, 10);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    for (long i = -20; i < 30; i++) transaction.query().insert(Graql.parseQuery("insert $p " + i + " isa priority;"));
+                    for (int day = 1; day <= 20; day++) {
+                        transaction.query().insert(Graql.parseQuery("insert $c 2021-01-" + String.format("%02d", day) + " isa created;"));
+                    }
+                    transaction.commit();
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertEquals(range(4, 30), priorities(transaction, "match $p isa priority; $p > 3;"));
+                    assertEquals(range(-20, -5), priorities(transaction, "match $p isa priority; $p < -5;"));
+                    assertEquals(range(4, 30), priorities(transaction, "match $p isa priority; $p > 3.5;"));
+                    assertEquals(range(-20, 4), priorities(transaction, "match $p isa priority; $p <= 3.0;"));
+                    assertEquals(range(3, 4), priorities(transaction, "match $p isa priority; $p = 3.0;"));
+                    assertEquals(range(0, 10), priorities(transaction, "match $p isa priority; $p >= 0; $p < 10;"));
+
+                    assertEquals(new HashSet<>(Arrays.asList("user-3")), names(transaction, "match $u isa user, has name $n; $n = 'user-3';"));
+                    Set<String> others = names(transaction, "match $u isa user, has name $n; $n != 'user-3';");
+                    assertEquals(9, others.size());
+                    assertFalse(others.contains("user-3"));
+                    assertEquals(new HashSet<>(Arrays.asList("user-0", "user-1")), names(transaction, "match $n isa name; $n < 'user-2';"));
+                    assertEquals(new HashSet<>(Arrays.asList("user-7")), names(transaction, "match $n isa name; $n contains '7';"));
+
+                    GraqlMatch query = Graql.parseQuery("match $c isa created; $c < 2021-01-10;");
+                    Set<Integer> days = new HashSet<>();
+                    transaction.query().match(query).forEachRemaining(
+                            answer -> days.add(answer.get("c").asAttribute().asDateTime().getValue().getDayOfMonth())
+                    );
+                    assertEquals(9, days.size());
+                    for (int day = 1; day < 10; day++) assertTrue(days.contains(day));
+                    GraqlMatch exact = Graql.parseQuery("match $c isa created; $c 2021-01-10T00:00:00.000;");
+                    assertEquals(1, transaction.query().match(exact).toList().size());
+                }
+            }
+        }
+    }
+
+    private static Set<Long> range(long from, long to) {
+        Set<Long> range = new HashSet<>();
+        for (long i = from; i < to; i++) range.add(i);
+        return range;
+    }
+
+    private static Set<Long> priorities(Grakn.Transaction transaction, String query) {
+        GraqlMatch match = Graql.parseQuery(query);
+        List<Long> priorities = transaction.query().match(match).map(
+                answer -> answer.get("p").asAttribute().asLong().getValue()
+        ).toList();
+        Set<Long> distinct = new HashSet<>(priorities);
+        assertEquals(priorities.size(), distinct.size());
+        return distinct;
+    }
+
+    @Test
+    public void test_role_players_after_delete_and_reopen() throws IOException {
+        Util.resetDirectory(dataDir);
+        int users = 100;
+        String members = "match $r (team: $t, member: $u) isa team-member; $t isa team, has symbol 'team-0'; $u isa user, has name $n;";
+        Set<String> expected = new HashSet<>();
+
+        try (Grakn grakn = RocksGrakn.open(options)) {
+            grakn.databases().create(database);
+            defineSchema(grakn);
+            insertUsers(grakn, users);
+            insertTeams(grakn, 2);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    for (int i = 0; i < users; i++) {
+                        String team = i % 4 == 0 ? "team-1" : "team-0";
+                        GraqlInsert query = Graql.parseQuery(
+                                "match $t isa team, has symbol '" + team + "'; $u isa user, has name 'user-" + i + "'; " +
+                                        "insert (team: $t, member: $u) isa team-member;"
+                        );
+                        transaction.query().insert(query);
+                        if (team.equals("team-0")) expected.add("user-" + i);
+                    }
+                    transaction.commit();
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertEquals(expected, names(transaction, members));
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    for (int i = 1; i < 10; i++) {
+                        GraqlDelete query = Graql.parseQuery(
+                                "match $r (team: $t, member: $u) isa team-member; $u isa user, has name 'user-" + i + "'; " +
+                                        "delete $r isa team-member;"
+                        );
+                        transaction.query().delete(query);
+                        expected.remove("user-" + i);
+                    }
+                    GraqlDelete query = Graql.parseQuery("match $u isa user, has name 'user-50'; delete $u isa user;");
+                    transaction.query().delete(query);
+                    expected.remove("user-50");
+                    transaction.commit();
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertEquals(expected, names(transaction, members));
+                }
+            }
+        }
+
+        try (Grakn grakn = RocksGrakn.open(options)) {
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    List<String> names = namesList(transaction, members);
+                    assertEquals(expected.size(), names.size());
+                    assertEquals(expected, new HashSet<>(names));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_result_cache_is_invalidated_by_commits() throws IOException {
+        Util.resetDirectory(dataDir);
+        Database cachedOptions = new Database().dataDir(dataDir).logsDir(logDir).resultCacheBytes(1 << 20);
+        String users = "match $u isa user, has name $n;";
+
+        try (Grakn grakn = RocksGrakn.open(cachedOptions)) {
+            grakn.databases().create(database);
+            defineSchema(grakn);
+            insertUsers(grakn, 20);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                Set<String> expected = new HashSet<>();
+                for (int i = 0; i < 20; i++) expected.add("user-" + i);
+
+                try (Grakn.Transaction before = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertEquals(expected, names(before, users));
+                    assertEquals(expected, names(before, users));
+
+                    try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                        transaction.query().insert(Graql.parseQuery("insert $u isa user, has name 'user-new';"));
+                        transaction.query().delete(Graql.parseQuery("match $u isa user, has name 'user-0'; delete $u isa user;"));
+                        transaction.commit();
+                    }
+
+                    assertEquals(expected, names(before, users));
+                }
+
+                expected.add("user-new");
+                expected.remove("user-0");
+                try (Grakn.Transaction after = session.transaction(Arguments.Transaction.Type.READ)) {
+                    assertEquals(expected, names(after, users));
+                    assertEquals(expected, names(after, users));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_plan_switch_does_not_duplicate_answers() throws IOException {
+        Util.resetDirectory(dataDir);
+        int teams = 100;
+        int members = 1_000;
+
+        try (Grakn grakn = RocksGrakn.open(options)) {
+            grakn.databases().create(database);
+            defineSchema(grakn);
+            insertUsers(grakn, members);
+            insertTeams(grakn, teams);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    // one team holds nearly every membership, so its fan-out is far above the average the planner expects
+                    for (int i = 0; i < members; i++) {
+                        String team = i < teams ? "team-" + i : "team-0";
+                        GraqlInsert query = Graql.parseQuery(
+                                "match $t isa team, has symbol '" + team + "'; $u isa user, has name 'user-" + i + "'; " +
+                                        "insert (team: $t, member: $u) isa team-member;"
+                        );
+                        transaction.query().insert(query);
+                    }
+                    transaction.commit();
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    GraqlMatch query = Graql.parseQuery(
+                            "match $t isa team, has symbol 'team-0'; (team: $t, member: $u) isa team-member; $u has name $n;"
+                    );
+                    Options.Query queryOptions = new Options.Query().parallel(false);
+                    List<String> names = transaction.query().match(query, new Context.Query(transaction.context(), queryOptions))
+                            .map(answer -> answer.get("n").asAttribute().asString().getValue()).toList();
+                    assertEquals(members - teams + 1, names.size());
+                    assertEquals(names.size(), new HashSet<>(names).size());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_greedy_and_solved_plans_agree() throws IOException {
+        Util.resetDirectory(dataDir);
+        int users = 30;
+        int teams = 5;
+
+        try (Grakn grakn = RocksGrakn.open(options)) {
+            grakn.databases().create(database);
+            defineSchema(grakn);
+            insertUsers(grakn, users);
+            insertTeams(grakn, teams);
+            insertMemberships(grakn, users, teams, 2);
+
+            Set<String> expectedSmall = new HashSet<>();
+            Set<String> expectedLarge = new HashSet<>();
+            for (int i = 0; i < users; i++) {
+                for (int k = 0; k < 2; k++) {
+                    expectedSmall.add("team-" + teamOf(i, k, teams) + ":user-" + i);
+                    for (int l = 0; l < 2; l++) {
+                        expectedLarge.add("user-" + i + ":team-" + teamOf(i, k, teams) + ":team-" + teamOf(i, l, teams));
+                    }
+                }
+            }
+
+            GraqlMatch small = Graql.parseQuery(
+                    "match $t isa team, has symbol $s; (team: $t, member: $u) isa team-member; $u has name $n;"
+            );
+            GraqlMatch large = Graql.parseQuery(
+                    "match $u isa user, has name $n; " +
+                            "(team: $t, member: $u) isa team-member; $t isa team, has symbol $s; " +
+                            "(team: $r, member: $u) isa team-member; $r isa team, has symbol $q;"
+            );
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                // the small structure is planned greedily the first time, and by the solver after, while the large
+                // one is solved up front, and every plan must give the same answers
+                for (int run = 0; run < 3; run++) {
+                    try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                        List<String> smallAnswers = transaction.query().match(small).map(
+                                answer -> answer.get("s").asAttribute().asString().getValue() + ":" +
+                                        answer.get("n").asAttribute().asString().getValue()
+                        ).toList();
+                        assertEquals(expectedSmall.size(), smallAnswers.size());
+                        assertEquals(expectedSmall, new HashSet<>(smallAnswers));
+
+                        List<String> largeAnswers = transaction.query().match(large).map(
+                                answer -> answer.get("n").asAttribute().asString().getValue() + ":" +
+                                        answer.get("s").asAttribute().asString().getValue() + ":" +
+                                        answer.get("q").asAttribute().asString().getValue()
+                        ).toList();
+                        assertEquals(expectedLarge.size(), largeAnswers.size());
+                        assertEquals(expectedLarge, new HashSet<>(largeAnswers));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_cyclic_patterns_agree_with_their_memberships() throws IOException {
+        Util.resetDirectory(dataDir);
+        int users = 60;
+        int teams = 5;
+
+        try (Grakn grakn = RocksGrakn.open(options)) {
+            grakn.databases().create(database);
+            defineSchema(grakn);
+            insertUsers(grakn, users);
+            insertTeams(grakn, teams);
+            insertMemberships(grakn, users, teams, 2);
+
+            Set<String> expected = new HashSet<>();
+            for (int a = 0; a < teams; a++) {
+                for (int b = 0; b < teams; b++) {
+                    Set<Integer> common = members(users, teams, 2, a);
+                    common.retainAll(members(users, teams, 2, b));
+                    for (int u : common) {
+                        for (int v : common) expected.add("user-" + u + ":user-" + v + ":team-" + a + ":team-" + b);
+                    }
+                }
+            }
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    // pairs of members of a pair of teams close a cycle of four memberships
+                    GraqlMatch query = Graql.parseQuery(
+                            "match (team: $a, member: $u) isa team-member; (team: $a, member: $v) isa team-member; " +
+                                    "(team: $b, member: $u) isa team-member; (team: $b, member: $v) isa team-member; " +
+                                    "$u has name $n; $v has name $m; $a has symbol $s; $b has symbol $r;"
+                    );
+                    List<String> answers = transaction.query().match(query).map(
+                            answer -> answer.get("n").asAttribute().asString().getValue() + ":" +
+                                    answer.get("m").asAttribute().asString().getValue() + ":" +
+                                    answer.get("s").asAttribute().asString().getValue() + ":" +
+                                    answer.get("r").asAttribute().asString().getValue()
+                    ).toList();
+                    assertEquals(expected.size(), answers.size());
+                    assertEquals(expected, new HashSet<>(answers));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_answers_across_many_start_vertices() throws IOException {
+        Util.resetDirectory(dataDir);
+        int users = 300;
+        int teams = 10;
+
+        try (Grakn grakn = RocksGrakn.open(options)) {
+            grakn.databases().create(database);
+            defineSchema(grakn);
+            insertUsers(grakn, users);
+            insertTeams(grakn, teams);
+            insertMemberships(grakn, users, teams, 3);
+
+            Set<String> expected = new HashSet<>();
+            for (int i = 0; i < users; i++) {
+                for (int k = 0; k < 3; k++) expected.add("user-" + i + ":team-" + teamOf(i, k, teams));
+            }
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    GraqlMatch query = Graql.parseQuery(
+                            "match $u isa user, has name $n; (team: $t, member: $u) isa team-member; $t has symbol $s;"
+                    );
+                    // a serial query reuses one iterator across every start vertex, and a parallel one several
+                    for (boolean parallel : new boolean[]{false, true}) {
+                        Options.Query queryOptions = new Options.Query().parallel(parallel);
+                        List<String> answers = transaction.query().match(query, new Context.Query(transaction.context(), queryOptions))
+                                .map(answer -> answer.get("n").asAttribute().asString().getValue() + ":" +
+                                        answer.get("s").asAttribute().asString().getValue()).toList();
+                        assertEquals(expected.size(), answers.size());
+                        assertEquals(expected, new HashSet<>(answers));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_plans_fed_back_by_execution_keep_their_answers() throws IOException {
+        Util.resetDirectory(dataDir);
+        int teams = 60;
+        int members = 600;
+
+        try (Grakn grakn = RocksGrakn.open(options)) {
+            grakn.databases().create(database);
+            defineSchema(grakn);
+            insertUsers(grakn, members);
+            insertTeams(grakn, teams);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    // one team holds nearly every membership, so the fan-out observed from it is far above the estimate
+                    for (int i = 0; i < members; i++) {
+                        String team = i < teams ? "team-" + i : "team-0";
+                        GraqlInsert query = Graql.parseQuery(
+                                "match $t isa team, has symbol '" + team + "'; $u isa user, has name 'user-" + i + "'; " +
+                                        "insert (team: $t, member: $u) isa team-member;"
+                        );
+                        transaction.query().insert(query);
+                    }
+                    transaction.commit();
+                }
+
+                Set<String> expectedLarge = new HashSet<>();
+                expectedLarge.add("user-0");
+                for (int i = teams; i < members; i++) expectedLarge.add("user-" + i);
+                Set<String> expectedSmall = new HashSet<>(Arrays.asList("user-1"));
+                String query = "match $u isa user, has name $n; (team: $t, member: $u) isa team-member; $t has symbol ";
+
+                // every run feeds the costs it observed back into the cached planner, which replans the next runs
+                for (int run = 0; run < 5; run++) {
+                    try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                        List<String> large = namesList(transaction, query + "'team-0';");
+                        assertEquals(expectedLarge.size(), large.size());
+                        assertEquals(expectedLarge, new HashSet<>(large));
+                        assertEquals(expectedSmall, names(transaction, query + "'team-1';"));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_has_closures_agree_with_their_owners() throws IOException {
+        Util.resetDirectory(dataDir);
+        int users = 60;
+        int teams = 5;
+
+        try (Grakn grakn = RocksGrakn.open(options)) {
+            grakn.databases().create(database);
+            defineSchema(grakn);
+            insertUsers(grakn, users);
+            insertTeams(grakn, teams);
+            insertMemberships(grakn, users, teams, 2);
+
+            Set<String> expected = new HashSet<>();
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    // every team has the names of the members of the next team, some of which are its own members
+                    for (int team = 0; team < teams; team++) {
+                        Set<Integer> members = members(users, teams, 2, team);
+                        for (int user : members(users, teams, 2, (team + 1) % teams)) {
+                            GraqlInsert query = Graql.parseQuery(
+                                    "match $t isa team, has symbol 'team-" + team + "'; insert $t has name 'user-" + user + "';"
+                            );
+                            transaction.query().insert(query);
+                            if (members.contains(user)) expected.add("team-" + team + ":user-" + user);
+                        }
+                    }
+                    transaction.commit();
+                }
+
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    // the name is bound from both the team and the member, so its has edges are closures
+                    GraqlMatch query = Graql.parseQuery(
+                            "match $t isa team, has symbol $s, has name $n; (team: $t, member: $u) isa team-member; $u has name $n;"
+                    );
+                    List<String> answers = transaction.query().match(query).map(
+                            answer -> answer.get("s").asAttribute().asString().getValue() + ":" +
+                                    answer.get("n").asAttribute().asString().getValue()
+                    ).toList();
+                    assertEquals(expected.size(), answers.size());
+                    assertEquals(expected, new HashSet<>(answers));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_partitioned_scan_agrees_with_serial_scan() throws IOException {
+        Util.resetDirectory(dataDir);
+        int users = 10_000;
+        int buffered = 10;
+
+        try (Grakn grakn = RocksGrakn.open(options)) {
+            grakn.databases().create(database);
+            defineSchema(grakn);
+            insertUsers(grakn, users);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                    // vertices buffered in the transaction are scanned along with the first partition of their type
+                    for (int i = users; i < users + buffered; i++) {
+                        transaction.query().insert(Graql.parseQuery("insert $u isa user, has name 'user-" + i + "';"));
+                    }
+                    GraqlMatch query = Graql.parseQuery("match $u isa user, has name $n;");
+                    List<List<String>> scans = new ArrayList<>();
+                    for (boolean parallel : new boolean[]{false, true}) {
+                        Options.Query queryOptions = new Options.Query().parallel(parallel);
+                        scans.add(transaction.query().match(query, new Context.Query(transaction.context(), queryOptions))
+                                          .map(answer -> answer.get("n").asAttribute().asString().getValue()).toList());
+                    }
+                    assertEquals(users + buffered, scans.get(0).size());
+                    assertEquals(scans.get(0).size(), scans.get(1).size());
+                    assertEquals(new HashSet<>(scans.get(0)), new HashSet<>(scans.get(1)));
+                    assertEquals(users + buffered, new HashSet<>(scans.get(1)).size());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_answers_agree_with_answers_backed_by_maps() throws IOException {
+        Util.resetDirectory(dataDir);
+        int users = 50;
+
+        try (Grakn grakn = RocksGrakn.open(options)) {
+            grakn.databases().create(database);
+            defineSchema(grakn);
+            insertUsers(grakn, users);
+
+            try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+                try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.READ)) {
+                    GraqlMatch query = Graql.parseQuery("match $u isa user, has name $n;");
+                    List<ConceptMap> first = transaction.query().match(query).toList();
+                    List<ConceptMap> second = transaction.query().match(query).toList();
+                    assertEquals(users, first.size());
+                    assertEquals(new HashSet<>(first), new HashSet<>(second));
+
+                    Set<String> names = new HashSet<>();
+                    for (ConceptMap answer : first) {
+                        // answers backed by the vertices of a traversal equal and hash as answers backed by a map do
+                        ConceptMap copy = new ConceptMap(new HashMap<>(answer.concepts()));
+                        assertEquals(copy, answer);
+                        assertEquals(answer, copy);
+                        assertEquals(copy.hashCode(), answer.hashCode());
+
+                        assertEquals(2, answer.concepts().size());
+                        assertTrue(answer.contains("u") && answer.contains("n"));
+                        assertEquals(answer.get("u"), transaction.concepts().getThing(answer.get("u").asThing().getIID()));
+                        names.add(answer.get("n").asAttribute().asString().getValue());
+                    }
+                    assertEquals(users, names.size());
+
+                    GraqlMatch filtered = Graql.parseQuery("match $u isa user, has name $n; get $n;");
+                    transaction.query().match(filtered).forEachRemaining(answer -> {
+                        assertEquals(1, answer.concepts().size());
+                        assertFalse(answer.contains("u"));
+                        assertTrue(names.contains(answer.get("n").asAttribute().asString().getValue()));
+                    });
+                }
+            }
+        }
+    }
+
+    private static Set<String> names(Grakn.Transaction transaction, String query) {
+        return new HashSet<>(namesList(transaction, query));
+    }
+
+    private static List<String> namesList(Grakn.Transaction transaction, String query) {
+        GraqlMatch match = Graql.parseQuery(query);
+        return transaction.query().match(match).map(
+                answer -> answer.get("n").asAttribute().asString().getValue()
+        ).toList();
+    }
+
+    private static void defineSchema(Grakn grakn) throws IOException {
+        try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                GraqlDefine query = Graql.parseQuery(new String(Files.readAllBytes(Paths.get("test/integration/schema.gql")), UTF_8));
+                transaction.query().define(query);
+                transaction.commit();
+            }
+        }
+    }
+
+    private static void insertTeams(Grakn grakn, int count) {
+        try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                for (int i = 0; i < count; i++) {
+                    GraqlInsert query = Graql.parseQuery("insert $t isa team, has symbol 'team-" + i + "';");
+                    transaction.query().insert(query);
+                }
+                transaction.commit();
+            }
+        }
+    }
+
+    /**
+     * Makes every user a member of {@code teamsPerUser} consecutive teams,
+     * starting from the team of the same index, modulo the number of teams.
+     */
+    private static void insertMemberships(Grakn grakn, int users, int teams, int teamsPerUser) {
+        try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                for (int i = 0; i < users; i++) {
+                    for (int k = 0; k < teamsPerUser; k++) {
+                        GraqlInsert query = Graql.parseQuery(
+                                "match $t isa team, has symbol 'team-" + teamOf(i, k, teams) + "'; " +
+                                        "$u isa user, has name 'user-" + i + "'; insert (team: $t, member: $u) isa team-member;"
+                        );
+                        transaction.query().insert(query);
+                    }
+                }
+                transaction.commit();
+            }
+        }
+    }
+
+    private static Set<Integer> members(int users, int teams, int teamsPerUser, int team) {
+        Set<Integer> members = new HashSet<>();
+        for (int i = 0; i < users; i++) {
+            for (int k = 0; k < teamsPerUser; k++) {
+                if (teamOf(i, k, teams) == team) members.add(i);
+            }
+        }
+        return members;
+    }
+
+    private static int teamOf(int user, int membership, int teams) {
+        return (user + membership) % teams;
+    }
+
+    private static void insertUsers(Grakn grakn, int count) {
+        try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (Grakn.Transaction transaction = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                for (int i = 0; i < count; i++) {
+                    GraqlInsert query = Graql.parseQuery("insert $u isa user, has name 'user-" + i + "';");
+                    transaction.query().insert(query);
+                }
+                transaction.commit();
+            }
+        }
+    }
 }
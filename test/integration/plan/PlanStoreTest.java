@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+
+package grakn.core.rocks;
+
+import grakn.core.Grakn;
+import grakn.core.common.parameters.Arguments;
+import grakn.core.common.parameters.Options.Database;
+import grakn.core.graph.SchemaGraph;
+import grakn.core.test.integration.util.Util;
+import grakn.core.traversal.TraversalCache;
+import grakn.core.traversal.planner.GraphPlanner;
+import graql.lang.Graql;
+import graql.lang.query.GraqlQuery;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static grakn.core.common.collection.Bytes.INTEGER_SIZE;
+import static grakn.core.graph.common.SystemBytes.traversalPlanPrefix;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.copyOfRange;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PlanStoreTest {
+
+    private static final Path dataDir = Paths.get(System.getProperty("user.dir")).resolve("plan-store-test");
+    private static final Path logDir = dataDir.resolve("logs");
+    private static final Database options = new Database().dataDir(dataDir).logsDir(logDir);
+    private static final String database = "plan-store-test";
+    private static final String friendsOfFirst =
+            "match $p isa person, has name $n; (friend: $p, friend: $q) isa friendship; $q has name 'person-0';";
+
+    @Test
+    public void test_plans_are_persisted_reloaded_and_reused() throws IOException, InterruptedException {
+        Util.resetDirectory(dataDir);
+        int personCount = 50;
+        Map<String, byte[]> persisted;
+        try (RocksGrakn grakn = RocksGrakn.open(options)) {
+            grakn.databases().create(database);
+            setupSchema(grakn);
+            insertFriendships(grakn, personCount);
+            assertEquals(personCount - 1, friendsOfFirst(grakn).size());
+            persisted = waitForPlans(grakn.databases().get(database));
+            assertFalse(persisted.isEmpty());
+        }
+
+        try (RocksGrakn grakn = RocksGrakn.open(options)) {
+            RocksDatabase rocksDatabase = grakn.databases().get(database);
+            RocksStorage storage = new RocksStorage.Cache(rocksDatabase.rocksSchema());
+            try {
+                long schemaVersion = new SchemaGraph(storage, true).version();
+                TraversalCache.PlanStore plans = rocksDatabase.planStore.load(storage, schemaVersion);
+                persisted.forEach((fingerprint, plan) -> {
+                    Optional<byte[]> reloaded = plans.get(fingerprint).map(GraphPlanner.Plan::bytes);
+                    assertTrue(reloaded.isPresent());
+                    assertArrayEquals(plan, reloaded.get());
+                });
+            } finally {
+                storage.close();
+            }
+
+            // the structures of the same queries have the same fingerprints after a restart, so their plans are
+            // looked up and reused, and any plan that is optimised anew replaces the one that was persisted
+            Set<String> friends = friendsOfFirst(grakn);
+            assertEquals(personCount - 1, friends.size());
+            for (int i = 1; i < personCount; i++) assertTrue(friends.contains("person-" + i));
+            assertEquals(persisted.keySet(), waitForPlans(rocksDatabase).keySet());
+        }
+    }
+
+    private static Set<String> friendsOfFirst(RocksGrakn grakn) {
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction tx = session.transaction(Arguments.Transaction.Type.READ)) {
+                Set<String> names = new HashSet<>();
+                GraqlQuery query = Graql.parseQuery(friendsOfFirst);
+                tx.query().match(query.asMatch()).forEachRemaining(
+                        answer -> names.add(answer.get("n").asAttribute().asString().getValue())
+                );
+                return names;
+            }
+        }
+    }
+
+    private static Map<String, byte[]> waitForPlans(RocksDatabase rocksDatabase) throws InterruptedException {
+        Map<String, byte[]> plans = persistedPlans(rocksDatabase);
+        for (int attempt = 0; plans.isEmpty() && attempt < 100; attempt++) {
+            Thread.sleep(100);
+            plans = persistedPlans(rocksDatabase);
+        }
+        return plans;
+    }
+
+    private static Map<String, byte[]> persistedPlans(RocksDatabase rocksDatabase) {
+        Map<String, byte[]> plans = new HashMap<>();
+        RocksStorage storage = new RocksStorage.Cache(rocksDatabase.rocksSchema());
+        try {
+            storage.iterate(traversalPlanPrefix(), (key, value) -> value).forEachRemaining(value -> {
+                int length = ByteBuffer.wrap(value).getInt();
+                String fingerprint = new String(value, INTEGER_SIZE, length, UTF_8);
+                plans.put(fingerprint, copyOfRange(value, INTEGER_SIZE + length, value.length));
+            });
+        } finally {
+            storage.close();
+        }
+        return plans;
+    }
+
+    private static void setupSchema(RocksGrakn grakn) {
+        try (Grakn.Session session = grakn.session(database, Arguments.Session.Type.SCHEMA)) {
+            try (Grakn.Transaction tx = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                GraqlQuery query = Graql.parseQuery("" +
+                        "define " +
+                        "person sub entity, owns name, plays friendship:friend; " +
+                        "friendship sub relation, relates friend; " +
+                        "name sub attribute, value string; " +
+                        "");
+                tx.query().define(query.asDefine());
+                tx.commit();
+            }
+        }
+    }
+
+    private static void insertFriendships(RocksGrakn grakn, int personCount) {
+        try (RocksSession session = grakn.session(database, Arguments.Session.Type.DATA)) {
+            try (RocksTransaction tx = session.transaction(Arguments.Transaction.Type.WRITE)) {
+                GraqlQuery first = Graql.parseQuery("insert $p isa person, has name 'person-0';");
+                tx.query().insert(first.asInsert());
+                for (int i = 1; i < personCount; i++) {
+                    GraqlQuery query = Graql.parseQuery(
+                            "match $q isa person, has name 'person-0'; " +
+                                    "insert $p isa person, has name 'person-" + i + "'; (friend: $p, friend: $q) isa friendship;"
+                    );
+                    tx.query().insert(query.asInsert());
+                }
+                tx.commit();
+            }
+        }
+    }
+}
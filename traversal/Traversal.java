@@ -22,15 +22,17 @@ import grakn.common.collection.Pair;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.common.parameters.Arguments;
+import grakn.core.common.parameters.Cancellation;
 import grakn.core.common.parameters.Label;
+import grakn.core.common.parameters.MemoryBudget;
 import grakn.core.concurrent.producer.Producer;
 import grakn.core.graph.GraphManager;
 import grakn.core.graph.common.Encoding;
 import grakn.core.graph.iid.VertexIID;
-import grakn.core.graph.vertex.Vertex;
 import grakn.core.traversal.common.Identifier;
 import grakn.core.traversal.common.Identifier.Variable.Retrievable;
 import grakn.core.traversal.common.VertexMap;
+import grakn.core.traversal.iterator.JoinIterator;
 import grakn.core.traversal.planner.Planner;
 import grakn.core.traversal.predicate.Predicate;
 import grakn.core.traversal.predicate.PredicateArgument;
@@ -38,18 +40,20 @@ import grakn.core.traversal.structure.Structure;
 import graql.lang.common.GraqlArg;
 import graql.lang.common.GraqlToken;
 
+import javax.annotation.Nullable;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
 import static grakn.common.collection.Collections.pair;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
-import static grakn.core.common.iterator.Iterators.cartesian;
 import static grakn.core.common.iterator.Iterators.iterate;
 import static grakn.core.concurrent.common.Executors.asyncPool2;
 import static grakn.core.concurrent.producer.Producers.async;
@@ -69,7 +73,7 @@ import static grakn.core.graph.common.Encoding.ValueType.DOUBLE;
 import static grakn.core.graph.common.Encoding.ValueType.LONG;
 import static grakn.core.graph.common.Encoding.ValueType.STRING;
 import static graql.lang.common.GraqlToken.Predicate.SubString.LIKE;
-import static java.util.stream.Collectors.toList;
+import static java.util.Comparator.comparing;
 
 public class Traversal {
 
@@ -98,10 +102,22 @@ public class Traversal {
         return filter;
     }
 
+    void cancellation(Cancellation cancellation) {
+        parameters.cancellation(cancellation);
+    }
+
+    void memoryBudget(MemoryBudget memoryBudget) {
+        parameters.memoryBudget(memoryBudget);
+    }
+
+    void profile(TraversalProfile profile) {
+        parameters.profile(profile);
+    }
+
     void initialise(TraversalCache cache) {
         planners = iterate(structure.asGraphs()).filter(p -> iterate(p.vertices()).anyMatch(
                 v -> v.id().isRetrievable() && filter().contains(v.id().asVariable().asRetrievable())
-        )).map(s -> cache.get(s, Planner::create)).toList();
+        )).map(cache::get).toList();
     }
 
     ResourceIterator<VertexMap> iterator(GraphManager graphMgr, boolean extraPlanningTime) {
@@ -110,14 +126,13 @@ public class Traversal {
             planners.get(0).tryOptimise(graphMgr, extraPlanningTime);
             return planners.get(0).procedure().iterator(graphMgr, parameters, filter());
         } else {
-            return cartesian(planners.parallelStream().map(planner -> {
-                planner.tryOptimise(graphMgr, extraPlanningTime);
-                return planner.procedure().iterator(graphMgr, parameters, filter());
-            }).collect(toList())).map(partialAnswers -> {
-                Map<Retrievable, Vertex<?, ?>> combinedAnswers = new HashMap<>();
-                partialAnswers.forEach(p -> combinedAnswers.putAll(p.map()));
-                return VertexMap.of(combinedAnswers);
-            });
+            List<Planner> joinOrder = joinOrder(graphMgr, extraPlanningTime);
+            return new JoinIterator(
+                    joinOrder.get(0).procedure().iterator(graphMgr, parameters, filter()),
+                    iterate(joinOrder.subList(1, joinOrder.size())).<Supplier<ResourceIterator<VertexMap>>>map(
+                            planner -> () -> planner.procedure().iterator(graphMgr, parameters, filter())
+                    ).toList()
+            );
         }
     }
 
@@ -128,17 +143,32 @@ public class Traversal {
             planners.get(0).tryOptimise(graphMgr, extraPlanningTime);
             return planners.get(0).procedure().producer(graphMgr, parameters, filter(), parallelisation);
         } else {
-            return async(cartesian(planners.parallelStream().map(planner -> {
-                planner.tryOptimise(graphMgr, extraPlanningTime);
-                return planner.procedure().producer(graphMgr, parameters, filter(), parallelisation);
-            }).map(producer -> produce(producer, mode, asyncPool2())).collect(toList())).map(partialAnswers -> {
-                Map<Retrievable, Vertex<?, ?>> combinedAnswers = new HashMap<>();
-                partialAnswers.forEach(p -> combinedAnswers.putAll(p.map()));
-                return VertexMap.of(combinedAnswers);
-            }));
+            List<Planner> joinOrder = joinOrder(graphMgr, extraPlanningTime);
+            Producer<VertexMap> outer = joinOrder.get(0).procedure().producer(
+                    graphMgr, parameters, filter(), parallelisation
+            );
+            return async(new JoinIterator(
+                    produce(outer, mode, asyncPool2()),
+                    iterate(joinOrder.subList(1, joinOrder.size())).<Supplier<ResourceIterator<VertexMap>>>map(
+                            planner -> () -> planner.procedure().iterator(graphMgr, parameters, filter())
+                    ).toList()
+            ));
         }
     }
 
+    /**
+     * Optimises the planners of the disconnected parts of this traversal, and
+     * orders them for a {@code JoinIterator}: the part with the highest cost
+     * comes first, as the outer side of the join is the only one that is never
+     * materialised nor traversed more than once.
+     */
+    private List<Planner> joinOrder(GraphManager graphMgr, boolean extraPlanningTime) {
+        planners.parallelStream().forEach(planner -> planner.tryOptimise(graphMgr, extraPlanningTime));
+        List<Planner> joinOrder = new ArrayList<>(planners);
+        joinOrder.sort(comparing(Planner::estimatedCost).reversed());
+        return joinOrder;
+    }
+
     public void equalThings(Identifier.Variable thing1, Identifier.Variable thing2) {
         assert modifiable;
         structure.equalEdge(structure.thingVertex(thing1), structure.thingVertex(thing2));
@@ -320,10 +350,57 @@ public class Traversal {
 
         private final Map<Identifier.Variable, VertexIID.Thing> iid;
         private final Map<Pair<Identifier.Variable, Predicate.Value<?>>, Set<Value>> values;
+        private final Map<Pair<Identifier.Variable, Predicate.Value<?>>, List<Predicate.Value.Compiled>> compiled;
+        private Cancellation cancellation;
+        private MemoryBudget memoryBudget;
+        private TraversalProfile profile;
 
         public Parameters() {
             iid = new HashMap<>();
             values = new HashMap<>();
+            compiled = new HashMap<>();
+            cancellation = Cancellation.NONE;
+            memoryBudget = MemoryBudget.UNLIMITED;
+            profile = null;
+        }
+
+        /**
+         * Returns the cancellation of the query this traversal is executed
+         * for. It is not part of the equality of parameters, as it does not
+         * change the answers of the traversal, only whether they are computed.
+         */
+        public Cancellation cancellation() {
+            return cancellation;
+        }
+
+        void cancellation(Cancellation cancellation) {
+            this.cancellation = cancellation;
+        }
+
+        /**
+         * Returns the memory budget of the query this traversal is executed
+         * for, which, like its cancellation, is not part of its equality.
+         */
+        public MemoryBudget memoryBudget() {
+            return memoryBudget;
+        }
+
+        void memoryBudget(MemoryBudget memoryBudget) {
+            this.memoryBudget = memoryBudget;
+        }
+
+        /**
+         * Returns the profile to record the execution of this traversal into,
+         * or null if its query is not profiled, which is not part of its
+         * equality either.
+         */
+        @Nullable
+        public TraversalProfile profile() {
+            return profile;
+        }
+
+        void profile(TraversalProfile profile) {
+            this.profile = profile;
         }
 
         public void putIID(Identifier.Variable identifier, VertexIID.Thing iid) {
@@ -332,7 +409,10 @@ public class Traversal {
         }
 
         public void pushValue(Identifier.Variable identifier, Predicate.Value<?> predicate, Value value) {
-            values.computeIfAbsent(pair(identifier, predicate), k -> new HashSet<>()).add(value);
+            Pair<Identifier.Variable, Predicate.Value<?>> key = pair(identifier, predicate);
+            if (values.computeIfAbsent(key, k -> new HashSet<>()).add(value)) {
+                compiled.computeIfAbsent(key, k -> new ArrayList<>()).add(predicate.compile(value));
+            }
         }
 
         public VertexIID.Thing getIID(Identifier.Variable identifier) {
@@ -343,6 +423,15 @@ public class Traversal {
             return values.get(pair(identifier, predicate));
         }
 
+        /**
+         * Returns the tests of the given predicate against each of its values,
+         * which are compiled once as the values are pushed, rather than every
+         * time a procedure vertex filters attributes by them.
+         */
+        public List<Predicate.Value.Compiled> getCompiled(Identifier.Variable identifier, Predicate.Value<?> predicate) {
+            return compiled.get(pair(identifier, predicate));
+        }
+
         @Override
         public String toString() {
             StringBuilder str = new StringBuilder().append("Parameters: {");
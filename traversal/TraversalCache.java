@@ -19,16 +19,63 @@
 package grakn.core.traversal;
 
 import grakn.core.common.cache.CommonCache;
+import grakn.core.traversal.planner.GraphPlanner;
 import grakn.core.traversal.planner.Planner;
 import grakn.core.traversal.structure.Structure;
 
+import java.util.Optional;
+
 public class TraversalCache extends CommonCache<Structure, Planner> {
 
+    private final PlanStore planStore;
+
     public TraversalCache() {
+        this(PlanStore.NONE);
+    }
+
+    public TraversalCache(PlanStore planStore) {
         super();
+        this.planStore = planStore;
     }
 
     public TraversalCache(int size, int timeOutMinutes) {
         super(size, timeOutMinutes);
+        this.planStore = PlanStore.NONE;
+    }
+
+    public Planner get(Structure structure) {
+        return get(structure, this::create);
+    }
+
+    private Planner create(Structure structure) {
+        Planner planner = Planner.create(structure);
+        if (planner.isGraph() && planStore != PlanStore.NONE) {
+            String fingerprint = structure.fingerprint();
+            planStore.get(fingerprint).ifPresent(planner.asGraph()::seed);
+            planner.asGraph().onOptimised(plan -> planStore.put(fingerprint, plan));
+        }
+        return planner;
+    }
+
+    /**
+     * A store of optimised plans that outlives the cache, keyed by the
+     * fingerprints of their structures. A store is responsible for only ever
+     * returning plans that were optimised against the current schema.
+     */
+    public interface PlanStore {
+
+        PlanStore NONE = new PlanStore() {
+            @Override
+            public Optional<GraphPlanner.Plan> get(String fingerprint) {
+                return Optional.empty();
+            }
+
+            @Override
+            public void put(String fingerprint, GraphPlanner.Plan plan) {}
+        };
+
+        Optional<GraphPlanner.Plan> get(String fingerprint);
+
+        void put(String fingerprint, GraphPlanner.Plan plan);
     }
 }
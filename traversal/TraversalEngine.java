@@ -20,6 +20,10 @@ package grakn.core.traversal;
 
 import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.common.parameters.Arguments;
+import grakn.core.common.parameters.Cancellation;
+import grakn.core.common.parameters.MemoryBudget;
+import grakn.core.common.parameters.Options;
+import grakn.core.common.parameters.QueryProfile;
 import grakn.core.concurrent.producer.Producer;
 import grakn.core.graph.GraphManager;
 import grakn.core.traversal.common.Identifier;
@@ -29,6 +33,7 @@ import grakn.core.traversal.procedure.GraphProcedure;
 import java.util.Set;
 
 import static grakn.common.collection.Collections.set;
+import static grakn.core.common.iterator.Iterators.cancellable;
 
 public class TraversalEngine {
 
@@ -54,10 +59,43 @@ public class TraversalEngine {
         return traversal.producer(graphMgr, mode, parallelisation, extraPlanningTime);
     }
 
+    public Producer<VertexMap> producer(Traversal traversal, Arguments.Query.Producer mode,
+                                        int parallelisation, Options.Query options) {
+        traversal.cancellation(options.cancellation());
+        traversal.memoryBudget(options.memoryBudget());
+        profile(traversal, options);
+        return producer(traversal, mode, parallelisation, false);
+    }
+
     public ResourceIterator<VertexMap> iterator(Traversal traversal) {
         return iterator(traversal, false);
     }
 
+    public ResourceIterator<VertexMap> iterator(Traversal traversal, Options.Query options) {
+        profile(traversal, options);
+        return iterator(traversal, options.cancellation(), options.memoryBudget());
+    }
+
+    /**
+     * Returns the answers of a traversal under the given cancellation and
+     * memory budget, without profiling it, for the many small traversals that
+     * a query may run on behalf of each of its answers.
+     */
+    public ResourceIterator<VertexMap> iterator(Traversal traversal, Cancellation cancellation,
+                                                MemoryBudget memoryBudget) {
+        traversal.cancellation(cancellation);
+        traversal.memoryBudget(memoryBudget);
+        return cancellable(iterator(traversal, false), cancellation);
+    }
+
+    private static void profile(Traversal traversal, Options.Query options) {
+        QueryProfile queryProfile = options.queryProfile();
+        if (queryProfile == null) return;
+        TraversalProfile profile = new TraversalProfile();
+        queryProfile.add(profile);
+        traversal.profile(profile);
+    }
+
     public ResourceIterator<VertexMap> iterator(Traversal traversal, boolean extraPlanningTime) {
         traversal.initialise(cache);
         return traversal.iterator(graphMgr, extraPlanningTime);
@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.traversal;
+
+import grakn.core.common.iterator.AbstractResourceIterator;
+import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.common.parameters.QueryProfile;
+import grakn.core.traversal.procedure.GraphProcedure;
+import grakn.core.traversal.procedure.ProcedureEdge;
+import grakn.core.traversal.procedure.ProcedureVertex;
+import grakn.core.traversal.procedure.VertexProcedure;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The profile of a traversal: the procedure of each of its disconnected parts,
+ * as planned, and what executing each edge of the procedure took. Every
+ * iterator that executes a procedure records into the same profile, so the
+ * counters add up the work of all threads executing the traversal.
+ */
+public class TraversalProfile implements QueryProfile.Entry {
+
+    private final ConcurrentMap<Object, ProcedureProfile> procedures;
+
+    TraversalProfile() {
+        procedures = new ConcurrentHashMap<>();
+    }
+
+    public ProcedureProfile procedure(GraphProcedure procedure) {
+        return procedures.computeIfAbsent(procedure, p -> new ProcedureProfile(procedure));
+    }
+
+    public ProcedureProfile procedure(VertexProcedure procedure, ProcedureVertex<?, ?> vertex) {
+        return procedures.computeIfAbsent(procedure, p -> new ProcedureProfile(vertex));
+    }
+
+    public List<ProcedureProfile> procedures() {
+        return new ArrayList<>(procedures.values());
+    }
+
+    @Override
+    public String summary() {
+        StringBuilder str = new StringBuilder("Traversal Profile: {");
+        for (ProcedureProfile procedure : procedures.values()) procedure.summary(str);
+        return str.append("\n}").toString();
+    }
+
+    @Override
+    public String toString() {
+        return summary();
+    }
+
+    public static class ProcedureProfile {
+
+        private final ProcedureVertex<?, ?> start;
+        private final ProcedureEdge<?, ?>[] edges;
+        private final double estimatedCost;
+        private final double[] estimatedCosts;
+        private final LongAdder answers;
+        private final LongAdder[] seeks;
+        private final LongAdder[] rows;
+        private final LongAdder[] nanos;
+
+        private ProcedureProfile(GraphProcedure procedure) {
+            this.start = procedure.startVertex();
+            this.edges = new ProcedureEdge<?, ?>[procedure.edgesCount() + 1];
+            this.estimatedCosts = new double[procedure.edgesCount() + 1];
+            for (int pos = 1; pos <= procedure.edgesCount(); pos++) {
+                edges[pos] = procedure.edge(pos);
+                estimatedCosts[pos] = procedure.estimatedCost(pos);
+            }
+            this.estimatedCost = procedure.estimatedCost();
+            this.answers = new LongAdder();
+            this.seeks = adders(edges.length);
+            this.rows = adders(edges.length);
+            this.nanos = adders(edges.length);
+        }
+
+        private ProcedureProfile(ProcedureVertex<?, ?> vertex) {
+            this.start = vertex;
+            this.edges = new ProcedureEdge<?, ?>[1];
+            this.estimatedCosts = new double[1];
+            this.estimatedCost = Double.NaN;
+            this.answers = new LongAdder();
+            this.seeks = adders(1);
+            this.rows = adders(1);
+            this.nanos = adders(1);
+        }
+
+        private static LongAdder[] adders(int size) {
+            LongAdder[] adders = new LongAdder[size];
+            for (int i = 0; i < size; i++) adders[i] = new LongAdder();
+            return adders;
+        }
+
+        public void answered() {
+            answers.increment();
+        }
+
+        public long answers() {
+            return answers.sum();
+        }
+
+        /**
+         * Wraps the iterator that the edge at the given position branched to,
+         * to count it as a seek, and count the vertices it yields and the time
+         * spent advancing it, which includes the seek itself.
+         */
+        public <T> ResourceIterator<T> branched(int pos, ResourceIterator<T> iterator) {
+            seeks[pos].increment();
+            return new Profiled<>(iterator, rows[pos], nanos[pos]);
+        }
+
+        public void closed(int pos, boolean isClosure, long nanos) {
+            seeks[pos].increment();
+            if (isClosure) rows[pos].increment();
+            this.nanos[pos].add(nanos);
+        }
+
+        private void summary(StringBuilder str) {
+            str.append("\n\tprocedure: { estimated cost: ").append(format(estimatedCost))
+                    .append(", answers: ").append(answers.sum()).append(" }");
+            str.append("\n\t\tstart: ").append(start.id());
+            str.append("\n\t\tvertex order: ").append(vertexOrder());
+            for (int pos = 1; pos < edges.length; pos++) {
+                str.append("\n\t\t").append(edges[pos])
+                        .append(" { estimated fan-out: ").append(format(estimatedCosts[pos]))
+                        .append(", rows: ").append(rows[pos].sum())
+                        .append(", seeks: ").append(seeks[pos].sum())
+                        .append(", time: ").append(format(nanos[pos].sum() / 1_000_000.0)).append(" (ms) }");
+            }
+        }
+
+        private List<String> vertexOrder() {
+            Set<ProcedureVertex<?, ?>> ordered = new LinkedHashSet<>();
+            ordered.add(start);
+            for (int pos = 1; pos < edges.length; pos++) ordered.add(edges[pos].to());
+            List<String> ids = new ArrayList<>(ordered.size());
+            for (ProcedureVertex<?, ?> vertex : ordered) ids.add(vertex.id().toString());
+            return ids;
+        }
+
+        private static String format(double value) {
+            return Double.isNaN(value) ? "unknown" : String.format("%.2f", value);
+        }
+    }
+
+    private static class Profiled<T> extends AbstractResourceIterator<T> {
+
+        private final ResourceIterator<T> iterator;
+        private final LongAdder rows;
+        private final LongAdder nanos;
+
+        private Profiled(ResourceIterator<T> iterator, LongAdder rows, LongAdder nanos) {
+            this.iterator = iterator;
+            this.rows = rows;
+            this.nanos = nanos;
+        }
+
+        @Override
+        public boolean hasNext() {
+            long start = System.nanoTime();
+            boolean hasNext = iterator.hasNext();
+            nanos.add(System.nanoTime() - start);
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            long start = System.nanoTime();
+            T next = iterator.next();
+            nanos.add(System.nanoTime() - start);
+            rows.increment();
+            return next;
+        }
+
+        @Override
+        public void recycle() {
+            iterator.recycle();
+        }
+    }
+}
@@ -21,40 +21,103 @@ package grakn.core.traversal.common;
 import grakn.core.graph.vertex.Vertex;
 import grakn.core.traversal.common.Identifier.Variable.Retrievable;
 
+import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
 import java.util.function.BiConsumer;
 
 import static java.util.Collections.unmodifiableMap;
 
+/**
+ * An answer of a traversal: the vertices of its retrievable identifiers.
+ *
+ * The identifiers are held in an array that is shared by every answer of the
+ * same procedure, the layout of its answers, and the vertices in an array in
+ * the same order, so that an answer is a single array allocation. The hash of
+ * an answer is that of the equivalent map, and it is only copied into one if
+ * it is asked for as a map.
+ */
 public class VertexMap {
 
-    private final Map<Retrievable, Vertex<?, ?>> map;
+    private final Retrievable[] ids;
+    private final Vertex<?, ?>[] vertices;
     private final int hash;
+    private Map<Retrievable, Vertex<?, ?>> map;
 
-    public VertexMap(Map<Retrievable, Vertex<?, ?>> map) {
-        this.map = unmodifiableMap(map);
-        this.hash = Objects.hash(this.map);
+    private VertexMap(Retrievable[] ids, Vertex<?, ?>[] vertices) {
+        assert ids.length == vertices.length;
+        this.ids = ids;
+        this.vertices = vertices;
+        this.hash = hash(ids, vertices);
     }
 
     public static VertexMap of(Map<Retrievable, Vertex<?, ?>> map) {
-        return new VertexMap(map);
+        Retrievable[] ids = new Retrievable[map.size()];
+        Vertex<?, ?>[] vertices = new Vertex<?, ?>[map.size()];
+        int i = 0;
+        for (Map.Entry<Retrievable, Vertex<?, ?>> entry : map.entrySet()) {
+            ids[i] = entry.getKey();
+            vertices[i++] = entry.getValue();
+        }
+        return new VertexMap(ids, vertices);
+    }
+
+    /**
+     * Returns the answer of the given vertices, in the order of the given
+     * identifiers, neither of which may be modified afterwards.
+     */
+    public static VertexMap of(Retrievable[] ids, Vertex<?, ?>[] vertices) {
+        return new VertexMap(ids, vertices);
+    }
+
+    private static int hash(Retrievable[] ids, Vertex<?, ?>[] vertices) {
+        int hash = 0;
+        for (int i = 0; i < ids.length; i++) hash += ids[i].hashCode() ^ vertices[i].hashCode();
+        return hash;
+    }
+
+    public Retrievable[] ids() {
+        return ids;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public Retrievable id(int index) {
+        return ids[index];
+    }
+
+    public Vertex<?, ?> vertex(int index) {
+        return vertices[index];
+    }
+
+    public int indexOf(Retrievable id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i].equals(id)) return i;
+        }
+        return -1;
     }
 
     public Map<Retrievable, Vertex<?, ?>> map() {
+        if (map == null) {
+            Map<Retrievable, Vertex<?, ?>> map = new HashMap<>((int) (ids.length / 0.75f) + 1);
+            for (int i = 0; i < ids.length; i++) map.put(ids[i], vertices[i]);
+            this.map = unmodifiableMap(map);
+        }
         return map;
     }
 
     public Vertex<?, ?> get(Retrievable id) {
-        return map.get(id);
+        int index = indexOf(id);
+        return index < 0 ? null : vertices[index];
     }
 
     public boolean containsKey(Retrievable id) {
-        return map.containsKey(id);
+        return indexOf(id) >= 0;
     }
 
     public void forEach(BiConsumer<Retrievable, Vertex<?, ?>> action) {
-        map.forEach(action);
+        for (int i = 0; i < ids.length; i++) action.accept(ids[i], vertices[i]);
     }
 
     @Override
@@ -63,7 +126,17 @@ public class VertexMap {
         if (o == null || getClass() != o.getClass()) return false;
 
         VertexMap that = (VertexMap) o;
-        return this.map.equals(that.map);
+        if (this.hash != that.hash || this.ids.length != that.ids.length) return false;
+        if (this.ids == that.ids) {
+            for (int i = 0; i < vertices.length; i++) {
+                if (!this.vertices[i].equals(that.vertices[i])) return false;
+            }
+        } else {
+            for (int i = 0; i < ids.length; i++) {
+                if (!this.vertices[i].equals(that.get(this.ids[i]))) return false;
+            }
+        }
+        return true;
     }
 
     @Override
@@ -28,6 +28,8 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
+import static java.util.stream.Collectors.joining;
+
 public abstract class TraversalVertex<EDGE extends TraversalEdge<?, ?>, PROPERTIES extends TraversalVertex.Properties> {
 
     private final Identifier identifier;
@@ -104,6 +106,14 @@ public abstract class TraversalVertex<EDGE extends TraversalEdge<?, ?>, PROPERTI
 
     public static abstract class Properties {
 
+        /**
+         * Sets are printed in sorted order, so that equal properties are always
+         * printed the same way, and can be fingerprinted by their string.
+         */
+        static String sorted(Set<?> set) {
+            return set.stream().map(Object::toString).sorted().collect(joining(", ", "[", "]"));
+        }
+
         @Override
         public abstract String toString();
 
@@ -152,7 +162,7 @@ public abstract class TraversalVertex<EDGE extends TraversalEdge<?, ?>, PROPERTI
             @Override
             public String toString() {
                 return String.format("[thing] { hasIID: %s, types: %s, predicates: %s }",
-                                     hasIID, types, predicates);
+                                     hasIID, sorted(types), sorted(predicates));
             }
 
             @Override
@@ -228,7 +238,7 @@ public abstract class TraversalVertex<EDGE extends TraversalEdge<?, ?>, PROPERTI
             @Override
             public String toString() {
                 return String.format("[type] { labels: %s, abstract: %s, value: %s, regex: %s }",
-                                     labels, isAbstract, valueTypes, regex);
+                                     sorted(labels), isAbstract, sorted(valueTypes), regex);
             }
 
             @Override
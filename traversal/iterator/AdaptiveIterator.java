@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.traversal.iterator;
+
+import grakn.core.common.iterator.AbstractResourceIterator;
+import grakn.core.graph.GraphManager;
+import grakn.core.traversal.Traversal;
+import grakn.core.traversal.common.Identifier.Variable.Retrievable;
+import grakn.core.traversal.common.VertexMap;
+import grakn.core.traversal.procedure.GraphProcedure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Iterates the answers of a graph procedure, and switches to a procedure
+ * re-optimised with the costs observed so far if, while the first answers
+ * are returned, the start vertices or the fan-out of an edge turn out to be
+ * far more than the planner estimated.
+ *
+ * The procedure is re-optimised on the planner pool, while this iterator
+ * carries on with the current procedure, and it is only switched once the
+ * solver is done. The procedure switched to starts over, and yields the
+ * answers returned before the switch again, so this iterator must be made
+ * distinct by the caller. A procedure is switched at most once, and only
+ * within the first answers of the adaptation window, to bound the work that
+ * is thrown away.
+ */
+public class AdaptiveIterator extends AbstractResourceIterator<VertexMap> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptiveIterator.class);
+    static final int ADAPTATION_WINDOW = 4_096;
+
+    private final GraphManager graphMgr;
+    private final Traversal.Parameters params;
+    private final Set<Retrievable> filter;
+    private GraphProcedure procedure;
+    private GraphIterator iterator;
+    private CompletableFuture<Optional<GraphProcedure>> reoptimised;
+    private boolean isAdaptable;
+    private int answers;
+
+    public AdaptiveIterator(GraphManager graphMgr, GraphProcedure procedure,
+                            Traversal.Parameters params, Set<Retrievable> filter) {
+        this.graphMgr = graphMgr;
+        this.params = params;
+        this.filter = filter;
+        this.procedure = procedure;
+        this.iterator = iterator(procedure);
+        this.reoptimised = null;
+        this.isAdaptable = true;
+        this.answers = 0;
+    }
+
+    private GraphIterator iterator(GraphProcedure procedure) {
+        return new GraphIterator(graphMgr, procedure.startVertex().iterator(graphMgr, params), procedure, params, filter);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (isAdaptable) adapt();
+        return iterator.hasNext();
+    }
+
+    private void adapt() {
+        if (reoptimised == null) {
+            if (iterator.isMisestimated()) {
+                iterator.report();
+                reoptimised = procedure.reoptimise(graphMgr);
+            }
+        } else if (reoptimised.isDone()) {
+            isAdaptable = false;
+            if (reoptimised.isCompletedExceptionally()) {
+                if (LOG.isDebugEnabled()) LOG.debug("Carried on with the current procedure, as re-optimising it failed");
+            } else if (reoptimised.join().isPresent()) {
+                if (LOG.isDebugEnabled()) LOG.debug("Switched to a re-optimised procedure after {} answers", answers);
+                iterator.recycle();
+                procedure = reoptimised.join().get();
+                iterator = iterator(procedure);
+            }
+        }
+    }
+
+    @Override
+    public VertexMap next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        if (isAdaptable && ++answers >= ADAPTATION_WINDOW) isAdaptable = false;
+        return iterator.next();
+    }
+
+    @Override
+    public void recycle() {
+        iterator.recycle();
+    }
+}
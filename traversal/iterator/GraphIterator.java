@@ -25,39 +25,76 @@ import grakn.core.graph.GraphManager;
 import grakn.core.graph.vertex.ThingVertex;
 import grakn.core.graph.vertex.Vertex;
 import grakn.core.traversal.Traversal;
+import grakn.core.traversal.TraversalProfile;
 import grakn.core.traversal.common.Identifier;
 import grakn.core.traversal.common.Identifier.Variable.Retrievable;
 import grakn.core.traversal.common.VertexMap;
 import grakn.core.traversal.procedure.GraphProcedure;
 import grakn.core.traversal.procedure.ProcedureEdge;
+import grakn.core.traversal.procedure.ProcedureVertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.stream.Collectors;
 
+import static grakn.common.collection.Collections.list;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
 import static grakn.core.common.exception.ErrorMessage.Transaction.TRANSACTION_CLOSED;
-import static java.util.stream.Collectors.toMap;
+import static grakn.core.common.iterator.Iterators.single;
+import static java.util.Comparator.comparing;
 
+/**
+ * Iterates the answers of a graph procedure from each of the given start
+ * vertices in turn, reusing the same state for all of them.
+ *
+ * The answer being computed is kept as an array of vertices, indexed by the
+ * position of each procedure vertex, and so are the iterators of the branch
+ * edges, so advancing the iterator never hashes identifiers. Answers are only
+ * turned into maps, of the filtered vertices alone, when they are returned.
+ *
+ * The iterator also counts how many vertices each branch edge actually
+ * branched to, over the branches it exhausted, and gives these counts back to
+ * the procedure once it is done, for the planner to learn from.
+ */
 public class GraphIterator extends AbstractResourceIterator<VertexMap> {
 
     private static final Logger LOG = LoggerFactory.getLogger(GraphIterator.class);
+    private static final int INTERSECTION_BUDGET = 10_000;
+    private static final int CLOSURE_SCAN_THRESHOLD = 16;
 
     private final GraphManager graphMgr;
+    private final ResourceIterator<? extends Vertex<?, ?>> starts;
     private final GraphProcedure procedure;
     private final Traversal.Parameters params;
-    private final Set<Retrievable> filter;
-    private final Map<Identifier, ResourceIterator<? extends Vertex<?, ?>>> iterators;
-    private final Map<Identifier, Vertex<?, ?>> answer;
+    private final ResourceIterator<? extends Vertex<?, ?>>[] iterators;
+    private final Vertex<?, ?>[] answer;
+    private final Retrievable[] filteredIds;
+    private final int[] filteredIndices;
     private final Scopes scopes;
     private final SeekStack seekStack;
     private final int edgeCount;
+    private final boolean[] isObserved;
+    private final long[] branchRows;
+    private final long[] observedBranches;
+    private final long[] observedRows;
+    private final TraversalProfile.ProcedureProfile profile;
+    private final Vertex<?, ?>[] closureFroms;
+    private final int[] closureProbes;
+    private final Set<ThingVertex>[] closureAdjacencies;
+    private final boolean[] closureOverruns;
+    private long startCount;
+    private boolean isReported;
     private int computeNextSeekPos;
     private State state;
 
@@ -65,22 +102,70 @@ public class GraphIterator extends AbstractResourceIterator<VertexMap> {
 
     public GraphIterator(GraphManager graphMgr, Vertex<?, ?> start, GraphProcedure procedure,
                          Traversal.Parameters params, Set<Retrievable> filter) {
+        this(graphMgr, single(start), procedure, params, filter);
+    }
+
+    @SuppressWarnings("unchecked")
+    public GraphIterator(GraphManager graphMgr, ResourceIterator<? extends Vertex<?, ?>> starts,
+                         GraphProcedure procedure, Traversal.Parameters params, Set<Retrievable> filter) {
         assert procedure.edgesCount() > 0;
         this.graphMgr = graphMgr;
+        this.starts = starts;
         this.procedure = procedure;
         this.params = params;
-        this.filter = filter;
         this.edgeCount = procedure.edgesCount();
-        this.iterators = new HashMap<>();
+        this.iterators = (ResourceIterator<? extends Vertex<?, ?>>[]) new ResourceIterator<?>[procedure.verticesCount()];
+        this.answer = new Vertex<?, ?>[procedure.verticesCount()];
+        List<ProcedureVertex<?, ?>> filtered = procedure.vertices().filter(
+                v -> v.id().isRetrievable() && filter.contains(v.id().asVariable().asRetrievable())
+        ).collect(Collectors.toList());
+        this.filteredIds = new Retrievable[filtered.size()];
+        this.filteredIndices = new int[filtered.size()];
+        for (int i = 0; i < filtered.size(); i++) {
+            filteredIds[i] = filtered.get(i).id().asVariable().asRetrievable();
+            filteredIndices[i] = filtered.get(i).index();
+        }
         this.scopes = new Scopes();
         this.seekStack = new SeekStack(edgeCount);
+        this.isObserved = new boolean[edgeCount + 1];
+        for (int pos = 1; pos <= edgeCount; pos++) isObserved[pos] = isObservable(procedure.edge(pos));
+        this.branchRows = new long[edgeCount + 1];
+        this.observedBranches = new long[edgeCount + 1];
+        this.observedRows = new long[edgeCount + 1];
+        this.startCount = 0;
+        this.isReported = false;
+        this.profile = params.profile() == null ? null : params.profile().procedure(procedure);
+        this.closureFroms = new Vertex<?, ?>[edgeCount + 1];
+        this.closureProbes = new int[edgeCount + 1];
+        this.closureAdjacencies = (Set<ThingVertex>[]) new Set<?>[edgeCount + 1];
+        this.closureOverruns = new boolean[edgeCount + 1];
         this.state = State.INIT;
-        this.answer = new HashMap<>();
+    }
 
-        Identifier startId = procedure.startVertex().id();
-        this.answer.put(startId, start);
-        if (startId.isScoped()) {
-            Identifier.Variable scope = startId.asScoped().scope();
+    /**
+     * Only the fan-out of branch edges that iterate their full adjacency is
+     * comparable with the cost the planner estimated for them: intersected
+     * and limited branches yield fewer vertices by design.
+     */
+    private static boolean isObservable(ProcedureEdge<?, ?> edge) {
+        return !edge.isClosureEdge() && edge.to().intersectedEdges().isEmpty() && !isLimited(edge);
+    }
+
+    private static boolean isLimited(ProcedureEdge<?, ?> edge) {
+        // TODO: This optimisation can apply to more situations, such as to
+        //       an entire tree, where none of the leaves are referenced by name
+        return !edge.to().id().isName() && edge.to().outs().isEmpty() && edge.to().ins().size() == 1;
+    }
+
+    private void initialise(Vertex<?, ?> start) {
+        Arrays.fill(answer, null);
+        Arrays.fill(iterators, null);
+        scopes.clear();
+        seekStack.clear();
+        ProcedureVertex<?, ?> startVertex = procedure.startVertex();
+        answer[startVertex.index()] = start;
+        if (startVertex.id().isScoped()) {
+            Identifier.Variable scope = startVertex.id().asScoped().scope();
             Scopes.Scoped scoped = scopes.getOrInitialise(scope);
             scoped.push(start.asThing(), 0);
         }
@@ -92,15 +177,16 @@ public class GraphIterator extends AbstractResourceIterator<VertexMap> {
             if (state == State.COMPLETED) return false;
             else if (state == State.FETCHED) return true;
             else if (state == State.INIT) {
-                if (computeFirst(1)) state = State.FETCHED;
+                if (computeFirstFromNextStart()) state = State.FETCHED;
                 else state = State.COMPLETED;
             } else if (state == State.EMPTY) {
                 computeNextSeekPos = edgeCount;
-                if (computeNext(edgeCount)) state = State.FETCHED;
+                if (computeNext(edgeCount) || computeFirstFromNextStart()) state = State.FETCHED;
                 else state = State.COMPLETED;
             } else {
                 throw GraknException.of(ILLEGAL_STATE);
             }
+            if (state == State.COMPLETED) report();
             return state == State.FETCHED;
         } catch (Throwable e) {
             // note: catching runtime exception until we can gracefully interrupt running queries on tx close
@@ -115,40 +201,53 @@ public class GraphIterator extends AbstractResourceIterator<VertexMap> {
         }
     }
 
+    private boolean computeFirstFromNextStart() {
+        while (starts.hasNext()) {
+            initialise(starts.next());
+            startCount++;
+            if (computeFirst(1)) return true;
+        }
+        return false;
+    }
+
     private boolean computeFirst(int pos) {
-        if (answer.containsKey(procedure.edge(pos).to().id())) return computeFirstClosure(pos);
+        if (answer[procedure.edge(pos).to().index()] != null) return computeFirstClosure(pos);
         else return computeFirstBranch(pos);
     }
 
     private boolean computeFirstBranch(int pos) {
         ProcedureEdge<?, ?> edge = procedure.edge(pos);
-        Identifier toID = edge.to().id();
-        Identifier fromId = edge.from().id();
-        ResourceIterator<? extends Vertex<?, ?>> toIter = branch(answer.get(fromId), edge);
+        int to = edge.to().index();
+        ResourceIterator<? extends Vertex<?, ?>> toIter = branch(answer[edge.from().index()], edge);
 
         if (toIter.hasNext()) {
-            iterators.put(toID, toIter);
-            answer.put(toID, toIter.next());
+            iterators[to] = toIter;
+            answer[to] = toIter.next();
+            branchRows[pos]++;
             if (pos == edgeCount) return true;
             while (!computeFirst(pos + 1)) {
                 if (pos == seekStack.peekLastPos()) {
                     seekStack.popLastPos();
-                    if (toIter.hasNext()) answer.put(toID, toIter.next());
-                    else {
+                    if (toIter.hasNext()) {
+                        answer[to] = toIter.next();
+                        branchRows[pos]++;
+                    } else {
+                        exhausted(pos);
                         popScope(pos);
-                        answer.remove(toID);
+                        answer[to] = null;
                         branchFailure(edge);
                         return false;
                     }
                 } else {
                     popScope(pos);
-                    answer.remove(toID);
+                    answer[to] = null;
                     toIter.recycle();
                     return false;
                 }
             }
             return true;
         } else {
+            exhausted(pos);
             branchFailure(edge);
             return false;
         }
@@ -156,7 +255,7 @@ public class GraphIterator extends AbstractResourceIterator<VertexMap> {
 
     private boolean computeFirstClosure(int pos) {
         ProcedureEdge<?, ?> edge = procedure.edge(pos);
-        if (isClosure(edge, answer.get(edge.from().id()), answer.get(edge.to().id()))) {
+        if (isClosure(edge, answer[edge.from().index()], answer[edge.to().index()])) {
             if (pos == edgeCount) return true;
             else return computeFirst(pos + 1);
         } else {
@@ -192,31 +291,32 @@ public class GraphIterator extends AbstractResourceIterator<VertexMap> {
         if (pos == 0) return false;
 
         ProcedureEdge<?, ?> edge = procedure.edge(pos);
-        Identifier toID = edge.to().id();
+        int to = edge.to().index();
 
         if (pos == computeNextSeekPos) {
             computeNextSeekPos = edgeCount;
         } else if (pos > computeNextSeekPos) {
-            if (!edge.isClosureEdge()) iterators.get(toID).recycle();
+            if (!edge.isClosureEdge()) iterators[to].recycle();
             if (!backTrack(pos)) return false;
 
             if (edge.isClosureEdge()) {
-                Vertex<?, ?> fromVertex = answer.get(edge.from().id());
-                Vertex<?, ?> toVertex = answer.get(edge.to().id());
+                Vertex<?, ?> fromVertex = answer[edge.from().index()];
+                Vertex<?, ?> toVertex = answer[edge.to().index()];
                 if (isClosure(edge, fromVertex, toVertex)) return true;
                 else return computeNextClosure(pos);
             } else {
-                ResourceIterator<? extends Vertex<?, ?>> toIter = branch(answer.get(edge.from().id()), edge);
-                iterators.put(toID, toIter);
+                iterators[to] = branch(answer[edge.from().index()], edge);
             }
         }
 
         if (edge.isClosureEdge()) {
             return computeNextClosure(pos);
-        } else if (iterators.get(toID).hasNext()) {
-            answer.put(toID, iterators.get(toID).next());
+        } else if (iterators[to].hasNext()) {
+            answer[to] = iterators[to].next();
+            branchRows[pos]++;
             return true;
         } else {
+            exhausted(pos);
             return computeNextBranch(pos);
         }
     }
@@ -226,8 +326,8 @@ public class GraphIterator extends AbstractResourceIterator<VertexMap> {
         do {
 
             if (backTrack(pos)) {
-                Vertex<?, ?> fromVertex = answer.get(edge.from().id());
-                Vertex<?, ?> toVertex = answer.get(edge.to().id());
+                Vertex<?, ?> fromVertex = answer[edge.from().index()];
+                Vertex<?, ?> toVertex = answer[edge.to().index()];
                 if (isClosure(edge, fromVertex, toVertex)) return true;
             } else {
                 return false;
@@ -241,9 +341,10 @@ public class GraphIterator extends AbstractResourceIterator<VertexMap> {
 
         do {
             if (backTrack(pos)) {
-                Vertex<?, ?> fromVertex = answer.get(edge.from().id());
+                Vertex<?, ?> fromVertex = answer[edge.from().index()];
                 newIter = branch(fromVertex, edge);
                 if (!newIter.hasNext()) {
+                    exhausted(pos);
                     if (edge.onlyStartsFromRelation() && !scopes.get(edge.from().id().asVariable()).isEmpty()) {
                         computeNextSeekPos = scopes.get(edge.from().id().asVariable()).lastEdgeOrder();
                     } else if (!edge.from().ins().isEmpty()) {
@@ -257,22 +358,92 @@ public class GraphIterator extends AbstractResourceIterator<VertexMap> {
                 return false;
             }
         } while (!newIter.hasNext());
-        iterators.put(edge.to().id(), newIter);
-        answer.put(edge.to().id(), newIter.next());
+        iterators[edge.to().index()] = newIter;
+        answer[edge.to().index()] = newIter.next();
+        branchRows[pos]++;
         return true;
     }
 
+    private void exhausted(int pos) {
+        if (isObserved[pos]) {
+            observedBranches[pos]++;
+            observedRows[pos] += branchRows[pos];
+        }
+    }
+
+    /**
+     * Returns whether what this iterator observed so far is far more than the
+     * planner estimated for the procedure it iterates.
+     */
+    boolean isMisestimated() {
+        return procedure.isMisestimated(startCount, observedBranches, observedRows);
+    }
+
+    void report() {
+        if (!isReported) {
+            isReported = true;
+            procedure.observe(observedBranches, observedRows);
+        }
+    }
+
     private boolean isClosure(ProcedureEdge<?, ?> edge, Vertex<?, ?> fromVertex, Vertex<?, ?> toVertex) {
+        if (profile == null) return isClosureUnprofiled(edge, fromVertex, toVertex);
+        long start = System.nanoTime();
+        boolean isClosure = isClosureUnprofiled(edge, fromVertex, toVertex);
+        profile.closed(edge.order(), isClosure, System.nanoTime() - start);
+        return isClosure;
+    }
+
+    private boolean isClosureUnprofiled(ProcedureEdge<?, ?> edge, Vertex<?, ?> fromVertex, Vertex<?, ?> toVertex) {
         if (edge.isRolePlayer()) {
             Scopes.Scoped scoped = scopes.getOrInitialise(edge.asRolePlayer().scope());
             return edge.asRolePlayer().isClosure(graphMgr, fromVertex, toVertex, params, scoped);
+        } else if (edge.isIntersectable()) {
+            return isClosureInAdjacency(edge, fromVertex, toVertex);
         } else {
             return edge.isClosure(graphMgr, fromVertex, toVertex, params);
         }
     }
 
+    /**
+     * Checks a closure edge with a point read of the edge, until it has been
+     * checked enough times in a row from the same vertex, typically because
+     * the vertex it ends at is iterated right before it. The adjacency of the
+     * vertex it comes from is then scanned into memory once, and every check
+     * from that vertex after that is answered from memory, rather than from
+     * another random read of the storage. Adjacencies that overrun the budget
+     * are left to point reads.
+     */
+    private boolean isClosureInAdjacency(ProcedureEdge<?, ?> edge, Vertex<?, ?> fromVertex, Vertex<?, ?> toVertex) {
+        int pos = edge.order();
+        closureFrom(pos, fromVertex);
+        if (closureAdjacencies[pos] == null && !closureOverruns[pos] && ++closureProbes[pos] >= CLOSURE_SCAN_THRESHOLD) {
+            scanClosure(edge, fromVertex);
+        }
+        if (closureAdjacencies[pos] != null) return closureAdjacencies[pos].contains(toVertex);
+        else return edge.isClosure(graphMgr, fromVertex, toVertex, params);
+    }
+
+    private void closureFrom(int pos, Vertex<?, ?> fromVertex) {
+        if (!fromVertex.equals(closureFroms[pos])) {
+            closureFroms[pos] = fromVertex;
+            closureProbes[pos] = 0;
+            closureAdjacencies[pos] = null;
+            closureOverruns[pos] = false;
+        }
+    }
+
+    private void scanClosure(ProcedureEdge<?, ?> closure, Vertex<?, ?> fromVertex) {
+        int pos = closure.order();
+        closureAdjacencies[pos] = adjacency(closure, fromVertex);
+        closureOverruns[pos] = closureAdjacencies[pos] == null;
+    }
+
     private ResourceIterator<? extends Vertex<?, ?>> branch(Vertex<?, ?> fromVertex, ProcedureEdge<?, ?> edge) {
+        params.cancellation().check();
+        branchRows[edge.order()] = 0;
         ResourceIterator<? extends Vertex<?, ?>> toIter;
+        List<Set<ThingVertex>> intersection = intersection(edge);
         if (edge.to().id().isScoped()) {
             Identifier.Variable scope = edge.to().id().asScoped().scope();
             Scopes.Scoped scoped = scopes.getOrInitialise(scope);
@@ -287,7 +458,9 @@ public class GraphIterator extends AbstractResourceIterator<VertexMap> {
         } else if (edge.isRolePlayer()) {
             Identifier.Variable scope = edge.asRolePlayer().scope();
             Scopes.Scoped scoped = scopes.getOrInitialise(scope);
-            toIter = edge.asRolePlayer().branchEdge(graphMgr, fromVertex, params).filter(e -> {
+            toIter = edge.asRolePlayer().branchEdge(graphMgr, fromVertex, params).filter(
+                    e -> isIntersected(edge.direction().isForward() ? e.to() : e.from(), intersection)
+            ).filter(e -> {
                 if (scoped.contains(e.optimised().get())) return false;
                 else {
                     if (scoped.orderVisited(edge.order())) scoped.replaceLast(e.optimised().get(), edge.order());
@@ -295,17 +468,75 @@ public class GraphIterator extends AbstractResourceIterator<VertexMap> {
                     return true;
                 }
             }).map(e -> edge.direction().isForward() ? e.to() : e.from());
+        } else if (!intersection.isEmpty()) {
+            toIter = edge.branch(graphMgr, fromVertex, params).filter(v -> isIntersected(v, intersection));
         } else {
             toIter = edge.branch(graphMgr, fromVertex, params);
         }
-        if (!edge.to().id().isName() && edge.to().outs().isEmpty() && edge.to().ins().size() == 1) {
-            // TODO: This optimisation can apply to more situations, such as to
-            //       an entire tree, where none of the leaves are referenced by name
-            toIter = toIter.limit(1);
-        }
+        if (isLimited(edge)) toIter = toIter.limit(1);
+        if (profile != null) toIter = profile.branched(edge.order(), toIter);
         return toIter;
     }
 
+    /**
+     * Materialises the adjacency of every closure edge that the vertex this
+     * edge branches to is intersected with, from the vertices that these
+     * closures come from, which are already bound. The adjacencies are sorted
+     * by size, so that the smallest one rejects the most candidates first.
+     *
+     * An adjacency is only scanned once per vertex its closure comes from, and
+     * is shared with the checks of the closure itself. Closures whose
+     * adjacency overran the budget from the same vertex are not scanned again,
+     * nor are closures that are not worth scanning, and both are left to be
+     * checked once the iterator reaches their order.
+     */
+    private List<Set<ThingVertex>> intersection(ProcedureEdge<?, ?> edge) {
+        if (edge.to().intersectedEdges().isEmpty()) return list();
+        List<Set<ThingVertex>> intersection = new ArrayList<>();
+        for (ProcedureEdge<?, ?> closure : edge.to().intersectedEdges()) {
+            int pos = closure.order();
+            Vertex<?, ?> fromVertex = answer[closure.from().index()];
+            assert fromVertex != null;
+            closureFrom(pos, fromVertex);
+            if (closureAdjacencies[pos] == null && !closureOverruns[pos] && isWorthScanning(edge, closure)) {
+                scanClosure(closure, fromVertex);
+            }
+            if (closureAdjacencies[pos] != null) intersection.add(closureAdjacencies[pos]);
+        }
+        intersection.sort(comparing(Set::size));
+        return intersection;
+    }
+
+    /**
+     * Scanning the adjacency of a closure only pays off if it costs no more
+     * than the branch it filters, so we skip closures that the planner
+     * estimates to fan out more than the edge being branched, or more than the
+     * budget. Closures without an estimate are only bounded by the budget.
+     */
+    private boolean isWorthScanning(ProcedureEdge<?, ?> edge, ProcedureEdge<?, ?> closure) {
+        double closureFanOut = procedure.estimatedCost(closure.order());
+        double edgeFanOut = procedure.estimatedCost(edge.order());
+        if (Double.isNaN(closureFanOut)) return true;
+        else return closureFanOut <= INTERSECTION_BUDGET && (Double.isNaN(edgeFanOut) || closureFanOut <= edgeFanOut);
+    }
+
+    @Nullable
+    private Set<ThingVertex> adjacency(ProcedureEdge<?, ?> closure, Vertex<?, ?> fromVertex) {
+        ResourceIterator<? extends ThingVertex> adjacents = closure.adjacents(graphMgr, fromVertex);
+        Set<ThingVertex> adjacency = new HashSet<>();
+        while (adjacents.hasNext() && adjacency.size() < INTERSECTION_BUDGET) adjacency.add(adjacents.next());
+        if (!adjacents.hasNext()) return adjacency;
+        adjacents.recycle();
+        return null;
+    }
+
+    private static boolean isIntersected(Vertex<?, ?> vertex, List<Set<ThingVertex>> intersection) {
+        for (Set<ThingVertex> adjacency : intersection) {
+            if (!adjacency.contains(vertex)) return false;
+        }
+        return true;
+    }
+
     private boolean backTrack(int pos) {
         popScope(pos);
         return computeNext(pos - 1);
@@ -326,19 +557,21 @@ public class GraphIterator extends AbstractResourceIterator<VertexMap> {
     public VertexMap next() {
         if (!hasNext()) throw new NoSuchElementException();
         state = State.EMPTY;
+        if (profile != null) profile.answered();
         return toVertexMap(answer);
     }
 
-    private VertexMap toVertexMap(Map<Identifier, Vertex<?, ?>> answer) {
-        return VertexMap.of(
-                answer.entrySet().stream()
-                        .filter(e -> e.getKey().isRetrievable() && filter.contains(e.getKey().asVariable().asRetrievable()))
-                        .collect(toMap(e -> e.getKey().asVariable().asRetrievable(), Map.Entry::getValue))
-        );
+    private VertexMap toVertexMap(Vertex<?, ?>[] answer) {
+        Vertex<?, ?>[] vertices = new Vertex<?, ?>[filteredIds.length];
+        for (int i = 0; i < filteredIds.length; i++) vertices[i] = answer[filteredIndices[i]];
+        return VertexMap.of(filteredIds, vertices);
     }
 
     @Override
-    public void recycle() {}
+    public void recycle() {
+        report();
+        starts.recycle();
+    }
 
     public static class Scopes {
 
@@ -352,6 +585,10 @@ public class GraphIterator extends AbstractResourceIterator<VertexMap> {
             return scoped.computeIfAbsent(scope, s -> new Scoped());
         }
 
+        public void clear() {
+            scoped.clear();
+        }
+
         public Scoped get(Identifier.Variable scope) {
             assert scoped.containsKey(scope);
             return scoped.get(scope);
@@ -422,6 +659,11 @@ public class GraphIterator extends AbstractResourceIterator<VertexMap> {
             lastPos = 0;
         }
 
+        private void clear() {
+            Arrays.fill(seek, false);
+            lastPos = 0;
+        }
+
         private void addSeeks(Collection<Integer> seeks) {
             seeks.forEach(this::setSeek);
         }
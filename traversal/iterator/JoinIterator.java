@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.traversal.iterator;
+
+import grakn.core.common.iterator.AbstractResourceIterator;
+import grakn.core.common.iterator.ResourceIterator;
+import grakn.core.graph.vertex.Vertex;
+import grakn.core.traversal.common.Identifier.Variable.Retrievable;
+import grakn.core.traversal.common.VertexMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+import static grakn.core.common.iterator.Iterators.iterate;
+
+/**
+ * Joins the answers of the disconnected parts of a traversal, which share no
+ * vertices, by combining every answer of each part with every answer of the
+ * others.
+ *
+ * The first part is the outer side of the join, and is only ever iterated
+ * once, so it should be the part expected to have the most answers. Every
+ * other part is iterated once in full for each combination of answers of the
+ * parts before it: its answers are materialised the first time, so that it is
+ * only traversed once, unless it turns out to have more answers than the
+ * materialisation budget, in which case it is traversed again every time, to
+ * bound the memory that a join may hold on to.
+ */
+public class JoinIterator extends AbstractResourceIterator<VertexMap> {
+
+    static final int MATERIALISATION_BUDGET = 100_000;
+
+    private final ResourceIterator<VertexMap> outer;
+    private final List<Inner> inners;
+    private final VertexMap[] answers;
+    private final Retrievable[][] partLayouts;
+    private final int budget;
+    private Retrievable[] layout;
+    private State state;
+
+    private enum State {INIT, EMPTY, FETCHED, COMPLETED}
+
+    public JoinIterator(ResourceIterator<VertexMap> outer, List<Supplier<ResourceIterator<VertexMap>>> inners) {
+        this(outer, inners, MATERIALISATION_BUDGET);
+    }
+
+    JoinIterator(ResourceIterator<VertexMap> outer, List<Supplier<ResourceIterator<VertexMap>>> inners, int budget) {
+        this.outer = outer;
+        this.inners = new ArrayList<>(inners.size());
+        for (Supplier<ResourceIterator<VertexMap>> inner : inners) this.inners.add(new Inner(inner));
+        this.answers = new VertexMap[inners.size() + 1];
+        this.partLayouts = new Retrievable[inners.size() + 1][];
+        this.budget = budget;
+        this.layout = null;
+        this.state = State.INIT;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (state == State.INIT) state = fetchFirst() ? State.FETCHED : State.COMPLETED;
+        else if (state == State.EMPTY) state = fetchNext(inners.size()) ? State.FETCHED : State.COMPLETED;
+        return state == State.FETCHED;
+    }
+
+    private boolean fetchFirst() {
+        if (!outer.hasNext()) return false;
+        answers[0] = outer.next();
+        for (int i = 1; i <= inners.size(); i++) {
+            Inner inner = inners.get(i - 1);
+            inner.restart();
+            if (!inner.hasNext()) return false;
+            answers[i] = inner.next();
+        }
+        return true;
+    }
+
+    private boolean fetchNext(int pos) {
+        if (pos == 0) {
+            if (!outer.hasNext()) return false;
+            answers[0] = outer.next();
+            return true;
+        }
+        Inner inner = inners.get(pos - 1);
+        if (inner.hasNext()) {
+            answers[pos] = inner.next();
+            return true;
+        } else if (fetchNext(pos - 1)) {
+            inner.restart();
+            answers[pos] = inner.next();
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public VertexMap next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        Retrievable[] ids = layout();
+        Vertex<?, ?>[] combined = new Vertex<?, ?>[ids.length];
+        int i = 0;
+        for (VertexMap answer : answers) {
+            for (int j = 0; j < answer.size(); j++) combined[i++] = answer.vertex(j);
+        }
+        state = State.EMPTY;
+        return VertexMap.of(ids, combined);
+    }
+
+    /**
+     * Returns the identifiers of the combined answer, which are only
+     * concatenated again if the layout of the answer of any part changed,
+     * as the answers of a procedure all share the same layout.
+     */
+    private Retrievable[] layout() {
+        boolean isChanged = layout == null;
+        for (int i = 0; i < answers.length && !isChanged; i++) isChanged = answers[i].ids() != partLayouts[i];
+        if (isChanged) {
+            int size = 0;
+            for (VertexMap answer : answers) size += answer.size();
+            layout = new Retrievable[size];
+            int i = 0;
+            for (int part = 0; part < answers.length; part++) {
+                partLayouts[part] = answers[part].ids();
+                for (int j = 0; j < answers[part].size(); j++) layout[i++] = answers[part].id(j);
+            }
+        }
+        return layout;
+    }
+
+    @Override
+    public void recycle() {
+        outer.recycle();
+        inners.forEach(Inner::recycle);
+    }
+
+    private class Inner {
+
+        private final Supplier<ResourceIterator<VertexMap>> supplier;
+        private List<VertexMap> materialised;
+        private ResourceIterator<VertexMap> iterator;
+        private boolean isMaterialising;
+
+        private Inner(Supplier<ResourceIterator<VertexMap>> supplier) {
+            this.supplier = supplier;
+            this.materialised = null;
+            this.iterator = null;
+            this.isMaterialising = false;
+        }
+
+        private void restart() {
+            if (iterator != null) iterator.recycle();
+            if (materialised != null && !isMaterialising) {
+                iterator = iterate(materialised);
+            } else {
+                // the first traversal of this side, or another one if it overran the budget
+                isMaterialising = materialised == null && iterator == null;
+                if (isMaterialising) materialised = new ArrayList<>();
+                iterator = supplier.get();
+            }
+        }
+
+        private boolean hasNext() {
+            boolean hasNext = iterator.hasNext();
+            if (!hasNext && isMaterialising) isMaterialising = false;
+            return hasNext;
+        }
+
+        private VertexMap next() {
+            VertexMap answer = iterator.next();
+            if (isMaterialising) {
+                if (materialised.size() < budget) {
+                    materialised.add(answer);
+                } else {
+                    materialised = null;
+                    isMaterialising = false;
+                }
+            }
+            return answer;
+        }
+
+        private void recycle() {
+            if (iterator != null) iterator.recycle();
+        }
+    }
+}
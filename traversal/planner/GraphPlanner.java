@@ -34,18 +34,22 @@ import grakn.core.traversal.structure.StructureVertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 import static com.google.ortools.linearsolver.MPSolver.ResultStatus.ABNORMAL;
 import static com.google.ortools.linearsolver.MPSolver.ResultStatus.FEASIBLE;
@@ -56,27 +60,39 @@ import static com.google.ortools.linearsolver.MPSolverParameters.IncrementalityV
 import static com.google.ortools.linearsolver.MPSolverParameters.IntegerParam.INCREMENTALITY;
 import static com.google.ortools.linearsolver.MPSolverParameters.IntegerParam.PRESOLVE;
 import static com.google.ortools.linearsolver.MPSolverParameters.PresolveValues.PRESOLVE_ON;
+import static grakn.core.common.collection.Bytes.DOUBLE_SIZE;
+import static grakn.core.common.collection.Bytes.INTEGER_SIZE;
+import static grakn.core.common.collection.Bytes.LONG_SIZE;
 import static grakn.core.common.exception.ErrorMessage.Internal.UNEXPECTED_PLANNING_ERROR;
+import static grakn.core.concurrent.common.Executors.plannerPool;
 import static java.time.Duration.between;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 import static java.util.Comparator.comparing;
-import static java.util.stream.Collectors.toList;
 
 public class GraphPlanner implements Planner {
 
     private static final Logger LOG = LoggerFactory.getLogger(GraphPlanner.class);
+    private static final PlannerMetrics METRICS = new PlannerMetrics();
 
+    static final int GREEDY_PLANNING_MAX_EDGES = 8;
     static final long DEFAULT_TIME_LIMIT_MILLIS = 100;
     static final long HIGHER_TIME_LIMIT_MILLIS = 200;
     static final double OBJECTIVE_COEFFICIENT_MAX_EXPONENT_DEFAULT = 3.0;
     static final double OBJECTIVE_PLANNER_COST_MAX_CHANGE = 0.2;
     static final double OBJECTIVE_VARIABLE_COST_MAX_CHANGE = 2.0;
     static final double OBJECTIVE_VARIABLE_TO_PLANNER_COST_MIN_CHANGE = 0.02;
+    public static final long FEEDBACK_MIN_BRANCHES = 32;
+    public static final double FEEDBACK_MAX_RATIO = 10.0;
 
-    private final MPSolver solver;
-    private final MPSolverParameters parameters;
+    private MPSolver solver;
+    private MPSolverParameters parameters;
     private final Map<Identifier, PlannerVertex<?>> vertices;
     private final Set<PlannerEdge<?, ?>> edges;
+    private final Map<PlannerEdge<?, ?>, String> fingerprints;
+    private final List<PlannerEdge<?, ?>> orderedEdges;
     private final AtomicBoolean isOptimising;
+    private final AtomicBoolean hasFeedback;
     private final CountDownLatch procedureLatch;
 
     protected volatile GraphProcedure procedure;
@@ -84,6 +100,10 @@ public class GraphPlanner implements Planner {
     private volatile boolean isUpToDate;
     private volatile long totalDuration;
     private volatile long snapshot;
+    private volatile Consumer<Plan> planListener;
+    private boolean isPersistable;
+    private Plan seed;
+    private Plan plan;
 
     volatile double totalCostLastRecorded;
     double totalCostNext;
@@ -91,15 +111,13 @@ public class GraphPlanner implements Planner {
     double costExponentUnit;
 
     private GraphPlanner() {
-        solver = MPSolver.createSolver("SCIP");
-        solver.objective().setMinimization();
-        parameters = new MPSolverParameters();
-        parameters.setIntegerParam(PRESOLVE, PRESOLVE_ON.swigValue());
-        parameters.setIntegerParam(INCREMENTALITY, INCREMENTALITY_ON.swigValue());
         vertices = new HashMap<>();
         edges = new HashSet<>();
+        fingerprints = new HashMap<>();
+        orderedEdges = new ArrayList<>();
         procedureLatch = new CountDownLatch(1);
         isOptimising = new AtomicBoolean(false);
+        hasFeedback = new AtomicBoolean(false);
         resultStatus = MPSolver.ResultStatus.NOT_SOLVED;
         isUpToDate = false;
         totalDuration = 0L;
@@ -117,7 +135,7 @@ public class GraphPlanner implements Planner {
         Set<StructureEdge<?, ?>> registeredEdges = new HashSet<>();
         structure.vertices().forEach(vertex -> planner.registerVertex(vertex, registeredVertices, registeredEdges));
         assert planner.vertices().size() > 1 && !planner.edges().isEmpty();
-        planner.initialise();
+        planner.orderEdges();
         return planner;
     }
 
@@ -135,6 +153,11 @@ public class GraphPlanner implements Planner {
         return procedure;
     }
 
+    @Override
+    public double estimatedCost() {
+        return totalCostLastRecorded;
+    }
+
     @Override
     public boolean isGraph() { return true; }
 
@@ -206,11 +229,30 @@ public class GraphPlanner implements Planner {
         PlannerVertex<?> from = vertex(structureEdge.from());
         PlannerVertex<?> to = vertex(structureEdge.to());
         PlannerEdge<?, ?> edge = PlannerEdge.of(from, to, structureEdge);
+        edge.initialiseOpposites();
         edges.add(edge);
+        fingerprints.put(edge, structureEdge.fingerprint());
         from.out(edge);
         to.in(edge);
     }
 
+    /**
+     * Orders the edges by the fingerprints of their structure edges, which is
+     * the order that plans list them in. Every edge is kept by its identity,
+     * so edges that share a fingerprint are not merged, but their order cannot
+     * be reproduced by another planner of the same structure either, so the
+     * plans of such a planner are neither persisted nor seeded.
+     */
+    private void orderEdges() {
+        orderedEdges.addAll(edges);
+        orderedEdges.sort(comparing(fingerprints::get));
+        isPersistable = true;
+        for (int i = 1; i < orderedEdges.size(); i++) {
+            String previous = fingerprints.get(orderedEdges.get(i - 1));
+            if (previous.equals(fingerprints.get(orderedEdges.get(i)))) isPersistable = false;
+        }
+    }
+
     private PlannerVertex<?> vertex(StructureVertex<?> structureVertex) {
         if (structureVertex.isThing()) return thingVertex(structureVertex.asThing());
         else return typeVertex(structureVertex.asType());
@@ -228,10 +270,21 @@ public class GraphPlanner implements Planner {
         ).asType();
     }
 
-    private void initialise() {
+    private boolean isInitialisedModel() {
+        return solver != null;
+    }
+
+    private void initialiseModel() {
+        solver = MPSolver.createSolver("SCIP");
+        solver.objective().setMinimization();
+        parameters = new MPSolverParameters();
+        parameters.setIntegerParam(PRESOLVE, PRESOLVE_ON.swigValue());
+        parameters.setIntegerParam(INCREMENTALITY, INCREMENTALITY_ON.swigValue());
         initialiseVariables();
         initialiseConstraintsForVariables();
         initialiseConstraintsForEdges();
+        vertices.values().forEach(PlannerVertex::updateObjectiveCoefficient);
+        edges.forEach(PlannerEdge::updateObjectiveCoefficients);
     }
 
     private void initialiseVariables() {
@@ -260,8 +313,19 @@ public class GraphPlanner implements Planner {
         }
     }
 
+    /**
+     * Tells this planner that the fan-out observed on one of its edges is far
+     * off from the cost its plan was optimised with, so that the objective is
+     * updated with the observed costs, and the plan optimised again, the next
+     * time it is used.
+     */
+    void feedback() {
+        hasFeedback.set(true);
+    }
+
     private void updateObjective(GraphManager graph) {
-        if (snapshot < graph.data().stats().snapshot()) {
+        boolean hasFeedback = this.hasFeedback.getAndSet(false);
+        if (snapshot < graph.data().stats().snapshot() || hasFeedback) {
             snapshot = graph.data().stats().snapshot();
             totalCostNext = 0.1;
             setBranchingFactor(graph);
@@ -269,7 +333,13 @@ public class GraphPlanner implements Planner {
             computeTotalCostNext(graph);
 
             assert !Double.isNaN(totalCostNext) && !Double.isNaN(totalCostLastRecorded) && totalCostLastRecorded > 0;
-            if (totalCostNext / totalCostLastRecorded >= OBJECTIVE_PLANNER_COST_MAX_CHANGE) setOutOfDate();
+            if (seed != null) revalidateSeed();
+            else if (totalCostNext / totalCostLastRecorded >= OBJECTIVE_PLANNER_COST_MAX_CHANGE) setOutOfDate();
+            if (hasFeedback) {
+                setOutOfDate();
+                METRICS.fedBack();
+                if (LOG.isDebugEnabled()) LOG.debug("Observed costs invalidated the plan of: {}", this);
+            }
             if (!isUpToDate) {
                 totalCostLastRecorded = totalCostNext;
                 vertices.values().forEach(PlannerVertex::recordCost);
@@ -277,7 +347,6 @@ public class GraphPlanner implements Planner {
                 setInitialValues();
             }
         }
-        if (LOG.isTraceEnabled()) LOG.trace(solver.exportModelAsLpFormat());
     }
 
     void updateCostNext(double costPrevious, double costNext) {
@@ -331,37 +400,124 @@ public class GraphPlanner implements Planner {
         new Initialiser().execute();
     }
 
-    private void resetInitialValues() {
+    private void setHints() {
+        int count = 4 * vertices.size() + 2 * (2 + edges.size()) * edges.size();
+        MPVariable[] variables = new MPVariable[count];
+        double[] initialValues = new double[count];
+        int index = 0;
+        for (PlannerVertex<?> v : vertices.values()) index = v.recordInitial(variables, initialValues, index);
+        for (PlannerEdge<?, ?> e : edges) index = e.recordInitial(variables, initialValues, index);
+        assert index == variables.length && index == initialValues.length;
+        solver.setHint(variables, initialValues);
+    }
+
+    private void resetHints() {
         solver.setHint(new MPVariable[]{}, new double[]{});
     }
 
-    @SuppressWarnings("NonAtomicOperationOnVolatileField")
+    /**
+     * Optimises the traversal plan for the current statistics of the graph.
+     *
+     * The first time a small structure is planned, the greedy ordering computed
+     * by the {@code Initialiser} is published as the procedure straight away,
+     * and the MIP solver is not even initialised. This keeps one-shot queries
+     * from paying the solver's setup and time limit, which is usually longer
+     * than their execution. If the same structure is planned again, the solver
+     * runs in the background, seeded with the greedy ordering, and replaces the
+     * procedure once it is done; meanwhile, the current procedure keeps being
+     * used. Structures with more than {@code GREEDY_PLANNING_MAX_EDGES} edges
+     * are solved up front the first time they are planned instead, as a poor
+     * ordering costs them too much.
+     *
+     * @param graph     the graph manager to read statistics from
+     * @param extraTime whether the solver should be given a higher time limit
+     */
     void optimise(GraphManager graph, boolean extraTime) {
         if (isOptimising.compareAndSet(false, true)) {
-            updateObjective(graph);
-            if (isUpToDate() && isOptimal()) {
-                if (LOG.isDebugEnabled()) LOG.debug("Optimisation still optimal and up-to-date");
-            } else {
-                // TODO: we should have a more clever logic to allocate extra time
-                long allocatedDuration = extraTime ? HIGHER_TIME_LIMIT_MILLIS : DEFAULT_TIME_LIMIT_MILLIS;
-                Instant start, endSolver, end;
-                totalDuration += allocatedDuration;
-                solver.setTimeLimit(totalDuration);
-
-                start = Instant.now();
-                resultStatus = solver.solve(parameters);
-                resetInitialValues();
-                endSolver = Instant.now();
-                if (isError()) throwPlanningError();
-                else assert isPlanned();
-
-                createProcedure();
-                end = Instant.now();
-
-                isUpToDate = true;
-                totalDuration -= allocatedDuration - between(start, endSolver).toMillis();
-                printDebug(start, endSolver, end);
+            boolean isSolving = false;
+            try {
+                updateObjective(graph);
+                if (isUpToDate() && isOptimal()) {
+                    if (LOG.isDebugEnabled()) LOG.debug("Optimisation still optimal and up-to-date");
+                } else if (procedure == null && edges.size() > GREEDY_PLANNING_MAX_EDGES) {
+                    isSolving = true;
+                    solve(extraTime, false);
+                } else if (procedure == null) {
+                    createGreedyProcedure();
+                    isUpToDate = true;
+                } else {
+                    isSolving = true;
+                    plannerPool().execute(() -> solve(extraTime, true));
+                }
+            } finally {
+                if (!isSolving) isOptimising.set(false);
             }
+        }
+    }
+
+    /**
+     * Optimises the plan again, with the costs observed so far, for a query
+     * that found its procedure far off from the costs it was planned with
+     * while executing it, and would rather switch to a better procedure than
+     * carry on with the current one. The objective is updated on the calling
+     * thread, as it reads the statistics of the caller's graph, but the solver
+     * runs on the planner pool, so that the query carries on with its current
+     * procedure in the meantime, and can switch once the solver is done.
+     *
+     * @param graph the graph manager to read statistics from
+     * @return the future re-optimised procedure, which is empty if the planner
+     * is already being optimised, or if the solver kept the ordering of the
+     * current procedure
+     */
+    public CompletableFuture<Optional<GraphProcedure>> reoptimise(GraphManager graph) {
+        GraphProcedure current = procedure;
+        if (!isOptimising.compareAndSet(false, true)) return completedFuture(Optional.empty());
+        boolean isSolving = false;
+        try {
+            feedback();
+            updateObjective(graph);
+            CompletableFuture<Optional<GraphProcedure>> reoptimised = supplyAsync(() -> {
+                solve(false, true);
+                if (procedure == current) return Optional.empty();
+                METRICS.adapted();
+                return Optional.of(procedure);
+            }, plannerPool());
+            isSolving = true;
+            return reoptimised;
+        } finally {
+            if (!isSolving) isOptimising.set(false);
+        }
+    }
+
+    @SuppressWarnings("NonAtomicOperationOnVolatileField")
+    private void solve(boolean extraTime, boolean isBackground) {
+        try {
+            if (!isInitialisedModel()) initialiseModel();
+            if (LOG.isTraceEnabled()) LOG.trace(solver.exportModelAsLpFormat());
+
+            // TODO: we should have a more clever logic to allocate extra time
+            long allocatedDuration = extraTime ? HIGHER_TIME_LIMIT_MILLIS : DEFAULT_TIME_LIMIT_MILLIS;
+            Instant start, endSolver, end;
+            totalDuration += allocatedDuration;
+            solver.setTimeLimit(totalDuration);
+
+            start = Instant.now();
+            setHints();
+            resultStatus = solver.solve(parameters);
+            resetHints();
+            endSolver = Instant.now();
+            if (isError()) throwPlanningError();
+            else assert isPlanned();
+
+            createProcedure();
+            end = Instant.now();
+            if (planListener != null) planListener.accept(plan);
+
+            isUpToDate = true;
+            METRICS.solved(isBackground, between(start, endSolver).toMillis());
+            totalDuration -= allocatedDuration - between(start, endSolver).toMillis();
+            printDebug(start, endSolver, end);
+        } finally {
             isOptimising.set(false);
         }
     }
@@ -378,14 +534,147 @@ public class GraphPlanner implements Planner {
             LOG.debug("Solver duration             : {} (ms)", between(start, endSolver).toMillis());
             LOG.debug("Procedure creation duration : {} (ms)", between(endSolver, end).toMillis());
             LOG.debug("Total duration ------------ : {} (ms)", between(start, end).toMillis());
+            LOG.debug("{}", METRICS);
         }
     }
 
     private void createProcedure() {
         vertices.values().forEach(PlannerVertex::recordResults);
         edges.forEach(PlannerEdge::recordResults);
-        procedure = GraphProcedure.create(this);
-        if (procedureLatch.getCount() > 0) procedureLatch.countDown();
+        publishProcedure();
+    }
+
+    private void createGreedyProcedure() {
+        createProcedureFromInitialValues();
+        METRICS.greedyPlanned();
+        if (LOG.isDebugEnabled()) LOG.debug("Published greedy procedure, deferring optimisation");
+    }
+
+    private void createProcedureFromInitialValues() {
+        vertices.values().forEach(PlannerVertex::recordInitialResults);
+        edges.forEach(PlannerEdge::recordInitialResults);
+        publishProcedure();
+    }
+
+    /**
+     * Publishes a procedure for the results recorded in the planner vertices
+     * and edges, unless they order the edges exactly like the procedure that
+     * is already published. Queries read the procedure once when they start,
+     * so swapping it never affects a query that is already running.
+     */
+    private void publishProcedure() {
+        Plan plan = plan();
+        if (procedure == null || !plan.isSameOrdering(this.plan)) {
+            if (procedure != null) {
+                METRICS.planChanged();
+                if (LOG.isDebugEnabled()) LOG.debug("Optimisation changed the plan of: {}", this);
+            }
+            procedure = GraphProcedure.create(this);
+            if (procedureLatch.getCount() > 0) procedureLatch.countDown();
+        }
+        this.plan = plan;
+    }
+
+    /**
+     * Registers a listener to be given every plan that the solver produces,
+     * which is how optimised plans are persisted beyond this planner. The
+     * listener is not registered if the plans of this planner cannot be
+     * persisted, as its edges cannot be told apart by their fingerprints.
+     *
+     * @param listener the listener to give the optimised plans to
+     */
+    public void onOptimised(Consumer<Plan> listener) {
+        if (isPersistable) planListener = listener;
+    }
+
+    private Plan plan() {
+        int[] orders = new int[orderedEdges.size()];
+        int i = 0;
+        for (PlannerEdge<?, ?> edge : orderedEdges) {
+            if (edge.forward().isSelected()) orders[i++] = edge.forward().orderNumber();
+            else orders[i++] = -edge.backward().orderNumber();
+        }
+        return new Plan(orders, snapshot, totalCostLastRecorded, isOptimal());
+    }
+
+    /**
+     * Publishes a procedure from a plan that was optimised for the same
+     * structure by an earlier planner, before this planner is first optimised.
+     * The plan is only revalidated on the first optimisation, against the
+     * statistics at that point: if they did not change much since the plan was
+     * optimised, the plan is kept as it is, or otherwise it is replanned.
+     *
+     * @param plan the persisted plan of this planner's structure
+     */
+    public void seed(Plan plan) {
+        assert procedure == null && !isInitialisedModel();
+        if (!isPersistable || !isValid(plan)) {
+            LOG.warn("Discarded invalid persisted plan");
+            return;
+        }
+        vertices.values().forEach(PlannerVertex::resetInitialValue);
+        edges.forEach(PlannerEdge::resetInitialValue);
+        int i = 0;
+        for (PlannerEdge<?, ?> edge : orderedEdges) {
+            int order = plan.orders[i++];
+            PlannerEdge.Directional<?, ?> directional = order > 0 ? edge.forward() : edge.backward();
+            directional.setInitialValue(Math.abs(order));
+            directional.from().setHasOutgoingEdgesInitial();
+            directional.to().setHasIncomingEdgesInitial();
+        }
+        vertices.values().forEach(v -> {
+            if (!v.hasIncomingEdgesInitial()) v.setStartingVertexInitial();
+            else if (!v.hasOutgoingEdgesInitial()) v.setEndingVertexInitial();
+        });
+        seed = plan;
+        createProcedureFromInitialValues();
+        METRICS.seeded();
+    }
+
+    /**
+     * Returns true if the plan orders every edge of this planner exactly once,
+     * reaches every vertex but the starting one by some edge, and orders all
+     * the incoming edges of a vertex before its outgoing edges, other than the
+     * edges that close on the vertex itself, as the solver would.
+     */
+    private boolean isValid(Plan plan) {
+        if (plan.orders.length != orderedEdges.size()) return false;
+        boolean[] isOrdered = new boolean[plan.orders.length];
+        Map<PlannerVertex<?>, Integer> lastIncoming = new HashMap<>();
+        Map<PlannerVertex<?>, Integer> firstOutgoing = new HashMap<>();
+        for (int i = 0; i < plan.orders.length; i++) {
+            int order = Math.abs(plan.orders[i]);
+            if (order < 1 || order > isOrdered.length || isOrdered[order - 1]) return false;
+            isOrdered[order - 1] = true;
+            PlannerEdge<?, ?> edge = orderedEdges.get(i);
+            PlannerVertex<?> from = plan.orders[i] > 0 ? edge.from() : edge.to();
+            PlannerVertex<?> to = plan.orders[i] > 0 ? edge.to() : edge.from();
+            if (from.equals(to)) continue;
+            firstOutgoing.merge(from, order, Math::min);
+            lastIncoming.merge(to, order, Math::max);
+        }
+        if (lastIncoming.size() != vertices.size() - 1) return false;
+        for (Map.Entry<PlannerVertex<?>, Integer> incoming : lastIncoming.entrySet()) {
+            Integer outgoing = firstOutgoing.get(incoming.getKey());
+            if (outgoing != null && outgoing < incoming.getValue()) return false;
+        }
+        return true;
+    }
+
+    private void revalidateSeed() {
+        assert seed != null;
+        double change = totalCostNext / seed.cost;
+        if (snapshot == seed.snapshot || (change < OBJECTIVE_VARIABLE_COST_MAX_CHANGE &&
+                change > 1 / OBJECTIVE_VARIABLE_COST_MAX_CHANGE)) {
+            totalCostLastRecorded = totalCostNext;
+            vertices.values().forEach(PlannerVertex::recordCost);
+            edges.forEach(PlannerEdge::recordCost);
+            resultStatus = seed.isOptimal ? OPTIMAL : FEASIBLE;
+            isUpToDate = true;
+        } else {
+            setOutOfDate();
+        }
+        seed = null;
     }
 
     @Override
@@ -409,57 +698,108 @@ public class GraphPlanner implements Planner {
         return str.toString();
     }
 
+    /**
+     * The ordering of the edges of a planner, which can be persisted and used
+     * to seed a planner of the same structure. The edges are listed in the
+     * order of their fingerprints, each with its order number, negated if the
+     * edge is traversed backwards.
+     */
+    public static class Plan {
+
+        private final int[] orders;
+        private final long snapshot;
+        private final double cost;
+        private final boolean isOptimal;
+
+        private Plan(int[] orders, long snapshot, double cost, boolean isOptimal) {
+            this.orders = orders;
+            this.snapshot = snapshot;
+            this.cost = cost;
+            this.isOptimal = isOptimal;
+        }
+
+        public static Plan of(byte[] bytes) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            long snapshot = buffer.getLong();
+            double cost = buffer.getDouble();
+            boolean isOptimal = buffer.get() == 1;
+            int[] orders = new int[buffer.getInt()];
+            for (int i = 0; i < orders.length; i++) orders[i] = buffer.getInt();
+            return new Plan(orders, snapshot, cost, isOptimal);
+        }
+
+        boolean isSameOrdering(Plan that) {
+            return that != null && Arrays.equals(this.orders, that.orders);
+        }
+
+        public byte[] bytes() {
+            ByteBuffer buffer = ByteBuffer.allocate(LONG_SIZE + DOUBLE_SIZE + 1 + INTEGER_SIZE * (1 + orders.length));
+            buffer.putLong(snapshot).putDouble(cost).put((byte) (isOptimal ? 1 : 0)).putInt(orders.length);
+            for (int order : orders) buffer.putInt(order);
+            return buffer.array();
+        }
+    }
+
+    /**
+     * Computes a greedy ordering of the edges, in the manner of Prim's algorithm:
+     * starting from the cheapest vertex, it repeatedly traverses the cheapest
+     * edge from a visited vertex to an unvisited one. Every other edge between
+     * the newly visited vertex and the visited ones is then traversed towards
+     * the new vertex, which keeps all the incoming edges of a vertex ordered
+     * before its outgoing edges. The ordering is a valid plan on its own, and
+     * is used as the hint for the solver.
+     */
     private class Initialiser {
 
-        private final LinkedHashSet<PlannerVertex<?>> queue;
-        private final MPVariable[] variables;
-        private final double[] initialValues;
+        private final Set<PlannerVertex<?>> visited;
         private int edgeCount;
 
         private Initialiser() {
-            queue = new LinkedHashSet<>();
+            visited = new HashSet<>();
             edgeCount = 0;
-
-            int count = countVariables();
-            variables = new MPVariable[count];
-            initialValues = new double[count];
-        }
-
-        private int countVariables() {
-            int vertexVars = 4 * vertices.size();
-            int edgeVars = (2 + edges.size()) * edges.size() * 2;
-            return vertexVars + edgeVars;
         }
 
         public void execute() {
             resetInitialValues();
-            PlannerVertex<?> start = vertices.values().stream().min(comparing(v -> v.costLastRecorded)).get();
+            PlannerVertex<?> start = vertices.values().stream().min(
+                    comparing((PlannerVertex<?> v) -> hasSelfClosure(v)).thenComparing(v -> v.costLastRecorded)
+            ).get();
             start.setStartingVertexInitial();
-            queue.add(start);
-            while (!queue.isEmpty()) {
-                PlannerVertex<?> vertex = queue.iterator().next();
-                List<PlannerEdge.Directional<?, ?>> outgoing = vertex.outs().stream()
-                        .filter(e -> !e.hasInitialValue() && !(e.isSelfClosure() && e.direction().isBackward()))
-                        .sorted(comparing(e -> e.costLastRecorded)).collect(toList());
-                if (!outgoing.isEmpty()) {
-                    vertex.setHasOutgoingEdgesInitial();
-                    outgoing.forEach(e -> {
-                        e.setInitialValue(++edgeCount);
-                        e.to().setHasIncomingEdgesInitial();
-                        queue.add(e.to());
-                    });
-                } else {
-                    vertex.setEndingVertexInitial();
+            visit(start);
+            while (visited.size() < vertices.size()) {
+                PlannerEdge.Directional<?, ?> cheapest = null;
+                for (PlannerVertex<?> vertex : visited) {
+                    for (PlannerEdge.Directional<?, ?> edge : vertex.outs()) {
+                        if (edge.hasInitialValue() || visited.contains(edge.to())) continue;
+                        if (cheapest == null || edge.costLastRecorded < cheapest.costLastRecorded) cheapest = edge;
+                    }
                 }
-                queue.remove(vertex);
+                assert cheapest != null;
+                select(cheapest);
+                visit(cheapest.to());
             }
+            vertices.values().forEach(v -> {
+                if (!v.hasOutgoingEdgesInitial()) v.setEndingVertexInitial();
+            });
+            assert edgeCount == edges.size();
+        }
+
+        private void visit(PlannerVertex<?> vertex) {
+            vertex.ins().stream().filter(e -> !e.hasInitialValue() && visited.contains(e.from()))
+                    .sorted(comparing(e -> e.costLastRecorded)).forEach(this::select);
+            vertex.outs().stream().filter(e -> !e.hasInitialValue() && e.isSelfClosure() && e.direction().isForward())
+                    .forEach(this::select);
+            visited.add(vertex);
+        }
 
-            int index = 0;
-            for (PlannerVertex<?> v : vertices.values()) index = v.recordInitial(variables, initialValues, index);
-            for (PlannerEdge<?, ?> e : edges) index = e.recordInitial(variables, initialValues, index);
-            assert index == variables.length && index == initialValues.length;
+        private void select(PlannerEdge.Directional<?, ?> edge) {
+            edge.setInitialValue(++edgeCount);
+            edge.from().setHasOutgoingEdgesInitial();
+            edge.to().setHasIncomingEdgesInitial();
+        }
 
-            solver.setHint(variables, initialValues);
+        private boolean hasSelfClosure(PlannerVertex<?> vertex) {
+            return vertex.outs().stream().anyMatch(PlannerEdge.Directional::isSelfClosure);
         }
 
         private void resetInitialValues() {
@@ -34,6 +34,17 @@ public interface Planner {
         if (isGraph()) this.asGraph().optimise(graphMgr, extraTime);
     }
 
+    /**
+     * Returns the estimated cost of executing this planner's procedure, which
+     * is only comparable between planners, for instance to pick the order in
+     * which to join them. The cost is unknown unless the planner is optimised.
+     *
+     * @return the estimated cost of the procedure, or the maximum double if unknown
+     */
+    default double estimatedCost() {
+        return Double.MAX_VALUE;
+    }
+
     static Planner create(Structure structure) {
         if (structure.vertices().size() == 1) return VertexPlanner.create(structure);
         else return GraphPlanner.create(structure);
@@ -31,12 +31,12 @@ import grakn.core.traversal.predicate.PredicateOperator;
 import grakn.core.traversal.structure.StructureEdge;
 import graql.lang.common.GraqlToken;
 
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Stream;
 
 import static grakn.common.collection.Collections.pair;
@@ -96,9 +96,12 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
         return backward;
     }
 
-    void initialiseVariables() {
+    void initialiseOpposites() {
         forward.opposite(backward);
         backward.opposite(forward);
+    }
+
+    void initialiseVariables() {
         forward.initialiseVariables();
         backward.initialiseVariables();
     }
@@ -118,6 +121,11 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
         backward.updateObjective(graphMgr);
     }
 
+    void updateObjectiveCoefficients() {
+        forward.updateObjectiveCoefficients();
+        backward.updateObjectiveCoefficients();
+    }
+
     void recordCost() {
         forward.recordCost();
         backward.recordCost();
@@ -128,6 +136,11 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
         backward.recordResults();
     }
 
+    void recordInitialResults() {
+        forward.recordInitialResults();
+        backward.recordInitialResults();
+    }
+
     void resetInitialValue() {
         forward.resetInitialValue();
         backward.resetInitialValue();
@@ -152,7 +165,6 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
         private MPVariable varOrderNumber;
         private int varIsSelected_init;
         private int varOrderNumber_init;
-        private int[] varOrderAssignment_init;
         private int varIsSelected_result;
         private int varOrderNumber_result;
         private final String varPrefix;
@@ -164,6 +176,9 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
         private boolean isInitialisedConstraints;
         private double costNext;
         double costLastRecorded;
+        private final LongAdder observedBranches;
+        private final LongAdder observedRows;
+        private volatile double observedCost;
 
         private Directional<VERTEX_DIR_TO, VERTEX_DIR_FROM> opposite;
 
@@ -172,6 +187,9 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
             this.planner = from.planner;
             this.direction = direction;
             this.costLastRecorded = 0.01; // non-zero value for safe division
+            this.observedBranches = new LongAdder();
+            this.observedRows = new LongAdder();
+            this.observedCost = Double.NaN;
             this.isInitialisedVariables = false;
             this.isInitialisedConstraints = false;
             this.varPrefix = "edge_var_" + this.toString() + "_";
@@ -188,10 +206,38 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
             return varOrderNumber_result;
         }
 
+        public double estimatedCost() {
+            return costLastRecorded;
+        }
+
         public Encoding.Direction.Edge direction() {
             return direction;
         }
 
+        /**
+         * Records how many vertices this edge branched to, in total, when it
+         * was executed from the given number of vertices. Once enough branches
+         * were observed, their average fan-out replaces the cost estimated
+         * from statistics, and if it is off from the cost the current plan was
+         * optimised with by more than the feedback ratio, either way, the
+         * planner is told to optimise the plan again.
+         *
+         * @param branches the number of vertices the edge branched from
+         * @param rows     the number of vertices the edge branched to
+         */
+        public void observe(long branches, long rows) {
+            observedBranches.add(branches);
+            observedRows.add(rows);
+            long totalBranches = observedBranches.sum();
+            if (totalBranches < GraphPlanner.FEEDBACK_MIN_BRANCHES) return;
+            double cost = Math.max((double) observedRows.sum() / totalBranches, 0.01);
+            observedCost = cost;
+            double ratio = cost / costLastRecorded;
+            if (ratio >= GraphPlanner.FEEDBACK_MAX_RATIO || ratio <= 1 / GraphPlanner.FEEDBACK_MAX_RATIO) {
+                planner.feedback();
+            }
+        }
+
         public boolean isInitialisedVariables() {
             return isInitialisedVariables;
         }
@@ -208,7 +254,6 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
             varIsSelected = planner.solver().makeIntVar(0, 1, varPrefix + "is_selected");
             varOrderNumber = planner.solver().makeIntVar(0, planner.edges().size(), varPrefix + "order_number");
             varOrderAssignment = new MPVariable[planner.edges().size()];
-            varOrderAssignment_init = new int[planner.edges().size()];
             for (int i = 0; i < planner.edges().size(); i++) {
                 varOrderAssignment[i] = planner.solver().makeIntVar(0, 1, varPrefix + "order_assignment[" + i + "]");
             }
@@ -257,14 +302,19 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
 
         protected void setObjectiveCoefficient(double cost) {
             assert !Double.isNaN(cost);
+            double observedCost = this.observedCost;
+            costNext = Double.isNaN(observedCost) ? cost : observedCost;
+            if (isInitialisedVariables) updateObjectiveCoefficients();
+            planner.updateCostNext(costLastRecorded, costNext);
+        }
+
+        private void updateObjectiveCoefficients() {
             int expMultiplier = planner.edges().size() - 1;
             for (int i = 0; i < planner.edges().size(); i++) {
                 double exp = 1 + (expMultiplier-- * planner.costExponentUnit);
-                double coeff = cost * Math.pow(planner.branchingFactor, exp);
+                double coeff = costNext * Math.pow(planner.branchingFactor, exp);
                 planner.objective().setCoefficient(varOrderAssignment[i], coeff);
             }
-            costNext = cost;
-            planner.updateCostNext(costLastRecorded, costNext);
         }
 
         private void recordCost() {
@@ -277,19 +327,20 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
             varOrderNumber_result = (int) Math.round(varOrderNumber.solutionValue());
         }
 
+        private void recordInitialResults() {
+            varIsSelected_result = varIsSelected_init;
+            varOrderNumber_result = varOrderNumber_init;
+        }
+
         private void resetInitialValue() {
             hasInitialValue = false;
             varIsSelected_init = 0;
             varOrderNumber_init = 0;
-            Arrays.fill(varOrderAssignment_init, 0);
         }
 
         void setInitialValue(int order) {
             varOrderNumber_init = order;
-            if (order > 0) {
-                varIsSelected_init = 1;
-                varOrderAssignment_init[order - 1] = 1;
-            }
+            if (order > 0) varIsSelected_init = 1;
             hasInitialValue = true;
             opposite.hasInitialValue = true;
         }
@@ -307,7 +358,7 @@ public abstract class PlannerEdge<VERTEX_FROM extends PlannerVertex<?>, VERTEX_T
 
             for (int i = 0; i < planner.edges().size(); i++) {
                 variables[index + 2 + i] = varOrderAssignment[i];
-                initialValues[index + 2 + i] = varOrderAssignment_init[i];
+                initialValues[index + 2 + i] = varOrderNumber_init == i + 1 ? 1 : 0;
             }
 
             return index + 2 + planner.edges().size();
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2021 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.traversal.planner;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of the work done by all graph planners in this process: how
+ * procedures were produced, how long the solver ran for, how often an
+ * optimisation actually changed the plan that queries were using, how often
+ * the costs observed while executing a plan sent it back to the solver, and
+ * how often a running query switched to a plan re-optimised for it. They are
+ * logged at debug level after every optimisation.
+ */
+class PlannerMetrics {
+
+    private final AtomicLong greedyPlans;
+    private final AtomicLong seededPlans;
+    private final AtomicLong inlineSolves;
+    private final AtomicLong backgroundSolves;
+    private final AtomicLong solverMillis;
+    private final AtomicLong planChanges;
+    private final AtomicLong feedbacks;
+    private final AtomicLong adaptations;
+
+    PlannerMetrics() {
+        greedyPlans = new AtomicLong(0);
+        seededPlans = new AtomicLong(0);
+        inlineSolves = new AtomicLong(0);
+        backgroundSolves = new AtomicLong(0);
+        solverMillis = new AtomicLong(0);
+        planChanges = new AtomicLong(0);
+        feedbacks = new AtomicLong(0);
+        adaptations = new AtomicLong(0);
+    }
+
+    void greedyPlanned() {
+        greedyPlans.incrementAndGet();
+    }
+
+    void seeded() {
+        seededPlans.incrementAndGet();
+    }
+
+    void solved(boolean isBackground, long millis) {
+        if (isBackground) backgroundSolves.incrementAndGet();
+        else inlineSolves.incrementAndGet();
+        solverMillis.addAndGet(millis);
+    }
+
+    void planChanged() {
+        planChanges.incrementAndGet();
+    }
+
+    void fedBack() {
+        feedbacks.incrementAndGet();
+    }
+
+    void adapted() {
+        adaptations.incrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Planner metrics: { greedy: %s, seeded: %s, inline solves: %s, background solves: %s, " +
+                                     "solver time: %s (ms), plan changes: %s, feedbacks: %s, adaptations: %s }",
+                             greedyPlans.get(), seededPlans.get(), inlineSolves.get(), backgroundSolves.get(),
+                             solverMillis.get(), planChanges.get(), feedbacks.get(), adaptations.get());
+    }
+}
@@ -69,6 +69,10 @@ public abstract class PlannerVertex<PROPERTIES extends TraversalVertex.Propertie
 
     abstract void updateObjective(GraphManager graph);
 
+    public double estimatedCost() {
+        return costLastRecorded;
+    }
+
     public boolean isStartingVertex() {
         return varIsStartingVertex_result == 1;
     }
@@ -152,13 +156,17 @@ public abstract class PlannerVertex<PROPERTIES extends TraversalVertex.Propertie
 
     protected void setObjectiveCoefficient(double cost) {
         assert !Double.isNaN(cost);
-        double exp = planner.edges().size() * planner.costExponentUnit;
-        double coeff = cost * Math.pow(planner.branchingFactor, exp);
-        planner.objective().setCoefficient(varIsStartingVertex, coeff);
         costNext = cost;
+        if (isInitialisedVariables) updateObjectiveCoefficient();
         planner.updateCostNext(costLastRecorded, costNext);
     }
 
+    void updateObjectiveCoefficient() {
+        double exp = planner.edges().size() * planner.costExponentUnit;
+        double coeff = costNext * Math.pow(planner.branchingFactor, exp);
+        planner.objective().setCoefficient(varIsStartingVertex, coeff);
+    }
+
     void recordCost() {
         if (costNext == 0) costNext = 0.01;
         costLastRecorded = costNext;
@@ -174,6 +182,16 @@ public abstract class PlannerVertex<PROPERTIES extends TraversalVertex.Propertie
         assert (isEndingVertex() ^ hasOutgoingEdges());
     }
 
+    void recordInitialResults() {
+        varIsStartingVertex_result = varIsStartingVertex_init;
+        varIsEndingVertex_result = varIsEndingVertex_init;
+        varHasIncomingEdges_result = varHasIncomingEdges_init;
+        varHasOutgoingEdges_result = varHasOutgoingEdges_init;
+        assert !(isStartingVertex() && isEndingVertex());
+        assert (isStartingVertex() ^ hasIncomingEdges());
+        assert (isEndingVertex() ^ hasOutgoingEdges());
+    }
+
     void resetInitialValue() {
         varIsStartingVertex_init = 0;
         varIsEndingVertex_init = 0;
@@ -198,6 +216,14 @@ public abstract class PlannerVertex<PROPERTIES extends TraversalVertex.Propertie
         assert varIsEndingVertex_init == 0;
     }
 
+    boolean hasOutgoingEdgesInitial() {
+        return varHasOutgoingEdges_init == 1;
+    }
+
+    boolean hasIncomingEdgesInitial() {
+        return varHasIncomingEdges_init == 1;
+    }
+
     void setHasIncomingEdgesInitial() {
         varHasIncomingEdges_init = 1;
         assert varIsStartingVertex_init == 0;
@@ -83,6 +83,19 @@ public abstract class Predicate<PRED_OP extends PredicateOperator, PRED_ARG exte
             return argument.apply(operator, vertex, value);
         }
 
+        public Compiled compile(Traversal.Parameters.Value value) {
+            return argument.compile(operator, value);
+        }
+
+        /**
+         * A test of attribute vertices against a value predicate and one of
+         * its value parameters, which is compiled once per traversal.
+         */
+        public interface Compiled {
+
+            boolean test(AttributeVertex<?> vertex);
+        }
+
         public static class Numerical extends Value<PredicateOperator.Equality> {
 
             public Numerical(PredicateOperator.Equality operator, PredicateArgument.Value<PredicateOperator.Equality, ?> argument) {
@@ -18,6 +18,7 @@
 
 package grakn.core.traversal.predicate;
 
+import grakn.core.common.exception.GraknCheckedException;
 import grakn.core.common.exception.GraknException;
 import grakn.core.graph.common.Encoding;
 import grakn.core.graph.vertex.AttributeVertex;
@@ -25,7 +26,11 @@ import grakn.core.traversal.Traversal;
 
 import java.time.LocalDateTime;
 
+import static grakn.core.common.collection.Bytes.dateTimeToBytes;
+import static grakn.core.common.collection.Bytes.stringToBytes;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
+import static grakn.core.graph.common.Encoding.ValueType.STRING_ENCODING;
+import static grakn.core.graph.common.Encoding.ValueType.TIME_ZONE_ID;
 
 public abstract class PredicateArgument {
 
@@ -71,6 +76,17 @@ public abstract class PredicateArgument {
 
         public abstract boolean apply(ARG_VAL_OP operator, AttributeVertex<?> vertex, ARG_VAL_TYPE value);
 
+        /**
+         * Compiles this argument, with the given operator and value, into a test
+         * of attribute vertices that is built once per query, rather than
+         * decoding the value parameter and the value of every vertex anew.
+         * Where the order of the encoded values agrees with the order of the
+         * values, the test compares the IID of each vertex in place instead.
+         */
+        public Predicate.Value.Compiled compile(ARG_VAL_OP operator, Traversal.Parameters.Value value) {
+            return vertex -> apply(operator, vertex, value);
+        }
+
         public static Value<PredicateOperator.Equality, Boolean> BOOLEAN = new Value<PredicateOperator.Equality, Boolean>(Encoding.ValueType.BOOLEAN) {
             @Override
             public boolean apply(PredicateOperator.Equality operator, AttributeVertex<?> vertex, Traversal.Parameters.Value value) {
@@ -103,6 +119,22 @@ public abstract class PredicateArgument {
                     return operator.apply(Predicate.compareDoubles(vertex.asDouble().value(), value));
                 else throw GraknException.of(ILLEGAL_STATE);
             }
+
+            @Override
+            public Predicate.Value.Compiled compile(PredicateOperator.Equality operator,
+                                                                            Traversal.Parameters.Value value) {
+                assert value.isLong();
+                long target = value.getLong();
+                return vertex -> {
+                    if (!vertex.valueType().comparableTo(Encoding.ValueType.LONG)) return false;
+                    assert (vertex.isLong() || vertex.isDouble());
+
+                    if (vertex.isLong()) return operator.apply(Long.compare(vertex.iid().asLong().longValue(), target));
+                    else if (vertex.isDouble())
+                        return operator.apply(Predicate.compareDoubles(vertex.iid().asDouble().doubleValue(), target));
+                    else throw GraknException.of(ILLEGAL_STATE);
+                };
+            }
         };
 
         public static Value<PredicateOperator.Equality, Double> DOUBLE = new Value<PredicateOperator.Equality, Double>(Encoding.ValueType.DOUBLE) {
@@ -123,6 +155,23 @@ public abstract class PredicateArgument {
                 else throw GraknException.of(ILLEGAL_STATE);
                 return operator.apply(Predicate.compareDoubles(vertexValue, value));
             }
+
+            @Override
+            public Predicate.Value.Compiled compile(PredicateOperator.Equality operator,
+                                                                            Traversal.Parameters.Value value) {
+                assert value.isDouble();
+                double target = value.getDouble();
+                return vertex -> {
+                    if (!vertex.valueType().comparableTo(Encoding.ValueType.DOUBLE)) return false;
+                    assert (vertex.isLong() || vertex.isDouble());
+
+                    double vertexValue;
+                    if (vertex.isLong()) vertexValue = vertex.iid().asLong().longValue();
+                    else if (vertex.isDouble()) vertexValue = vertex.iid().asDouble().doubleValue();
+                    else throw GraknException.of(ILLEGAL_STATE);
+                    return operator.apply(Predicate.compareDoubles(vertexValue, target));
+                };
+            }
         };
 
         public static Value<PredicateOperator.Equality, LocalDateTime> DATETIME = new Value<PredicateOperator.Equality, LocalDateTime>(Encoding.ValueType.DATETIME) {
@@ -139,6 +188,17 @@ public abstract class PredicateArgument {
 
                 return operator.apply(vertex.asDateTime().value().compareTo(value));
             }
+
+            @Override
+            public Predicate.Value.Compiled compile(PredicateOperator.Equality operator,
+                                                                            Traversal.Parameters.Value value) {
+                assert value.isDateTime();
+                // date-times are stored to the millisecond, so only such values compare alike when encoded
+                if (value.getDateTime().getNano() % 1_000_000 != 0) return super.compile(operator, value);
+                byte[] target = dateTimeToBytes(value.getDateTime(), TIME_ZONE_ID);
+                return vertex -> vertex.valueType().comparableTo(Encoding.ValueType.DATETIME) &&
+                        operator.apply(vertex.iid().compareValue(target));
+            }
         };
 
         public static Value<PredicateOperator, String> STRING = new Value<PredicateOperator, String>(Encoding.ValueType.STRING) {
@@ -156,6 +216,25 @@ public abstract class PredicateArgument {
                 assert vertex.isString() && operator.isEquality();
                 return operator.asEquality().apply(vertex.asString().value().compareTo(value));
             }
+
+            @Override
+            public Predicate.Value.Compiled compile(PredicateOperator operator,
+                                                                            Traversal.Parameters.Value value) {
+                // UTF-8 bytes do not sort as strings do, so only (in)equality can be tested on encoded values
+                if (!operator.equals(PredicateOperator.Equality.EQ) && !operator.equals(PredicateOperator.Equality.NEQ)) {
+                    return super.compile(operator, value);
+                }
+                assert value.isString();
+                byte[] target;
+                try {
+                    target = stringToBytes(value.getString(), STRING_ENCODING);
+                } catch (GraknCheckedException e) {
+                    return super.compile(operator, value);
+                }
+                PredicateOperator.Equality equality = operator.asEquality();
+                return vertex -> vertex.valueType().comparableTo(Encoding.ValueType.STRING) &&
+                        equality.apply(vertex.iid().compareValue(target));
+            }
         };
     }
 
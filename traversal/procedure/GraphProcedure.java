@@ -21,12 +21,15 @@ package grakn.core.traversal.procedure;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.common.parameters.Label;
+import grakn.core.common.parameters.MemoryBudget;
 import grakn.core.concurrent.common.ConcurrentSet;
 import grakn.core.concurrent.producer.Producer;
 import grakn.core.graph.GraphManager;
+import grakn.core.graph.vertex.ThingVertex;
 import grakn.core.traversal.Traversal;
 import grakn.core.traversal.common.Identifier;
 import grakn.core.traversal.common.VertexMap;
+import grakn.core.traversal.iterator.AdaptiveIterator;
 import grakn.core.traversal.iterator.GraphIterator;
 import grakn.core.traversal.planner.GraphPlanner;
 import grakn.core.traversal.planner.PlannerEdge;
@@ -43,13 +46,19 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_STATE;
 import static grakn.core.common.iterator.Iterators.iterate;
+import static grakn.core.common.parameters.MemoryBudget.answerBytes;
 import static grakn.core.concurrent.producer.Producers.async;
+import static grakn.core.traversal.planner.GraphPlanner.FEEDBACK_MAX_RATIO;
+import static grakn.core.traversal.planner.GraphPlanner.FEEDBACK_MIN_BRANCHES;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 
 public class GraphProcedure implements Procedure {
 
@@ -57,11 +66,21 @@ public class GraphProcedure implements Procedure {
 
     private final Map<Identifier, ProcedureVertex<?, ?>> vertices;
     private final ProcedureEdge<?, ?>[] edges;
+    private final PlannerEdge.Directional<?, ?>[] plannerEdges;
+    private final double[] estimatedCosts;
+    private double estimatedCost;
+    private double estimatedStarts;
+    private GraphPlanner planner;
     private ProcedureVertex<?, ?> startVertex;
 
     private GraphProcedure(int edgeSize) {
         vertices = new HashMap<>();
         edges = new ProcedureEdge<?, ?>[edgeSize];
+        plannerEdges = new PlannerEdge.Directional<?, ?>[edgeSize];
+        estimatedCosts = new double[edgeSize];
+        Arrays.fill(estimatedCosts, Double.NaN);
+        estimatedCost = Double.NaN;
+        estimatedStarts = Double.NaN;
     }
 
     public static GraphProcedure create(GraphPlanner planner) {
@@ -69,6 +88,16 @@ public class GraphProcedure implements Procedure {
         Set<PlannerVertex<?>> registeredVertices = new HashSet<>();
         Set<PlannerEdge.Directional<?, ?>> registeredEdges = new HashSet<>();
         planner.vertices().forEach(vertex -> procedure.registerVertex(vertex, registeredVertices, registeredEdges));
+        Map<Integer, Double> costs = new HashMap<>();
+        planner.vertices().forEach(vertex -> vertex.outs().forEach(edge -> {
+            if (edge.isSelected()) costs.put(edge.orderNumber(), edge.estimatedCost());
+        }));
+        procedure.selectIntersections(costs);
+        costs.forEach((order, cost) -> procedure.estimatedCosts[order - 1] = cost);
+        procedure.estimatedCost = planner.estimatedCost();
+        planner.vertices().stream().filter(PlannerVertex::isStartingVertex).findAny()
+                .ifPresent(start -> procedure.estimatedStarts = start.estimatedCost());
+        procedure.planner = planner;
         return procedure;
     }
 
@@ -101,6 +130,71 @@ public class GraphProcedure implements Procedure {
         return edges.length;
     }
 
+    public int verticesCount() {
+        return vertices.size();
+    }
+
+    /**
+     * Returns the total cost the planner estimated for this procedure when it
+     * was created, or NaN if it was not created by a planner.
+     */
+    public double estimatedCost() {
+        return estimatedCost;
+    }
+
+    /**
+     * Returns the fan-out the planner estimated for the edge at the given
+     * position when this procedure was created, or NaN if it was not created
+     * by a planner.
+     */
+    public double estimatedCost(int pos) {
+        return estimatedCosts[pos - 1];
+    }
+
+    /**
+     * Feeds the fan-out that an iterator observed on the edges of this
+     * procedure back into the planner edges they were created from, if any.
+     *
+     * @param branches the number of vertices each edge branched from, by order
+     * @param rows     the number of vertices each edge branched to, by order
+     */
+    public void observe(long[] branches, long[] rows) {
+        for (int pos = 1; pos <= edges.length; pos++) {
+            PlannerEdge.Directional<?, ?> plannerEdge = plannerEdges[pos - 1];
+            if (plannerEdge != null && branches[pos] > 0) plannerEdge.observe(branches[pos], rows[pos]);
+        }
+    }
+
+    /**
+     * Returns whether the start vertices, or the fan-out of any edge, that an
+     * iterator observed so far are far more than the planner estimated for this
+     * procedure, by more than the planner's feedback ratio, once there were
+     * enough of them to tell.
+     *
+     * @param starts   the number of start vertices iterated
+     * @param branches the number of vertices each edge branched from, by order
+     * @param rows     the number of vertices each edge branched to, by order
+     */
+    public boolean isMisestimated(long starts, long[] branches, long[] rows) {
+        if (starts >= FEEDBACK_MIN_BRANCHES && starts >= estimatedStarts * FEEDBACK_MAX_RATIO) return true;
+        for (int pos = 1; pos <= edges.length; pos++) {
+            if (branches[pos] < FEEDBACK_MIN_BRANCHES) continue;
+            double cost = (double) rows[pos] / branches[pos];
+            if (cost >= Math.max(estimatedCosts[pos - 1], 0.01) * FEEDBACK_MAX_RATIO) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the future procedure re-optimised by the planner this procedure
+     * was created by, with the costs observed so far, if it orders the
+     * traversal differently from this one.
+     */
+    public CompletableFuture<Optional<GraphProcedure>> reoptimise(GraphManager graphMgr) {
+        if (planner == null) return completedFuture(Optional.empty());
+        else return planner.reoptimise(graphMgr);
+    }
+
     private void registerVertex(PlannerVertex<?> plannerVertex, Set<PlannerVertex<?>> registeredVertices,
                                 Set<PlannerEdge.Directional<?, ?>> registeredEdges) {
         if (registeredVertices.contains(plannerVertex)) return;
@@ -131,6 +225,32 @@ public class GraphProcedure implements Procedure {
         ProcedureVertex<?, ?> to = vertex(plannerEdge.to());
         ProcedureEdge<?, ?> edge = ProcedureEdge.of(from, to, plannerEdge);
         registerEdge(edge);
+        plannerEdges[edge.order() - 1] = plannerEdge;
+    }
+
+    /**
+     * Chooses, for every vertex reached through a cycle of the traversal, the
+     * closure edges into it whose adjacency the iterator should intersect with
+     * its branch edge, rather than only check once it reaches their order.
+     *
+     * A closure is only worth intersecting if it comes from a vertex that is
+     * bound before the branch edge, if there are other edges to traverse
+     * between the branch and the closure, which would otherwise be traversed
+     * for every candidate the closure rejects, and if the planner expects its
+     * adjacency to be no larger than the branch it filters.
+     *
+     * @param costs the estimated cost of every selected edge, by order
+     */
+    private void selectIntersections(Map<Integer, Double> costs) {
+        vertices().filter(v -> !v.ins().isEmpty() && !v.id().isScoped()).forEach(vertex -> {
+            ProcedureEdge<?, ?> branch = vertex.branchEdge();
+            List<ProcedureEdge<?, ?>> intersected = iterate(vertex.ins()).filter(
+                    edge -> edge.isClosureEdge() && edge.isIntersectable() && edge.order() > branch.order() + 1 &&
+                            (edge.from().isStartingVertex() || edge.from().branchEdge().order() < branch.order()) &&
+                            costs.get(edge.order()) <= costs.get(branch.order())
+            ).toList();
+            if (!intersected.isEmpty()) vertex.intersect(intersected);
+        });
     }
 
     public void registerEdge(ProcedureEdge<?, ?> edge) {
@@ -154,13 +274,21 @@ public class GraphProcedure implements Procedure {
 
     private ProcedureVertex.Thing thingVertex(Identifier identifier, boolean isStart) {
         return vertices.computeIfAbsent(
-                identifier, id -> new ProcedureVertex.Thing(id, isStart)
+                identifier, id -> {
+                    ProcedureVertex.Thing vertex = new ProcedureVertex.Thing(id, isStart);
+                    vertex.index(vertices.size());
+                    return vertex;
+                }
         ).asThing();
     }
 
     private ProcedureVertex.Type typeVertex(Identifier identifier, boolean isStart) {
         return vertices.computeIfAbsent(
-                identifier, id -> new ProcedureVertex.Type(id, isStart)
+                identifier, id -> {
+                    ProcedureVertex.Type vertex = new ProcedureVertex.Type(id, isStart);
+                    vertex.index(vertices.size());
+                    return vertex;
+                }
         ).asType();
     }
 
@@ -177,9 +305,22 @@ public class GraphProcedure implements Procedure {
         }
         assertWithinFilterBounds(filter);
         ConcurrentSet<VertexMap> produced = new ConcurrentSet<>();
-        ResourceIterator<ResourceIterator<VertexMap>> iterators = startVertex().iterator(graphMgr, params)
-                .map(v -> new GraphIterator(graphMgr, v, this, params, filter).distinct(produced));
-        return async(iterators, parallelisation);
+        // the set of answers produced outlives every iterator, so it is released with a budget of its own
+        MemoryBudget budget = params.memoryBudget().operator();
+        Optional<List<ResourceIterator<? extends ThingVertex>>> partitions = parallelisation > 1 && startVertex().isThing()
+                ? startVertex().asThing().partitions(graphMgr, parallelisation) : Optional.empty();
+        ResourceIterator<ResourceIterator<VertexMap>> iterators;
+        if (partitions.isPresent()) {
+            iterators = iterate(partitions.get()).map(p -> new GraphIterator(graphMgr, p, this, params, filter).distinct(
+                    produced, budget, answer -> answerBytes(answer.size())
+            ));
+        } else {
+            iterators = startVertex().iterator(graphMgr, params)
+                    .map(v -> new GraphIterator(graphMgr, v, this, params, filter).distinct(
+                            produced, budget, answer -> answerBytes(answer.size())
+                    ));
+        }
+        return async(iterators, parallelisation).onRecycle(budget::close);
     }
 
     @Override
@@ -190,9 +331,11 @@ public class GraphProcedure implements Procedure {
             LOG.debug(this.toString());
         }
         assertWithinFilterBounds(filter);
-        return startVertex().iterator(graphMgr, params).flatMap(
-                sv -> new GraphIterator(graphMgr, sv, this, params, filter)
-        ).distinct();
+        ResourceIterator<VertexMap> iterator;
+        if (planner == null) iterator = new GraphIterator(graphMgr, startVertex().iterator(graphMgr, params), this, params, filter);
+        else iterator = new AdaptiveIterator(graphMgr, this, params, filter);
+        // the answers of a procedure switched to are distinct from those already returned, too
+        return iterator.distinct(params.memoryBudget(), answer -> answerBytes(answer.size()));
     }
 
     @Override
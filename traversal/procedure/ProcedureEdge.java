@@ -37,8 +37,10 @@ import grakn.core.traversal.common.Identifier;
 import grakn.core.traversal.graph.TraversalEdge;
 import grakn.core.traversal.iterator.GraphIterator;
 import grakn.core.traversal.planner.PlannerEdge;
+import grakn.core.traversal.predicate.PredicateOperator;
 import graql.lang.common.GraqlToken;
 
+import javax.annotation.Nullable;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Optional;
@@ -69,8 +71,13 @@ import static grakn.core.graph.common.Encoding.Edge.Type.RELATES;
 import static grakn.core.graph.common.Encoding.Edge.Type.SUB;
 import static grakn.core.graph.common.Encoding.Prefix.VERTEX_ATTRIBUTE;
 import static grakn.core.graph.common.Encoding.Prefix.VERTEX_ROLE;
+import static grakn.core.graph.common.Encoding.ValueType.DOUBLE_PRECISION;
 import static grakn.core.graph.common.Encoding.Vertex.Thing.RELATION;
 import static grakn.core.traversal.predicate.PredicateOperator.Equality.EQ;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.GT;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.GTE;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.LT;
+import static grakn.core.traversal.predicate.PredicateOperator.Equality.LTE;
 import static grakn.core.traversal.procedure.ProcedureVertex.Thing.filterAttributes;
 
 public abstract class ProcedureEdge<
@@ -135,6 +142,21 @@ public abstract class ProcedureEdge<
 
     public boolean isRolePlayer() { return false; }
 
+    public boolean isIntersectable() { return false; }
+
+    /**
+     * Returns every vertex adjacent to the given one through this edge,
+     * without filtering them by the properties of the vertex this edge goes
+     * to, so that they are a superset of the vertices this edge may close on.
+     *
+     * @param graphMgr   the graph to read the adjacency from
+     * @param fromVertex the vertex this edge comes from
+     * @return the vertices adjacent to the given one through this edge
+     */
+    public ResourceIterator<? extends ThingVertex> adjacents(GraphManager graphMgr, Vertex<?, ?> fromVertex) {
+        throw GraknException.of(ILLEGAL_OPERATION);
+    }
+
     public Native.Thing.RolePlayer asRolePlayer() {
         throw GraknException.of(ILLEGAL_CAST, className(getClass()), className(Native.Thing.RolePlayer.class));
     }
@@ -179,6 +201,8 @@ public abstract class ProcedureEdge<
 
     static class Predicate extends ProcedureEdge<ProcedureVertex.Thing, ProcedureVertex.Thing> {
 
+        private static final double MAX_EXACT_LONG = 1L << 52;
+
         private final grakn.core.traversal.predicate.Predicate.Variable predicate;
 
         private Predicate(ProcedureVertex.Thing from, ProcedureVertex.Thing to, int order,
@@ -194,25 +218,95 @@ public abstract class ProcedureEdge<
         public ResourceIterator<? extends Vertex<?, ?>> branch(
                 GraphManager graphMgr, Vertex<?, ?> fromVertex, Traversal.Parameters params) {
             assert fromVertex.isThing() && fromVertex.asThing().isAttribute();
+            AttributeVertex<?> fromAttribute = fromVertex.asThing().asAttribute();
             ResourceIterator<? extends AttributeVertex<?>> toIter;
 
             if (to.props().hasIID()) {
                 toIter = to.iterateAndFilterFromIID(graphMgr, params)
                         .filter(ThingVertex::isAttribute).map(ThingVertex::asAttribute);
-            } else if (!to.props().types().isEmpty()) {
+            } else if (!to.props().types().isEmpty() &&
+                    iterate(to.props().predicates()).anyMatch(p -> p.operator().equals(EQ))) {
                 toIter = to.iterateAndFilterFromTypes(graphMgr, params)
                         .filter(ThingVertex::isAttribute).map(ThingVertex::asAttribute);
             } else {
-                assert !to.isStartingVertex();
-                toIter = iterate(fromVertex.asThing().asAttribute().valueType().comparables())
-                        .flatMap(vt -> graphMgr.schema().attributeTypes(vt))
-                        .flatMap(at -> graphMgr.data().get(at)).map(ThingVertex::asAttribute);
+                ResourceIterator<TypeVertex> attributeTypes;
+                if (!to.props().types().isEmpty()) {
+                    attributeTypes = iterate(to.props().types()).map(l -> graphMgr.schema().getType(l))
+                            .noNulls().filter(TypeVertex::isAttributeType);
+                } else {
+                    assert !to.isStartingVertex();
+                    attributeTypes = iterate(fromAttribute.valueType().comparables())
+                            .flatMap(vt -> graphMgr.schema().attributeTypes(vt));
+                }
+                toIter = attributeTypes.flatMap(at -> seek(graphMgr, at, fromAttribute));
                 if (!to.props().predicates().isEmpty()) {
                     toIter = to.filterPredicates(toIter, params);
                 }
             }
 
-            return toIter.filter(toVertex -> predicate.apply(fromVertex.asThing().asAttribute(), toVertex));
+            return toIter.filter(toVertex -> predicate.apply(fromAttribute, toVertex));
+        }
+
+        /**
+         * Returns the attributes of the given type that may satisfy the predicate
+         * against the given attribute. Attributes of sortable value types are
+         * sought within the range of values that the predicate bounds, and
+         * attributes of other value types are looked up directly if the predicate
+         * is an equality, so only a not-equals predicate, or an ordering one over
+         * booleans or strings, iterates every attribute of the type. The range is
+         * widened to include values that compare equal within the precision of
+         * doubles, so the predicate must still be applied to every attribute.
+         */
+        private ResourceIterator<AttributeVertex<?>> seek(GraphManager graphMgr, TypeVertex type,
+                                                          AttributeVertex<?> from) {
+            if (!from.valueType().comparableTo(type.valueType())) return empty();
+            PredicateOperator.Equality operator = predicate.operator();
+            // the predicate is applied as "from <operator> to", so it bounds the values of "to" from the other side
+            boolean isLowerBounded = operator.equals(EQ) || operator.equals(LT) || operator.equals(LTE);
+            boolean isUpperBounded = operator.equals(EQ) || operator.equals(GT) || operator.equals(GTE);
+            switch (type.valueType()) {
+                case LONG:
+                case DOUBLE:
+                case DATETIME:
+                    if (!isLowerBounded && !isUpperBounded) break;
+                    return graphMgr.data().get(type, isLowerBounded ? bound(type, from, false) : null,
+                                               isUpperBounded ? bound(type, from, true) : null);
+                case BOOLEAN:
+                    if (!operator.equals(EQ)) break;
+                    return single(graphMgr.data().get(type, from.asBoolean().value())).noNulls()
+                            .map(ThingVertex::asAttribute);
+                case STRING:
+                    if (!operator.equals(EQ)) break;
+                    return single(graphMgr.data().get(type, from.asString().value())).noNulls()
+                            .map(ThingVertex::asAttribute);
+                default:
+                    throw GraknException.of(ILLEGAL_STATE);
+            }
+            return graphMgr.data().get(type).map(ThingVertex::asAttribute);
+        }
+
+        @Nullable
+        private static VertexIID.Attribute<?> bound(TypeVertex type, AttributeVertex<?> from, boolean isUpper) {
+            switch (type.valueType()) {
+                case LONG:
+                    if (from.isLong()) return new VertexIID.Attribute.Long(type.iid(), from.asLong().value());
+                    double value = widen(from.asDouble().value(), isUpper);
+                    // beyond this magnitude, longs no longer convert to distinct doubles, so the bound is not exact
+                    if (Double.isNaN(value) || Math.abs(value) >= MAX_EXACT_LONG) return null;
+                    return new VertexIID.Attribute.Long(type.iid(), (long) (isUpper ? Math.ceil(value) : Math.floor(value)));
+                case DOUBLE:
+                    double fromValue = from.isLong() ? from.asLong().value() : from.asDouble().value();
+                    return new VertexIID.Attribute.Double(type.iid(), widen(fromValue, isUpper));
+                case DATETIME:
+                    return new VertexIID.Attribute.DateTime(type.iid(), from.asDateTime().value());
+                default:
+                    throw GraknException.of(ILLEGAL_STATE);
+            }
+        }
+
+        private static double widen(double value, boolean isUpper) {
+            if (isUpper) return Math.nextUp(value + DOUBLE_PRECISION);
+            else return Math.nextDown(value - DOUBLE_PRECISION);
         }
 
         @Override
@@ -732,6 +826,9 @@ public abstract class ProcedureEdge<
                     super(from, to, order, direction, HAS);
                 }
 
+                @Override
+                public boolean isIntersectable() { return true; }
+
                 static class Forward extends Has {
 
                     Forward(ProcedureVertex.Thing from, ProcedureVertex.Thing to, int order) {
@@ -776,6 +873,12 @@ public abstract class ProcedureEdge<
                                              Traversal.Parameters params) {
                         return fromVertex.asThing().outs().edge(HAS, toVertex.asThing()) != null;
                     }
+
+                    @Override
+                    public ResourceIterator<? extends ThingVertex> adjacents(GraphManager graphMgr,
+                                                                             Vertex<?, ?> fromVertex) {
+                        return fromVertex.asThing().outs().edge(HAS).to();
+                    }
                 }
 
                 static class Backward extends Has {
@@ -812,6 +915,12 @@ public abstract class ProcedureEdge<
                                              Vertex<?, ?> toVertex, Traversal.Parameters params) {
                         return fromVertex.asThing().ins().edge(HAS, toVertex.asThing()) != null;
                     }
+
+                    @Override
+                    public ResourceIterator<? extends ThingVertex> adjacents(GraphManager graphMgr,
+                                                                             Vertex<?, ?> fromVertex) {
+                        return fromVertex.asThing().ins().edge(HAS).from();
+                    }
                 }
             }
 
@@ -993,6 +1102,9 @@ public abstract class ProcedureEdge<
                 @Override
                 public boolean isRolePlayer() { return true; }
 
+                @Override
+                public boolean isIntersectable() { return true; }
+
                 @Override
                 public RolePlayer asRolePlayer() { return this; }
 
@@ -1072,6 +1184,15 @@ public abstract class ProcedureEdge<
                         validEdge.ifPresent(e -> scoped.push(e.optimised().get(), order()));
                         return validEdge.isPresent();
                     }
+
+                    @Override
+                    public ResourceIterator<? extends ThingVertex> adjacents(GraphManager graphMgr,
+                                                                             Vertex<?, ?> fromVertex) {
+                        ThingVertex rel = fromVertex.asThing();
+                        if (roleTypes.isEmpty()) return rel.outs().edge(ROLEPLAYER).to();
+                        else return iterate(resolvedRoleTypes(graphMgr.schema()))
+                                .flatMap(rt -> rel.outs().edge(ROLEPLAYER, rt.iid()).to());
+                    }
                 }
 
                 static class Backward extends RolePlayer {
@@ -1134,6 +1255,15 @@ public abstract class ProcedureEdge<
                         return validEdge.isPresent();
                     }
 
+                    @Override
+                    public ResourceIterator<? extends ThingVertex> adjacents(GraphManager graphMgr,
+                                                                             Vertex<?, ?> fromVertex) {
+                        ThingVertex player = fromVertex.asThing();
+                        if (roleTypes.isEmpty()) return player.ins().edge(ROLEPLAYER).from();
+                        else return iterate(resolvedRoleTypes(graphMgr.schema()))
+                                .flatMap(rt -> player.ins().edge(ROLEPLAYER, rt.iid()).from());
+                    }
+
                     @Override
                     public boolean onlyEndsAtRelation() {
                         return true;
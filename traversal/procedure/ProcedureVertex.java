@@ -18,6 +18,7 @@
 
 package grakn.core.traversal.procedure;
 
+import grakn.common.collection.Pair;
 import grakn.core.common.exception.GraknException;
 import grakn.core.common.iterator.ResourceIterator;
 import grakn.core.common.parameters.Label;
@@ -42,6 +43,8 @@ import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
+import static grakn.common.collection.Collections.list;
+import static grakn.common.collection.Collections.pair;
 import static grakn.common.collection.Collections.set;
 import static grakn.common.util.Objects.className;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_CAST;
@@ -65,11 +68,14 @@ public abstract class ProcedureVertex<
     private final boolean isStartingVertex;
     private final AtomicReference<Set<Integer>> dependedEdgeOrders;
     private ProcedureEdge<?, ?> iteratorEdge;
+    private List<ProcedureEdge<?, ?>> intersectedEdges;
+    private int index;
 
     ProcedureVertex(Identifier identifier, boolean isStartingVertex) {
         super(identifier);
         this.isStartingVertex = isStartingVertex;
         this.dependedEdgeOrders = new AtomicReference<>(null);
+        this.intersectedEdges = list();
     }
 
     public abstract ResourceIterator<? extends VERTEX> iterator(GraphManager graphMgr, Traversal.Parameters parameters);
@@ -84,6 +90,20 @@ public abstract class ProcedureVertex<
         return isStartingVertex;
     }
 
+    /**
+     * Returns the position of this vertex in its procedure, which iterators
+     * use to keep their answers in arrays rather than in maps.
+     *
+     * @return the position of this vertex in its procedure
+     */
+    public int index() {
+        return index;
+    }
+
+    void index(int index) {
+        this.index = index;
+    }
+
     public Set<Integer> dependedEdgeOrders() {
         dependedEdgeOrders.compareAndSet(null, computeDependedEdgeOrders());
         return dependedEdgeOrders.get();
@@ -99,6 +119,24 @@ public abstract class ProcedureVertex<
         else return iteratorEdge;
     }
 
+    /**
+     * Returns the closure edges into this vertex whose adjacency is intersected
+     * with the branch edge of this vertex, to discard the candidates that these
+     * closures would reject before the edges in between them are traversed.
+     * Every one of these edges comes from a vertex that is bound before the
+     * branch edge of this vertex.
+     *
+     * @return the closure edges that the branch edge of this vertex intersects
+     */
+    public List<ProcedureEdge<?, ?>> intersectedEdges() {
+        return intersectedEdges;
+    }
+
+    void intersect(List<ProcedureEdge<?, ?>> edges) {
+        assert iterate(edges).allMatch(e -> e.to().equals(this) && e.isClosureEdge());
+        intersectedEdges = edges;
+    }
+
     public ProcedureVertex.Thing asThing() {
         throw GraknException.of(ILLEGAL_CAST, className(this.getClass()), className(ProcedureVertex.Thing.class));
     }
@@ -124,6 +162,8 @@ public abstract class ProcedureVertex<
 
     public static class Thing extends ProcedureVertex<ThingVertex, Properties.Thing> {
 
+        static final int ROLE_PLAYER_INDEX_SEEKS = 256;
+
         Thing(Identifier identifier, boolean isStartingVertex) {
             super(identifier, isStartingVertex);
         }
@@ -143,7 +183,11 @@ public abstract class ProcedureVertex<
         public ResourceIterator<? extends ThingVertex> iterator(GraphManager graphMgr, Traversal.Parameters parameters) {
             assert isStartingVertex();
             if (props().hasIID()) return iterateAndFilterFromIID(graphMgr, parameters);
-            else if (!props().types().isEmpty()) return iterateAndFilterFromTypes(graphMgr, parameters);
+            else if (!props().types().isEmpty()) {
+                Optional<ResourceIterator<ThingVertex>> indexed = iterateFromRolePlayerIndex(graphMgr);
+                if (indexed.isPresent()) return indexed.get();
+                else return iterateAndFilterFromTypes(graphMgr, parameters);
+            }
             else if (mustBeAttribute()) return iterateAndFilterFromAttributes(graphMgr, parameters);
             else if (mustBeRelation()) return iterateFromAll(graphMgr, graphMgr.schema().rootRelationType());
             else if (mustBeRole()) return iterateFromAll(graphMgr, graphMgr.schema().rootRoleType());
@@ -151,6 +195,37 @@ public abstract class ProcedureVertex<
             else throw GraknException.of(ILLEGAL_STATE);
         }
 
+        /**
+         * Returns the starting vertices of this vertex split into partitions
+         * that can be iterated concurrently, when this vertex starts from a scan
+         * of the instances of entity or relation types. Each type is split into
+         * partitions of contiguous IIDs, so that a procedure that starts from a
+         * single large type still spreads its scan across all the iterators that
+         * it is given to run in parallel. If the types cannot be split into at
+         * least as many partitions as requested, they are not partitioned, so
+         * that the procedure can branch out from each starting vertex instead.
+         *
+         * @param graphMgr   the graph manager to look up the types and instances from
+         * @param partitions the maximum number of partitions to split each type into
+         * @return the partitions of the starting vertices, or empty if they cannot be partitioned
+         */
+        public Optional<List<ResourceIterator<? extends ThingVertex>>> partitions(GraphManager graphMgr, int partitions) {
+            assert isStartingVertex();
+            if (props().hasIID() || props().types().isEmpty() || !props().predicates().isEmpty()) return Optional.empty();
+            List<TypeVertex> types = new ArrayList<>();
+            for (Label label : props().types()) {
+                TypeVertex type = assertTypeNotNull(graphMgr.schema().getType(label), label);
+                if (!type.isEntityType() && !type.isRelationType()) return Optional.empty();
+                types.add(type);
+            }
+            if (rolePlayerIndexSeeks(graphMgr).isPresent()) return Optional.empty();
+            List<ResourceIterator<? extends ThingVertex>> iterators = new ArrayList<>();
+            for (TypeVertex type : types) iterators.addAll(graphMgr.data().partitions(type, partitions));
+            if (iterators.size() >= partitions) return Optional.of(iterators);
+            iterators.forEach(ResourceIterator::recycle);
+            return Optional.empty();
+        }
+
         ResourceIterator<? extends ThingVertex> filter(ResourceIterator<? extends ThingVertex> iterator,
                                                        Traversal.Parameters params) {
             if (props().hasIID()) iterator = filterIID(iterator, params);
@@ -201,6 +276,66 @@ public abstract class ProcedureVertex<
             else return filterPredicates(iter, parameters, eq.orElse(null));
         }
 
+        /**
+         * Returns the relations that this vertex may start from by seeking the
+         * role player index, when this vertex is a relation with a role player
+         * edge out of it that restricts both the role types and the types of the
+         * players. Each combination of the relation, role and player types is a
+         * single seek, which finds only the relations that have such a player,
+         * rather than iterating every relation of the types. The role player edge
+         * that needs the fewest seeks is used, and it is still traversed as usual
+         * afterwards, to bind the players.
+         *
+         * @param graphMgr the graph manager to look up the types and relations from
+         * @return the relations from the role player index, or empty if the index does not apply
+         */
+        private Optional<ResourceIterator<ThingVertex>> iterateFromRolePlayerIndex(GraphManager graphMgr) {
+            Optional<Pair<List<TypeVertex>, List<TypeVertex[]>>> seeks = rolePlayerIndexSeeks(graphMgr);
+            if (!seeks.isPresent()) return Optional.empty();
+            List<TypeVertex[]> roleSeeks = seeks.get().second();
+            return Optional.of(iterate(seeks.get().first()).flatMap(relationType -> iterate(roleSeeks).flatMap(
+                    seek -> graphMgr.data().get(relationType, seek[0], seek[1])
+            )).distinct());
+        }
+
+        /**
+         * Returns the relation types, and the pairs of role and player types,
+         * that this vertex would seek in the role player index, if the index
+         * applies to it.
+         *
+         * @param graphMgr the graph manager to look up the types from
+         * @return the relation types and the role and player types to seek, or empty if the index does not apply
+         */
+        private Optional<Pair<List<TypeVertex>, List<TypeVertex[]>>> rolePlayerIndexSeeks(GraphManager graphMgr) {
+            if (!id().isVariable() || !props().predicates().isEmpty()) return Optional.empty();
+            List<TypeVertex> relationTypes = new ArrayList<>();
+            for (Label label : props().types()) {
+                TypeVertex type = graphMgr.schema().getType(label);
+                if (type == null) continue;
+                else if (!type.isRelationType()) return Optional.empty();
+                relationTypes.add(type);
+            }
+
+            List<TypeVertex[]> seeks = null;
+            for (ProcedureEdge<?, ?> edge : outs()) {
+                if (!edge.isRolePlayer() || !edge.direction().isForward()) continue;
+                ProcedureEdge.Native.Thing.RolePlayer rolePlayer = edge.asRolePlayer();
+                Set<Label> playerTypes = rolePlayer.to().asThing().props().types();
+                if (rolePlayer.roleTypes.isEmpty() || playerTypes.isEmpty()) continue;
+                List<TypeVertex[]> edgeSeeks = new ArrayList<>();
+                for (TypeVertex roleType : rolePlayer.resolvedRoleTypes(graphMgr.schema())) {
+                    iterate(playerTypes).map(l -> graphMgr.schema().getType(l)).noNulls()
+                            .forEachRemaining(playerType -> edgeSeeks.add(new TypeVertex[]{roleType, playerType}));
+                }
+                if (seeks == null || edgeSeeks.size() < seeks.size()) seeks = edgeSeeks;
+            }
+            if (seeks == null || relationTypes.size() * seeks.size() > ROLE_PLAYER_INDEX_SEEKS ||
+                    !graphMgr.data().isRolePlayerIndexed()) {
+                return Optional.empty();
+            }
+            return Optional.of(pair(relationTypes, seeks));
+        }
+
         private ResourceIterator<ThingVertex> iterateFromAll(GraphManager graphMgr, TypeVertex rootType) {
             return tree(rootType, t -> t.ins().edge(SUB).from()).flatMap(t -> graphMgr.data().get(t));
         }
@@ -267,8 +402,8 @@ public abstract class ProcedureVertex<
             assert id().isVariable();
             for (Predicate.Value<?> predicate : props().predicates()) {
                 if (Objects.equals(predicate, exclude)) continue;
-                for (Traversal.Parameters.Value value : parameters.getValues(id().asVariable(), predicate)) {
-                    iterator = iterator.filter(a -> predicate.apply(a, value));
+                for (Predicate.Value.Compiled compiled : parameters.getCompiled(id().asVariable(), predicate)) {
+                    iterator = iterator.filter(compiled::test);
                 }
             }
             return iterator;
@@ -280,8 +415,8 @@ public abstract class ProcedureVertex<
             Function<ThingEdge, ThingVertex> fn = e -> isForward ? e.to() : e.from();
             iterator = iterator.filter(e -> fn.apply(e).isAttribute());
             for (Predicate.Value<?> predicate : props().predicates()) {
-                for (Traversal.Parameters.Value value : parameters.getValues(id().asVariable(), predicate)) {
-                    iterator = iterator.filter(e -> predicate.apply(fn.apply(e).asAttribute(), value));
+                for (Predicate.Value.Compiled compiled : parameters.getCompiled(id().asVariable(), predicate)) {
+                    iterator = iterator.filter(e -> compiled.test(fn.apply(e).asAttribute()));
                 }
             }
             return iterator;
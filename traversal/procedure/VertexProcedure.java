@@ -23,6 +23,7 @@ import grakn.core.concurrent.producer.Producer;
 import grakn.core.graph.GraphManager;
 import grakn.core.graph.vertex.Vertex;
 import grakn.core.traversal.Traversal;
+import grakn.core.traversal.TraversalProfile;
 import grakn.core.traversal.common.Identifier;
 import grakn.core.traversal.common.VertexMap;
 import grakn.core.traversal.planner.PlannerVertex;
@@ -34,8 +35,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 
-import static grakn.common.collection.Collections.map;
-import static grakn.common.collection.Collections.pair;
+import static grakn.core.common.iterator.Iterators.cancellable;
 import static grakn.core.concurrent.producer.Producers.async;
 
 public class VertexProcedure implements Procedure {
@@ -101,12 +101,20 @@ public class VertexProcedure implements Procedure {
         LOG.debug(params.toString());
         LOG.debug(this.toString());
         assert vertex.id().isRetrievable() && filter.contains(vertex.id().asVariable().asRetrievable());
-        ResourceIterator<? extends Vertex<?, ?>> iterator = vertex.iterator(graphMgr, params);
+        ResourceIterator<? extends Vertex<?, ?>> iterator = cancellable(vertex.iterator(graphMgr, params),
+                                                                        params.cancellation());
         for (ProcedureEdge<?, ?> e : vertex.outs()) {
             iterator = iterator.filter(v -> e.isClosure(graphMgr, v, v, params));
         }
 
-        return iterator.map(v -> VertexMap.of(map(pair(vertex.id().asVariable().asRetrievable(), v)))).distinct();
+        Identifier.Variable.Retrievable[] ids = {vertex.id().asVariable().asRetrievable()};
+        ResourceIterator<VertexMap> answers = iterator.map(v -> VertexMap.of(ids, new Vertex<?, ?>[]{v})).distinct();
+        if (params.profile() == null) return answers;
+        TraversalProfile.ProcedureProfile profile = params.profile().procedure(this, vertex);
+        return answers.map(answer -> {
+            profile.answered();
+            return answer;
+        });
     }
 
 }
@@ -155,6 +155,22 @@ public class Structure {
         adjacents.forEach(v -> splitGraph(v, newStructure, verticesToVisit, edgesToVisit));
     }
 
+    /**
+     * Returns a canonical string of this structure, which is the same for any
+     * two equal structures, including across restarts, as it is built from the
+     * sorted fingerprints of the vertices and edges rather than their hashes.
+     *
+     * @return the fingerprint of this structure
+     */
+    public String fingerprint() {
+        StringBuilder fingerprint = new StringBuilder();
+        vertices.values().stream().map(v -> v.id() + " " + v.props()).sorted()
+                .forEach(v -> fingerprint.append(v).append('\n'));
+        edges.stream().map(StructureEdge::fingerprint).sorted()
+                .forEach(e -> fingerprint.append(e).append('\n'));
+        return fingerprint.toString();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
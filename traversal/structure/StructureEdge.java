@@ -30,6 +30,7 @@ import java.util.Set;
 import static grakn.common.util.Objects.className;
 import static grakn.core.common.exception.ErrorMessage.Internal.ILLEGAL_CAST;
 import static grakn.core.graph.common.Encoding.Edge.Thing.ROLEPLAYER;
+import static java.util.stream.Collectors.toList;
 
 public abstract class StructureEdge<VERTEX_FROM extends StructureVertex<?>, VERTEX_TO extends StructureVertex<?>>
         extends TraversalEdge<VERTEX_FROM, VERTEX_TO> {
@@ -38,6 +39,16 @@ public abstract class StructureEdge<VERTEX_FROM extends StructureVertex<?>, VERT
         super(from, to, symbol);
     }
 
+    /**
+     * Returns a string that identifies this edge within its structure, as it
+     * includes everything its equality depends on.
+     *
+     * @return the fingerprint of this edge
+     */
+    public String fingerprint() {
+        return toString();
+    }
+
     public boolean isEqual() {
         return false;
     }
@@ -160,6 +171,11 @@ public abstract class StructureEdge<VERTEX_FROM extends StructureVertex<?>, VERT
 
         public boolean isRolePlayer() { return false; }
 
+        @Override
+        public String fingerprint() {
+            return toString() + (isTransitive ? " transitive" : "");
+        }
+
         public RolePlayer asRolePlayer() {
             throw GraknException.of(ILLEGAL_CAST, className(this.getClass()), className(RolePlayer.class));
         }
@@ -204,6 +220,12 @@ public abstract class StructureEdge<VERTEX_FROM extends StructureVertex<?>, VERT
             @Override
             public RolePlayer asRolePlayer() { return this; }
 
+            @Override
+            public String fingerprint() {
+                return toString() + " " + roleTypes.stream().map(Label::toString).sorted().collect(toList())
+                        + " " + repetition;
+            }
+
             @Override
             public boolean equals(Object o) {
                 if (this == o) return true;